@@ -0,0 +1,127 @@
+package com.campusnest.campusnest_platform.config.caching;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4SafeDecompressor;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Compact cache value serializer: CBOR (binary JSON) for a fixed target type, LZ4-compressed once
+ * the encoded value reaches a size threshold.
+ * Values are encoded by property name like the JSON serializers, so adding or removing record
+ * components stays readable in both directions; no class names are embedded.
+ * <p>
+ * Wire format: one header byte ({@link #RAW} or {@link #LZ4}), then either the CBOR bytes or the
+ * original length (4 bytes) followed by the LZ4 block. Cached bytes are not trusted on read: the stated
+ * length must lie within {@link #MAX_DECOMPRESSED_LENGTH} and match what the block actually decodes to.
+ */
+public class BinaryRedisSerializer<T> implements RedisSerializer<T> {
+
+    static final byte RAW = 0x01;
+    static final byte LZ4 = 0x02;
+
+    // Far above any cached page or snapshot; a larger stated length means a corrupt entry
+    static final int MAX_DECOMPRESSED_LENGTH = 16 * 1024 * 1024;
+
+    private static final LZ4Factory LZ4_FACTORY = LZ4Factory.fastestInstance();
+
+    private final ObjectWriter writer;
+    private final ObjectReader reader;
+    private final int compressionThreshold;
+    private final LZ4Compressor compressor = LZ4_FACTORY.fastCompressor();
+    private final LZ4SafeDecompressor decompressor = LZ4_FACTORY.safeDecompressor();
+
+    public BinaryRedisSerializer(Class<T> type, int compressionThreshold) {
+        this(cborMapper(), type, compressionThreshold);
+    }
+
+    public BinaryRedisSerializer(ObjectMapper mapper, Class<T> type, int compressionThreshold) {
+        this.writer = mapper.writerFor(type);
+        this.reader = mapper.readerFor(type);
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    public static ObjectMapper cborMapper() {
+        return CBORMapper.builder()
+                .addModule(new JavaTimeModule())
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .build();
+    }
+
+    @Override
+    public byte[] serialize(T value) throws SerializationException {
+        if (value == null) {
+            return new byte[0];
+        }
+        byte[] encoded;
+        try {
+            encoded = writer.writeValueAsBytes(value);
+        } catch (Exception e) {
+            throw new SerializationException("Could not write CBOR: " + e.getMessage(), e);
+        }
+
+        if (encoded.length >= compressionThreshold) {
+            byte[] compressed = compress(encoded);
+            // Incompressible payloads are stored raw rather than paying for decompression later
+            if (compressed.length < encoded.length + 1) {
+                return compressed;
+            }
+        }
+        byte[] raw = new byte[encoded.length + 1];
+        raw[0] = RAW;
+        System.arraycopy(encoded, 0, raw, 1, encoded.length);
+        return raw;
+    }
+
+    @Override
+    public T deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        try {
+            return switch (bytes[0]) {
+                case RAW -> reader.readValue(bytes, 1, bytes.length - 1);
+                case LZ4 -> reader.readValue(decompress(bytes));
+                default -> throw new SerializationException("Unknown cache value header: " + bytes[0]);
+            };
+        } catch (SerializationException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new SerializationException("Could not read CBOR: " + e.getMessage(), e);
+        }
+    }
+
+    private byte[] compress(byte[] encoded) {
+        byte[] out = new byte[5 + compressor.maxCompressedLength(encoded.length)];
+        out[0] = LZ4;
+        ByteBuffer.wrap(out, 1, 4).putInt(encoded.length);
+        int length = compressor.compress(encoded, 0, encoded.length, out, 5, out.length - 5);
+        return Arrays.copyOf(out, 5 + length);
+    }
+
+    private byte[] decompress(byte[] bytes) {
+        if (bytes.length < 5) {
+            throw new SerializationException("Truncated LZ4 cache value");
+        }
+        int originalLength = ByteBuffer.wrap(bytes, 1, 4).getInt();
+        if (originalLength < 0 || originalLength > MAX_DECOMPRESSED_LENGTH) {
+            throw new SerializationException("Invalid LZ4 cache value length: " + originalLength);
+        }
+        byte[] out = new byte[originalLength];
+        int length = decompressor.decompress(bytes, 5, bytes.length - 5, out, 0, originalLength);
+        if (length != originalLength) {
+            throw new SerializationException("LZ4 cache value decoded to " + length + " bytes, expected " + originalLength);
+        }
+        return out;
+    }
+}
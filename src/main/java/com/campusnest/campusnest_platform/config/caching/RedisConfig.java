@@ -1,13 +1,14 @@
 package com.campusnest.campusnest_platform.config.caching;
 
-import com.fasterxml.jackson.annotation.JsonAutoDetect;
-import com.fasterxml.jackson.annotation.JsonTypeInfo;
-import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.campusnest.campusnest_platform.projection.ConversationPageSnapshot;
+import com.campusnest.campusnest_platform.projection.ConversationRoute;
+import com.campusnest.campusnest_platform.projection.ListingPageSnapshot;
+import com.campusnest.campusnest_platform.projection.ListingSnapshot;
+import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
-import com.fasterxml.jackson.databind.jsontype.impl.LaissezFaireSubTypeValidator;
-import com.fasterxml.jackson.datatype.hibernate6.Hibernate6Module;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -15,61 +16,63 @@ import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 import java.time.Duration;
 import java.util.Map;
+import java.util.Set;
 
 @Configuration
 @EnableCaching
 public class RedisConfig {
 
+    // Also bounds how long search cache tags live, see SearchCacheTags
+    public static final Duration SEARCH_CACHE_TTL = Duration.ofMinutes(15);
+
+    // Near cache (L1) bounds; kept short so entries missed by pub/sub still age out quickly
+    @Value("${cache.local.max-size:10000}")
+    private long localCacheMaxSize;
+
+    @Value("${cache.local.ttl-seconds:60}")
+    private long localCacheTtlSeconds;
+
+    // Typed caches listed here are stored as LZ4-compressed CBOR instead of JSON
+    @Value("${cache.redis.binary-caches:}")
+    private Set<String> binaryCaches;
+
+    @Value("${cache.redis.compression-threshold-bytes:512}")
+    private int compressionThresholdBytes;
+
     /**
-     * Custom ObjectMapper only for Redis serialization
+     * ObjectMapper for Redis values. Cached values are plain snapshot records with a known type
+     * per cache, so no Hibernate module and no embedded type ids are needed.
      */
-    private ObjectMapper redisObjectMapper() {
+    static ObjectMapper redisObjectMapper() {
         ObjectMapper mapper = new ObjectMapper();
-
-        // Hibernate & Java Time modules
-        Hibernate6Module hibernateModule = new Hibernate6Module();
-        hibernateModule.disable(Hibernate6Module.Feature.USE_TRANSIENT_ANNOTATION);
-        hibernateModule.disable(Hibernate6Module.Feature.FORCE_LAZY_LOADING);
-        hibernateModule.disable(Hibernate6Module.Feature.WRITE_MISSING_ENTITIES_AS_NULL);
-        hibernateModule.enable(Hibernate6Module.Feature.SERIALIZE_IDENTIFIER_FOR_LAZY_NOT_LOADED_OBJECTS);
-        hibernateModule.enable(Hibernate6Module.Feature.REPLACE_PERSISTENT_COLLECTIONS);
-
-        mapper.registerModule(hibernateModule);
         mapper.registerModule(new JavaTimeModule());
-
-        // Serialization features
         mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
-        mapper.disable(SerializationFeature.FAIL_ON_EMPTY_BEANS);
-        mapper.enable(SerializationFeature.WRITE_ENUMS_USING_TO_STRING);
-        mapper.configure(com.fasterxml.jackson.databind.DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-        mapper.configure(com.fasterxml.jackson.databind.DeserializationFeature.FAIL_ON_IGNORED_PROPERTIES, false);
-
-        // Visibility settings
-        mapper.setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY);
-        mapper.setVisibility(PropertyAccessor.GETTER, JsonAutoDetect.Visibility.PUBLIC_ONLY);
-        mapper.setVisibility(PropertyAccessor.SETTER, JsonAutoDetect.Visibility.PUBLIC_ONLY);
-        mapper.setVisibility(PropertyAccessor.IS_GETTER, JsonAutoDetect.Visibility.NONE);
-        mapper.setVisibility(PropertyAccessor.CREATOR, JsonAutoDetect.Visibility.ANY);
-
-        // Default typing ONLY for Redis values
-        mapper.activateDefaultTyping(
-                LaissezFaireSubTypeValidator.instance,
-                ObjectMapper.DefaultTyping.NON_FINAL,
-                JsonTypeInfo.As.PROPERTY
-        );
-
+        mapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
         return mapper;
     }
 
+    private <T> RedisSerializationContext.SerializationPair<T> valuesOf(String cacheName, ObjectMapper mapper,
+                                                                      Class<T> type) {
+        RedisSerializer<T> serializer = binaryCaches.contains(cacheName)
+                ? new BinaryRedisSerializer<>(type, compressionThresholdBytes)
+                : new Jackson2JsonRedisSerializer<>(mapper, type);
+        return RedisSerializationContext.SerializationPair.fromSerializer(serializer);
+    }
+
     @Bean
     public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory factory) {
-        GenericJackson2JsonRedisSerializer serializer = new GenericJackson2JsonRedisSerializer(redisObjectMapper());
+        GenericJackson2JsonRedisSerializer serializer = new GenericJackson2JsonRedisSerializer();
 
         RedisTemplate<String, Object> template = new RedisTemplate<>();
         template.setConnectionFactory(factory);
@@ -81,25 +84,48 @@ public class RedisConfig {
     }
 
     @Bean
-    public RedisCacheManager cacheManager(RedisConnectionFactory factory) {
-        GenericJackson2JsonRedisSerializer serializer = new GenericJackson2JsonRedisSerializer(redisObjectMapper());
+    public TwoLevelCacheManager cacheManager(RedisConnectionFactory factory, StringRedisTemplate stringRedisTemplate) {
+        ObjectMapper mapper = redisObjectMapper();
 
+        // Caches without a typed configuration fall back to JSON with embedded class names
         RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig()
                 .entryTtl(Duration.ofMinutes(30))
                 .serializeKeysWith(RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer()))
-                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(serializer));
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(
+                        new GenericJackson2JsonRedisSerializer()));
 
         Map<String, RedisCacheConfiguration> cacheConfigurations = Map.of(
-                "housing-listings", config.entryTtl(Duration.ofMinutes(30)),
-                "housing-search", config.entryTtl(Duration.ofMinutes(15)),
-                "unread-counts", config.entryTtl(Duration.ofMinutes(2)),
-                "conversations", config.entryTtl(Duration.ofMinutes(5)),
-                "conversation-messages", config.entryTtl(Duration.ofMinutes(10))
+                "housing-listings", config.entryTtl(Duration.ofMinutes(30))
+                        .serializeValuesWith(valuesOf("housing-listings", mapper, ListingSnapshot.class)),
+                "housing-search", config.entryTtl(SEARCH_CACHE_TTL)
+                        .serializeValuesWith(valuesOf("housing-search", mapper, ListingPageSnapshot.class)),
+                "unread-counts", config.entryTtl(Duration.ofMinutes(2))
+                        .serializeValuesWith(valuesOf("unread-counts", mapper, Long.class)),
+                "conversations", config.entryTtl(Duration.ofMinutes(5))
+                        .serializeValuesWith(valuesOf("conversations", mapper, ConversationPageSnapshot.class)),
+                "conversation-messages", config.entryTtl(Duration.ofMinutes(10)),
+                "conversation-routes", config.entryTtl(Duration.ofMinutes(30))
+                        .serializeValuesWith(valuesOf("conversation-routes", mapper, ConversationRoute.class))
         );
 
-        return RedisCacheManager.builder(factory)
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(factory)
                 .cacheDefaults(config)
                 .withInitialCacheConfigurations(cacheConfigurations)
                 .build();
+        // Not a bean itself, so create the configured caches here
+        redisCacheManager.afterPropertiesSet();
+
+        return new TwoLevelCacheManager(redisCacheManager, stringRedisTemplate,
+                localCacheMaxSize, Duration.ofSeconds(localCacheTtlSeconds));
+    }
+
+    // Delivers near-cache invalidations published by other nodes
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory factory,
+                                                                           TwoLevelCacheManager cacheManager) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(factory);
+        container.addMessageListener(cacheManager, new ChannelTopic(TwoLevelCacheManager.INVALIDATION_CHANNEL));
+        return container;
     }
 }
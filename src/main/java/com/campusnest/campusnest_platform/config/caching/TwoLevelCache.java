@@ -0,0 +1,156 @@
+package com.campusnest.campusnest_platform.config.caching;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Near cache: a bounded in-process Caffeine L1 in front of a shared Redis L2.
+ * Cached values are immutable snapshots (records), so L1 hands out the same instance on every
+ * hit instead of paying for a copy; never cache mutable objects such as JPA entities here.
+ * Every write or eviction goes to L2 first and is then broadcast so other nodes drop their L1 copy.
+ */
+public class TwoLevelCache implements Cache {
+
+    // Stands in for a cached null so a miss and a stored null can be told apart
+    private static final Object NULL_VALUE = new Object();
+
+    private final String name;
+    private final Cache redisCache;
+    private final com.github.benmanes.caffeine.cache.Cache<String, Object> localCache;
+    private final TwoLevelCacheManager cacheManager;
+
+    public TwoLevelCache(String name, Cache redisCache,
+                         com.github.benmanes.caffeine.cache.Cache<String, Object> localCache,
+                         TwoLevelCacheManager cacheManager) {
+        this.name = name;
+        this.redisCache = redisCache;
+        this.localCache = localCache;
+        this.cacheManager = cacheManager;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return redisCache.getNativeCache();
+    }
+
+    public com.github.benmanes.caffeine.cache.Cache<String, Object> getLocalCache() {
+        return localCache;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        String localKey = localKey(key);
+        Object local = localCache.getIfPresent(localKey);
+        if (local != null) {
+            return new SimpleValueWrapper(fromLocal(local));
+        }
+
+        ValueWrapper remote = redisCache.get(key);
+        if (remote != null) {
+            putLocal(localKey, remote.get());
+        }
+        return remote;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        String localKey = localKey(key);
+        Object local = localCache.getIfPresent(localKey);
+        if (local != null) {
+            return (T) fromLocal(local);
+        }
+
+        T value = redisCache.get(key, valueLoader);
+        putLocal(localKey, value);
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        redisCache.put(key, value);
+        String localKey = localKey(key);
+        putLocal(localKey, value);
+        cacheManager.publishEvict(name, localKey);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = redisCache.putIfAbsent(key, value);
+        String localKey = localKey(key);
+        localCache.invalidate(localKey);
+        cacheManager.publishEvict(name, localKey);
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        redisCache.evict(key);
+        String localKey = localKey(key);
+        localCache.invalidate(localKey);
+        cacheManager.publishEvict(name, localKey);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean evicted = redisCache.evictIfPresent(key);
+        String localKey = localKey(key);
+        localCache.invalidate(localKey);
+        cacheManager.publishEvict(name, localKey);
+        return evicted;
+    }
+
+    @Override
+    public void clear() {
+        redisCache.clear();
+        localCache.invalidateAll();
+        cacheManager.publishClear(name);
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean invalidated = redisCache.invalidate();
+        localCache.invalidateAll();
+        cacheManager.publishClear(name);
+        return invalidated;
+    }
+
+    // Applied when another node changed this cache
+    void evictLocal(String localKey) {
+        localCache.invalidate(localKey);
+    }
+
+    void clearLocal() {
+        localCache.invalidateAll();
+    }
+
+    static String localKey(Object key) {
+        return String.valueOf(key);
+    }
+
+    private void putLocal(String localKey, Object value) {
+        localCache.put(localKey, value == null ? NULL_VALUE : value);
+    }
+
+    private static Object fromLocal(Object local) {
+        return local == NULL_VALUE ? null : local;
+    }
+}
@@ -0,0 +1,166 @@
+package com.campusnest.campusnest_platform.config.websocket;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.support.MessageHandlingRunnable;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Executor for the client inbound channel: a fixed set of lanes, each one thread over a bounded queue.
+ * <p>
+ * Frames are assigned to a lane by WebSocket session, so one client's frames are handled in the order
+ * they arrived while a slow database call only holds up the sessions sharing its lane. When a lane is
+ * full, frames to {@code droppable-destinations} (typing indicators) are dropped at once; any other
+ * frame waits up to {@code overload-timeout-millis} for room and is then rejected, which Spring turns
+ * into a STOMP ERROR for that client. Drops and rejections are counted in
+ * {@code websocket.inbound.rejected}.
+ */
+@Component
+@ConditionalOnProperty(name = "websocket.inbound.mode", havingValue = "lanes", matchIfMissing = true)
+@Slf4j
+public class InboundLaneExecutor implements Executor {
+
+    @Value("${websocket.inbound.lanes:16}")
+    private int laneCount = 16;
+
+    @Value("${websocket.inbound.lane-capacity:500}")
+    private int laneCapacity = 500;
+
+    @Value("${websocket.inbound.overload-timeout-millis:2000}")
+    private long overloadTimeoutMillis = 2000;
+
+    @Value("${websocket.inbound.droppable-destinations:/app/chat/typing}")
+    private List<String> droppableDestinations = List.of("/app/chat/typing");
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    private BlockingQueue<Runnable>[] lanes;
+    private Thread[] workers;
+    private Counter droppedCounter;
+    private Counter overloadedCounter;
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong overloaded = new AtomicLong();
+
+    @PostConstruct
+    @SuppressWarnings("unchecked")
+    void start() {
+        lanes = new BlockingQueue[laneCount];
+        workers = new Thread[laneCount];
+        ThreadFactory threadFactory = new CustomizableThreadFactory("ws-inbound-lane-");
+        for (int i = 0; i < laneCount; i++) {
+            BlockingQueue<Runnable> lane = new ArrayBlockingQueue<>(laneCapacity);
+            lanes[i] = lane;
+            workers[i] = threadFactory.newThread(() -> drain(lane));
+            workers[i].start();
+        }
+        if (meterRegistry != null) {
+            droppedCounter = Counter.builder("websocket.inbound.rejected").tag("reason", "dropped")
+                    .register(meterRegistry);
+            overloadedCounter = Counter.builder("websocket.inbound.rejected").tag("reason", "overloaded")
+                    .register(meterRegistry);
+            Gauge.builder("websocket.inbound.queued", this, InboundLaneExecutor::getQueuedCount)
+                    .register(meterRegistry);
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        for (Thread worker : workers) {
+            worker.interrupt();
+        }
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        Message<?> message = task instanceof MessageHandlingRunnable handling ? handling.getMessage() : null;
+        BlockingQueue<Runnable> lane = lanes[laneOf(message)];
+        if (lane.offer(task)) {
+            return;
+        }
+        if (isDroppable(message)) {
+            dropped.incrementAndGet();
+            if (droppedCounter != null) droppedCounter.increment();
+            log.debug("Inbound lane full, dropping frame to {}", SimpMessageHeaderAccessor.getDestination(message.getHeaders()));
+            return;
+        }
+        try {
+            // Holding the caller pushes back on the client's connection instead of queueing without bound
+            if (lane.offer(task, overloadTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        overloaded.incrementAndGet();
+        if (overloadedCounter != null) overloadedCounter.increment();
+        log.warn("Inbound lane full for {} ms, rejecting frame from session {}", overloadTimeoutMillis,
+                message != null ? SimpMessageHeaderAccessor.getSessionId(message.getHeaders()) : null);
+        throw new RejectedExecutionException("WebSocket inbound processing is overloaded");
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public long getOverloadedCount() {
+        return overloaded.get();
+    }
+
+    public int getQueuedCount() {
+        int queued = 0;
+        for (BlockingQueue<Runnable> lane : lanes) {
+            queued += lane.size();
+        }
+        return queued;
+    }
+
+    int laneOf(Message<?> message) {
+        String sessionId = message != null ? SimpMessageHeaderAccessor.getSessionId(message.getHeaders()) : null;
+        return sessionId != null ? Math.floorMod(sessionId.hashCode(), laneCount) : 0;
+    }
+
+    private boolean isDroppable(Message<?> message) {
+        if (message == null) {
+            return false;
+        }
+        String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+        return destination != null && droppableDestinations.stream().anyMatch(destination::startsWith);
+    }
+
+    private void drain(BlockingQueue<Runnable> lane) {
+        while (!Thread.currentThread().isInterrupted()) {
+            Runnable task;
+            try {
+                task = lane.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            try {
+                task.run();
+            } catch (Throwable ex) {
+                // The channel has already passed the failure to its interceptors; keep the lane alive
+                log.error("Error handling inbound WebSocket message: {}", ex.getMessage(), ex);
+            }
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.campusnest.campusnest_platform.config.websocket;
+
+import com.campusnest.campusnest_platform.services.UserMessageDelivery;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.NativeMessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.handler.WebSocketHandlerDecoratorFactory;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Protects the node from slow WebSocket consumers.
+ * <p>
+ * Spring buffers each session's outbound frames up to {@code websocket.outbound.send-buffer-size-limit}
+ * bytes and {@code send-time-limit-millis}, then closes the session; that is the policy for chat frames,
+ * which the client recovers on reconnect through message replay. This guard tracks, per session, the
+ * frames handed to the outbound channel but not yet written to the socket. Once that backlog passes the
+ * lower {@code non-critical-buffer-limit} or {@code non-critical-age-limit-millis}, non-critical frames
+ * (typing, presence) are dropped, so they never push a slow client over the hard limit.
+ */
+@Component
+@Slf4j
+public class OutboundBufferGuard implements ChannelInterceptor, WebSocketHandlerDecoratorFactory {
+
+    @Value("${websocket.outbound.non-critical-buffer-limit:65536}")
+    private long nonCriticalBufferLimit = 65536;
+
+    @Value("${websocket.outbound.non-critical-age-limit-millis:2000}")
+    private long nonCriticalAgeLimitMillis = 2000;
+
+    @Value("${websocket.outbound.non-critical-destinations:/user/queue/typing,/topic/presence}")
+    private List<String> nonCriticalDestinations = List.of("/user/queue/typing", "/topic/presence");
+
+    @Value("${websocket.outbound.non-critical-event-types:typing,presence}")
+    private List<String> nonCriticalEventTypes = List.of("typing", "presence");
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    private final Map<String, SessionBacklog> sessions = new ConcurrentHashMap<>();
+    private final AtomicLong dropped = new AtomicLong();
+    private Counter droppedCounter;
+
+    private record PendingFrame(long bytes, long enqueuedAt) {
+    }
+
+    /**
+     * Outbound state of one session: frames handed to the channel, oldest first, and what happened to them.
+     */
+    static final class SessionBacklog {
+        private final Queue<PendingFrame> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicLong pendingBytes = new AtomicLong();
+        private final AtomicLong sentFrames = new AtomicLong();
+        private final AtomicLong droppedFrames = new AtomicLong();
+
+        long pendingBytes() {
+            return pendingBytes.get();
+        }
+
+        long oldestPendingAgeMillis(long now) {
+            PendingFrame oldest = pending.peek();
+            return oldest != null ? now - oldest.enqueuedAt() : 0;
+        }
+
+        long sentFrames() {
+            return sentFrames.get();
+        }
+
+        long droppedFrames() {
+            return droppedFrames.get();
+        }
+
+        void enqueued(long bytes, long now) {
+            pending.add(new PendingFrame(bytes, now));
+            pendingBytes.addAndGet(bytes);
+        }
+
+        void written() {
+            PendingFrame frame = pending.poll();
+            if (frame != null) {
+                pendingBytes.addAndGet(-frame.bytes());
+            }
+            sentFrames.incrementAndGet();
+        }
+    }
+
+    @PostConstruct
+    void registerMetrics() {
+        if (meterRegistry == null) {
+            return;
+        }
+        droppedCounter = Counter.builder("websocket.outbound.dropped").register(meterRegistry);
+        Gauge.builder("websocket.outbound.sessions", sessions, Map::size).register(meterRegistry);
+        Gauge.builder("websocket.outbound.pending.bytes.max", this, OutboundBufferGuard::maxPendingBytes)
+                .register(meterRegistry);
+        Gauge.builder("websocket.outbound.pending.bytes.total", this, OutboundBufferGuard::totalPendingBytes)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        MessageHeaders headers = message.getHeaders();
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(headers);
+        SessionBacklog backlog = sessionId != null ? sessions.get(sessionId) : null;
+        if (backlog == null) {
+            return message;
+        }
+        long now = System.currentTimeMillis();
+        if (SimpMessageHeaderAccessor.getMessageType(headers) == SimpMessageType.MESSAGE && isNonCritical(headers)
+                && (backlog.pendingBytes() >= nonCriticalBufferLimit
+                    || backlog.oldestPendingAgeMillis(now) >= nonCriticalAgeLimitMillis)) {
+            if (backlog.droppedFrames.getAndIncrement() == 0) {
+                log.warn("Session {} is a slow consumer ({} bytes pending), dropping its non-critical frames",
+                        sessionId, backlog.pendingBytes());
+            }
+            dropped.incrementAndGet();
+            if (droppedCounter != null) droppedCounter.increment();
+            return null;
+        }
+        backlog.enqueued(message.getPayload() instanceof byte[] bytes ? bytes.length : 0, now);
+        return message;
+    }
+
+    @Override
+    public WebSocketHandler decorate(WebSocketHandler handler) {
+        return new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                SessionBacklog backlog = new SessionBacklog();
+                sessions.put(session.getId(), backlog);
+                super.afterConnectionEstablished(new CountingSession(session, backlog));
+            }
+
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                SessionBacklog backlog = sessions.remove(session.getId());
+                if (backlog != null && backlog.droppedFrames() > 0) {
+                    log.info("Session {} closed ({}) after {} frames sent and {} dropped", session.getId(),
+                            closeStatus, backlog.sentFrames(), backlog.droppedFrames());
+                }
+                super.afterConnectionClosed(session, closeStatus);
+            }
+        };
+    }
+
+    SessionBacklog getBacklog(String sessionId) {
+        return sessions.get(sessionId);
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    long maxPendingBytes() {
+        return sessions.values().stream().mapToLong(SessionBacklog::pendingBytes).max().orElse(0);
+    }
+
+    long totalPendingBytes() {
+        return sessions.values().stream().mapToLong(SessionBacklog::pendingBytes).sum();
+    }
+
+    private boolean isNonCritical(MessageHeaders headers) {
+        String eventType = NativeMessageHeaderAccessor.getFirstNativeHeader(UserMessageDelivery.EVENT_TYPE_HEADER, headers);
+        if (eventType != null && nonCriticalEventTypes.contains(eventType)) {
+            return true;
+        }
+        // User destinations carry what the client subscribed to; the broker destination is session-specific
+        String destination = NativeMessageHeaderAccessor.getFirstNativeHeader(
+                SimpMessageHeaderAccessor.ORIGINAL_DESTINATION, headers);
+        if (destination == null) {
+            destination = SimpMessageHeaderAccessor.getDestination(headers);
+        }
+        return destination != null && nonCriticalDestinations.stream().anyMatch(destination::startsWith);
+    }
+
+    // Sits under Spring's send buffer, so every call here is a frame leaving for the socket
+    private static final class CountingSession extends WebSocketSessionDecorator {
+        private final SessionBacklog backlog;
+
+        CountingSession(WebSocketSession session, SessionBacklog backlog) {
+            super(session);
+            this.backlog = backlog;
+        }
+
+        @Override
+        public void sendMessage(WebSocketMessage<?> message) throws IOException {
+            super.sendMessage(message);
+            backlog.written();
+        }
+    }
+}
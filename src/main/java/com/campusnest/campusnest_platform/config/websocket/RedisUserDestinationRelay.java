@@ -0,0 +1,342 @@
+package com.campusnest.campusnest_platform.config.websocket;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.NativeMessageHeaderAccessor;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeType;
+import org.springframework.web.socket.messaging.AbstractSubProtocolEvent;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.security.Principal;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cross-node delivery of user destinations (websocket.broker.mode=redis).
+ * <p>
+ * Every node keeps its own simple broker and sessions. Per user, Redis holds the set of nodes with a
+ * session for them ({@code ws:user-node-set:<user>}) and, per node, the set of those session ids
+ * ({@code ws:user-sessions:<node>:<user>}); both are written with idempotent SADD/SREM, so a repeated
+ * or unmatched connect or disconnect event cannot skew them. Each node renews its routes and a
+ * liveness key ({@code ws:node-alive:<node>}) on a heartbeat; routes to a node are dropped only once
+ * its liveness key has expired. This interceptor sees every {@code /user/{name}/...} send on the broker channel and publishes it on the
+ * channels of all other nodes holding a session for that user, whether or not the user also has a
+ * session here, so a user with tabs on several nodes gets the message in each of them. The receiving
+ * node resolves it against its own sessions; a message that arrives already forwarded carries the
+ * original-destination marker and is never forwarded again.
+ * <p>
+ * Senders that deliver one payload to several destinations of a user hand all frames to
+ * {@link #forwardAll} instead: the payload crosses Redis once per node, and the receiving node fans
+ * it out to each destination locally.
+ */
+@Component
+@ConditionalOnProperty(name = "websocket.broker.mode", havingValue = "redis")
+@Slf4j
+public class RedisUserDestinationRelay implements ChannelInterceptor, MessageListener, SmartInitializingSingleton {
+
+    // Sets; a prefix of their own so they never collide with the hashes written by older nodes
+    static final String USER_NODES_PREFIX = "ws:user-node-set:";
+    static final String USER_SESSIONS_PREFIX = "ws:user-sessions:";
+    static final String NODE_ALIVE_PREFIX = "ws:node-alive:";
+    static final String NODE_CHANNEL_PREFIX = "ws:node:";
+
+    // Adds one session and this node to the user's routes and renews both
+    private static final RedisScript<Long> REGISTER_SESSION = new DefaultRedisScript<>(
+            "redis.call('SADD', KEYS[1], ARGV[1]) " +
+            "redis.call('EXPIRE', KEYS[1], ARGV[3]) " +
+            "redis.call('SADD', KEYS[2], ARGV[2]) " +
+            "redis.call('EXPIRE', KEYS[2], ARGV[3]) " +
+            "return redis.call('SCARD', KEYS[1])", Long.class);
+
+    // Removes one session and drops this node from the user's routes once none is left
+    private static final RedisScript<Long> RELEASE_SESSION = new DefaultRedisScript<>(
+            "redis.call('SREM', KEYS[1], ARGV[1]) " +
+            "local left = redis.call('SCARD', KEYS[1]) " +
+            "if left == 0 then redis.call('SREM', KEYS[2], ARGV[2]) end " +
+            "return left", Long.class);
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private RedisMessageListenerContainer listenerContainer;
+
+    // Looked up lazily: it is created by the broker configuration that this class configures
+    @Autowired
+    @Qualifier("brokerChannel")
+    private ObjectProvider<MessageChannel> brokerChannel;
+
+    // Routes and the liveness key expire this long after the node's last heartbeat
+    @Value("${websocket.relay.route-ttl-seconds:90}")
+    private long routeTtlSeconds = 90;
+
+    // Sessions connected to this node: session id -> user name
+    private final Map<String, String> localSessions = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService heartbeat;
+
+    // One payload and the user destinations it goes to on the receiving node
+    record ForwardedMessage(String contentType, byte[] payload, List<Target> targets) {
+    }
+
+    record Target(String destination, Map<String, List<String>> nativeHeaders) {
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        // Alive before subscribing: other nodes must not drop routes here while the subscription starts
+        markAlive();
+        listenerContainer.addMessageListener(this, new ChannelTopic(NODE_CHANNEL_PREFIX + nodeId));
+        // Renew well inside the TTL so one missed beat does not drop anyone
+        long period = Math.max(1, routeTtlSeconds / 3);
+        heartbeat = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("ws-relay-heartbeat-"));
+        heartbeat.scheduleAtFixedRate(this::renewRoutes, period, period, TimeUnit.SECONDS);
+        log.info("WebSocket user destinations relayed through Redis, node {}", nodeId);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (heartbeat != null) {
+            heartbeat.shutdownNow();
+        }
+        try {
+            // Lets other nodes drop their routes here without waiting for the TTL
+            redisTemplate.delete(NODE_ALIVE_PREFIX + nodeId);
+        } catch (Exception e) {
+            log.warn("Failed to clear WebSocket relay liveness for node {}: {}", nodeId, e.getMessage());
+        }
+    }
+
+    /**
+     * Broker channel: forwards user destination sends to the user's other nodes.
+     */
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        MessageHeaders headers = message.getHeaders();
+        String destination = SimpMessageHeaderAccessor.getDestination(headers);
+        // Relayed messages carry the marker; they are for this node's sessions only
+        boolean relayed = NativeMessageHeaderAccessor.getFirstNativeHeader(
+                SimpMessageHeaderAccessor.ORIGINAL_DESTINATION, headers) != null;
+        String user = userOf(destination);
+        if (!relayed && user != null && message.getPayload() instanceof byte[] payload) {
+            forward(user, new ForwardedMessage(contentType(headers), payload, List.of(target(headers))));
+        }
+        return message;
+    }
+
+    /**
+     * Forwards frames that share one payload and one user, e.g. an event sent to several destinations,
+     * to the user's other nodes with one publish per node. The frames must carry the original-destination
+     * marker so the broker channel does not forward them again one by one.
+     */
+    public void forwardAll(List<? extends Message<?>> frames) {
+        if (frames.isEmpty() || !(frames.get(0).getPayload() instanceof byte[] payload)) {
+            return;
+        }
+        MessageHeaders first = frames.get(0).getHeaders();
+        String user = userOf(SimpMessageHeaderAccessor.getDestination(first));
+        if (user == null) {
+            return;
+        }
+        forward(user, new ForwardedMessage(contentType(first), payload,
+                frames.stream().map(frame -> target(frame.getHeaders())).toList()));
+    }
+
+    void forward(String user, ForwardedMessage forwarded) {
+        String key = USER_NODES_PREFIX + user;
+        try {
+            Set<String> members = redisTemplate.opsForSet().members(key);
+            if (members == null) {
+                return;
+            }
+            Set<String> nodes = new LinkedHashSet<>(members);
+            // The user destination handler delivers to this node's sessions
+            nodes.remove(nodeId);
+            if (nodes.isEmpty()) {
+                return;
+            }
+            String body = objectMapper.writeValueAsString(forwarded);
+            for (String node : nodes) {
+                Long receivers = redisTemplate.convertAndSend(NODE_CHANNEL_PREFIX + node, body);
+                // No receiver also happens while a live node resubscribes or starts, so that alone proves nothing
+                if ((receivers == null || receivers == 0)
+                        && !Boolean.TRUE.equals(redisTemplate.hasKey(NODE_ALIVE_PREFIX + node))) {
+                    redisTemplate.opsForSet().remove(key, node);
+                    redisTemplate.delete(sessionsKey(node, user));
+                }
+            }
+        } catch (Exception e) {
+            // Missed messages are replayed when the client reconnects or syncs by seq
+            log.warn("Failed to relay {} through Redis: {}", forwarded.targets().get(0).destination(), e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(org.springframework.data.redis.connection.Message message, byte[] pattern) {
+        try {
+            ForwardedMessage forwarded = objectMapper.readValue(message.getBody(), ForwardedMessage.class);
+            for (Target target : forwarded.targets()) {
+                SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+                accessor.setDestination(target.destination());
+                if (forwarded.contentType() != null) {
+                    accessor.setContentType(MimeType.valueOf(forwarded.contentType()));
+                }
+                if (target.nativeHeaders() != null) {
+                    target.nativeHeaders().forEach((name, values) -> values.forEach(value -> accessor.addNativeHeader(name, value)));
+                }
+                // Marks it as forwarded, so preSend does not publish it again
+                accessor.setNativeHeader(SimpMessageHeaderAccessor.ORIGINAL_DESTINATION, target.destination());
+                brokerChannel.getObject().send(MessageBuilder.createMessage(forwarded.payload(), accessor.getMessageHeaders()));
+            }
+        } catch (Exception e) {
+            log.warn("Failed to deliver relayed WebSocket message: {}", e.getMessage());
+        }
+    }
+
+    @EventListener
+    public void onSessionConnected(SessionConnectedEvent event) {
+        String user = userName(event);
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(event.getMessage().getHeaders());
+        if (user == null || sessionId == null) {
+            return;
+        }
+        localSessions.put(sessionId, user);
+        try {
+            register(user, sessionId);
+        } catch (Exception e) {
+            log.warn("Failed to register WebSocket session route for {}: {}", user, e.getMessage());
+        }
+    }
+
+    @EventListener
+    public void onSessionDisconnected(SessionDisconnectEvent event) {
+        String user = localSessions.remove(event.getSessionId());
+        if (user == null) {
+            // Never registered here, or already released
+            return;
+        }
+        try {
+            release(user, event.getSessionId());
+        } catch (Exception e) {
+            log.warn("Failed to release WebSocket session route for {}: {}", user, e.getMessage());
+        }
+    }
+
+    void renewRoutes() {
+        markAlive();
+        localSessions.forEach((sessionId, user) -> {
+            try {
+                // Also restores a route another node dropped while this one missed its heartbeats
+                register(user, sessionId);
+                // A disconnect that released the session just before the register would leave it routed
+                if (!localSessions.containsKey(sessionId)) {
+                    release(user, sessionId);
+                }
+            } catch (Exception e) {
+                log.warn("Failed to renew WebSocket session route for {}: {}", user, e.getMessage());
+            }
+        });
+    }
+
+    private void markAlive() {
+        try {
+            redisTemplate.opsForValue().set(NODE_ALIVE_PREFIX + nodeId, "1", Duration.ofSeconds(routeTtlSeconds));
+        } catch (Exception e) {
+            log.warn("Failed to renew WebSocket relay liveness for node {}: {}", nodeId, e.getMessage());
+        }
+    }
+
+    private void register(String user, String sessionId) {
+        redisTemplate.execute(REGISTER_SESSION, List.of(sessionsKey(nodeId, user), USER_NODES_PREFIX + user),
+                sessionId, nodeId, String.valueOf(routeTtlSeconds));
+    }
+
+    private void release(String user, String sessionId) {
+        redisTemplate.execute(RELEASE_SESSION, List.of(sessionsKey(nodeId, user), USER_NODES_PREFIX + user),
+                sessionId, nodeId);
+    }
+
+    static String sessionsKey(String node, String user) {
+        return USER_SESSIONS_PREFIX + node + ":" + user;
+    }
+
+    private static Target target(MessageHeaders headers) {
+        return new Target(SimpMessageHeaderAccessor.getDestination(headers), applicationHeaders(headers));
+    }
+
+    private static String contentType(MessageHeaders headers) {
+        Object contentType = headers.get(MessageHeaders.CONTENT_TYPE);
+        return contentType != null ? contentType.toString() : null;
+    }
+
+    // Native headers set by the sender (e.g. event-type), without the user destination bookkeeping
+    private static Map<String, List<String>> applicationHeaders(MessageHeaders headers) {
+        Map<String, List<String>> nativeHeaders = new HashMap<>();
+        Object raw = headers.get(NativeMessageHeaderAccessor.NATIVE_HEADERS);
+        if (raw instanceof Map<?, ?> map) {
+            map.forEach((name, values) -> {
+                if (!SimpMessageHeaderAccessor.ORIGINAL_DESTINATION.equals(name) && values instanceof List<?> list) {
+                    nativeHeaders.put(name.toString(), list.stream().map(String::valueOf).toList());
+                }
+            });
+        }
+        return nativeHeaders;
+    }
+
+    String getNodeId() {
+        return nodeId;
+    }
+
+    // "/user/{name}/queue/..." -> name; Spring encodes '/' in user names as %2F
+    static String userOf(String userDestination) {
+        if (userDestination == null || !userDestination.startsWith("/user/")) {
+            return null;
+        }
+        int end = userDestination.indexOf('/', "/user/".length());
+        if (end < 0) {
+            return null;
+        }
+        return userDestination.substring("/user/".length(), end).replace("%2F", "/");
+    }
+
+    private String userName(AbstractSubProtocolEvent event) {
+        Principal principal = event.getUser();
+        return principal != null ? principal.getName() : null;
+    }
+}
@@ -1,12 +1,14 @@
 package com.campusnest.campusnest_platform.config.websocket;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 
 @Configuration
 @EnableWebSocketMessageBroker
@@ -15,11 +17,41 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
     @Autowired
     private WebSocketAuthenticationHandler webSocketAuthenticationHandler;
 
+    // Present only with websocket.broker.mode=redis; otherwise users are reachable on their own node only
+    @Autowired(required = false)
+    private RedisUserDestinationRelay redisUserDestinationRelay;
+
+    // Present unless websocket.inbound.mode=pool, which keeps Spring's shared pool, with a bounded queue
+    @Autowired(required = false)
+    private InboundLaneExecutor inboundLaneExecutor;
+
+    @Value("${websocket.inbound.pool-size:16}")
+    private int inboundPoolSize = 16;
+
+    @Value("${websocket.inbound.pool-queue-capacity:5000}")
+    private int inboundPoolQueueCapacity = 5000;
+
+    @Autowired
+    private OutboundBufferGuard outboundBufferGuard;
+
+    // A session whose unsent frames exceed either limit is closed; the client catches up on reconnect
+    @Value("${websocket.outbound.send-time-limit-millis:10000}")
+    private int sendTimeLimitMillis = 10000;
+
+    @Value("${websocket.outbound.send-buffer-size-limit:524288}")
+    private int sendBufferSizeLimit = 512 * 1024;
+
+    @Value("${websocket.inbound.message-size-limit:65536}")
+    private int messageSizeLimit = 64 * 1024;
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry registry) {
         // Enable a simple memory-based message broker
         registry.enableSimpleBroker("/topic", "/queue");
         registry.setApplicationDestinationPrefixes("/app");
+        if (redisUserDestinationRelay != null) {
+            registry.configureBrokerChannel().interceptors(redisUserDestinationRelay);
+        }
     }
 
     @Override
@@ -34,8 +66,29 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
                 .setAllowedOriginPatterns("*");
     }
 
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.setSendTimeLimit(sendTimeLimitMillis)
+                .setSendBufferSizeLimit(sendBufferSizeLimit)
+                .setMessageSizeLimit(messageSizeLimit)
+                .addDecoratorFactory(outboundBufferGuard);
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.interceptors(outboundBufferGuard);
+    }
+
     @Override
     public void configureClientInboundChannel(ChannelRegistration registration) {
         registration.interceptors(webSocketAuthenticationHandler);
+        if (inboundLaneExecutor != null) {
+            registration.executor(inboundLaneExecutor);
+        } else {
+            registration.taskExecutor()
+                    .corePoolSize(inboundPoolSize)
+                    .maxPoolSize(inboundPoolSize)
+                    .queueCapacity(inboundPoolQueueCapacity);
+        }
     }
 }
\ No newline at end of file
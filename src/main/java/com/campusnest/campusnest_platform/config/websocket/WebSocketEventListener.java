@@ -1,32 +1,34 @@
 package com.campusnest.campusnest_platform.config.websocket;
 
-import com.campusnest.campusnest_platform.models.Message;
 import com.campusnest.campusnest_platform.models.User;
-import com.campusnest.campusnest_platform.response.ChatMessageResponse;
-import com.campusnest.campusnest_platform.services.MessagingService;
+import com.campusnest.campusnest_platform.services.MissedMessageReplayer;
 import com.campusnest.campusnest_platform.services.UserPresenceService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.event.EventListener;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
 import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.stereotype.Component;
 import org.springframework.web.socket.messaging.SessionConnectedEvent;
 import org.springframework.web.socket.messaging.SessionDisconnectEvent;
 
+import java.util.HashMap;
+import java.util.Map;
+
 @Component
 @Slf4j
 public class WebSocketEventListener {
 
-    @Autowired
-    private UserPresenceService presenceService;
+    // Bounds the IN list the replay looks conversations up with
+    private static final int MAX_LAST_SEEN_CONVERSATIONS = 500;
 
     @Autowired
-    private MessagingService messagingService;
+    private UserPresenceService presenceService;
 
     @Autowired
-    private SimpMessagingTemplate messagingTemplate;
+    private MissedMessageReplayer missedMessageReplayer;
 
     @EventListener
     public void handleWebSocketConnectListener(SessionConnectedEvent event) {
@@ -40,13 +42,13 @@ public class WebSocketEventListener {
                 User user = (User) auth.getPrincipal();
 
                 // Mark user as ONLINE
-                presenceService.setUserOnline(user.getId());
+                presenceService.sessionConnected(user, headerAccessor.getSessionId());
 
                 log.info("User {} CONNECTED via WebSocket - automatically marked ONLINE",
                         maskEmail(user.getEmail()));
 
-                // ✨ NEW: Send any missed messages while user was offline
-                sendMissedMessages(user);
+                // Send any messages missed while offline, newer than what the client says it has
+                missedMessageReplayer.replay(headerAccessor.getSessionId(), user, lastSeenSeqs(headerAccessor));
             }
         }
     }
@@ -54,6 +56,7 @@ public class WebSocketEventListener {
     @EventListener
     public void handleWebSocketDisconnectListener(SessionDisconnectEvent event) {
         StompHeaderAccessor headerAccessor = StompHeaderAccessor.wrap(event.getMessage());
+        missedMessageReplayer.cancel(event.getSessionId());
 
         // Get authenticated user from session
         var principal = headerAccessor.getUser();
@@ -62,78 +65,41 @@ public class WebSocketEventListener {
             if (auth.getPrincipal() instanceof User) {
                 User user = (User) auth.getPrincipal();
 
-                // Mark user as OFFLINE
-                presenceService.setUserOffline(user.getId());
+                // Marks the user OFFLINE once their last session is gone
+                presenceService.sessionDisconnected(user, event.getSessionId());
 
-                log.info("User {} DISCONNECTED from WebSocket - automatically marked OFFLINE",
+                log.info("User {} DISCONNECTED from WebSocket - session released",
                         maskEmail(user.getEmail()));
             }
         }
     }
 
-    /**
-     * Send all unread messages to user when they reconnect
-     */
-    private void sendMissedMessages(User user) {
+    // The CONNECTED event wraps the client's original CONNECT frame, which carries the native headers.
+    // The header reads conversationId:seq,conversationId:seq; an unreadable one falls back to unread replay.
+    private Map<Long, Long> lastSeenSeqs(StompHeaderAccessor connectedAccessor) {
+        Object connect = connectedAccessor.getHeader(SimpMessageHeaderAccessor.CONNECT_MESSAGE_HEADER);
+        if (!(connect instanceof Message<?> connectMessage)) {
+            return null;
+        }
+        String lastSeen = StompHeaderAccessor.wrap(connectMessage)
+                .getFirstNativeHeader(MissedMessageReplayer.LAST_SEEN_HEADER);
+        if (lastSeen == null || lastSeen.isBlank()) {
+            return null;
+        }
         try {
-            // Get all conversations for this user
-            var conversations = messagingService.getUserConversations(user);
-
-            int totalMissedMessages = 0;
-
-            for (var conversation : conversations) {
-                // Get unread messages for this conversation
-                long unreadCount = messagingService.getUnreadMessageCount(conversation.getId(), user);
-
-                if (unreadCount > 0) {
-                    // Get recent unread messages (last 50 to avoid overwhelming)
-                    var messages = messagingService.getConversationMessages(conversation.getId(), user)
-                            .stream()
-                            .filter(msg -> !msg.getSender().getId().equals(user.getId())) // Not sent by current user
-                            .limit(50)
-                            .toList();
-
-                    // Send each missed message via WebSocket
-                    for (Message message : messages) {
-                        ChatMessageResponse response = ChatMessageResponse.fromMessage(message);
-
-                        // Send to conversation-specific queue
-                        messagingTemplate.convertAndSendToUser(
-                                user.getEmail(),
-                                "/queue/messages/" + conversation.getId(),
-                                response
-                        );
-
-                        // Also send to general queue
-                        messagingTemplate.convertAndSendToUser(
-                                user.getEmail(),
-                                "/queue/messages",
-                                response
-                        );
-
-                        totalMissedMessages++;
-                    }
-
-                    log.info("Sent {} missed messages from conversation {} to user {}",
-                            messages.size(),
-                            conversation.getId(),
-                            maskEmail(user.getEmail()));
+            Map<Long, Long> seqs = new HashMap<>();
+            for (String entry : lastSeen.split(",")) {
+                if (seqs.size() >= MAX_LAST_SEEN_CONVERSATIONS) {
+                    break;
                 }
+                int separator = entry.indexOf(':');
+                seqs.put(Long.parseLong(entry.substring(0, separator).trim()),
+                        Long.parseLong(entry.substring(separator + 1).trim()));
             }
-
-            if (totalMissedMessages > 0) {
-                log.info("Successfully delivered {} total missed messages to user {} upon reconnection",
-                        totalMissedMessages,
-                        maskEmail(user.getEmail()));
-            } else {
-                log.debug("No missed messages to deliver for user {}", maskEmail(user.getEmail()));
-            }
-
-        } catch (Exception e) {
-            log.error("Error sending missed messages to user {}: {}",
-                    maskEmail(user.getEmail()),
-                    e.getMessage(),
-                    e);
+            return seqs;
+        } catch (RuntimeException e) {
+            log.debug("Ignoring invalid {} header: {}", MissedMessageReplayer.LAST_SEEN_HEADER, lastSeen);
+            return null;
         }
     }
 
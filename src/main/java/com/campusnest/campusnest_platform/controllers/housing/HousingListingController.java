@@ -4,6 +4,8 @@ import com.campusnest.campusnest_platform.models.Conversation;
 import com.campusnest.campusnest_platform.models.HousingListing;
 import com.campusnest.campusnest_platform.models.ListingImage;
 import com.campusnest.campusnest_platform.models.User;
+import com.campusnest.campusnest_platform.projection.ListingPageSnapshot;
+import com.campusnest.campusnest_platform.projection.ListingSnapshot;
 import com.campusnest.campusnest_platform.repository.housing.ListingImageRepository;
 import com.campusnest.campusnest_platform.requests.ContactOwnerRequest;
 import com.campusnest.campusnest_platform.requests.CreateHousingListingRequest;
@@ -13,11 +15,14 @@ import com.campusnest.campusnest_platform.response.ContactOwnerResponse;
 import com.campusnest.campusnest_platform.response.HousingListingResponse;
 import com.campusnest.campusnest_platform.response.HousingListingSummaryResponse;
 import com.campusnest.campusnest_platform.services.HousingListingService;
+import com.campusnest.campusnest_platform.services.ListingCursor;
 import com.campusnest.campusnest_platform.services.MessagingService;
 import com.campusnest.campusnest_platform.services.S3Service;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.http.ResponseEntity;
@@ -35,10 +40,15 @@ import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/housing")
-@CrossOrigin(origins = "http://localhost:3000")
+@CrossOrigin(origins = "http://localhost:3000", exposedHeaders = HousingListingController.NEXT_CURSOR_HEADER)
 @Slf4j
 public class HousingListingController {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
+    // Opaque keyset cursor for the next page; absent on the last page
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     @Autowired
     private HousingListingService housingListingService;
 
@@ -88,7 +98,7 @@ public class HousingListingController {
                 associateImages(savedListing, request.getS3Keys());
             }
 
-            return ResponseEntity.status(HttpStatus.CREATED).body(convertToResponse(savedListing, authentication.getName()));
+            return ResponseEntity.status(HttpStatus.CREATED).body(convertToResponse(ListingSnapshot.from(savedListing), authentication.getName()));
 
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
@@ -102,19 +112,30 @@ public class HousingListingController {
     public ResponseEntity<List<HousingListingSummaryResponse>> getAllActiveListings(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String cursor,
             Authentication authentication) {
         try {
-            // Get all listings (pagination happens in-memory for now since we need images/favorites loaded)
-            List<HousingListing> allListings = housingListingService.findAllActive();
-
-            // Apply pagination
-            List<HousingListing> paginatedListings = applyPagination(allListings, page, size);
-
-            List<HousingListingSummaryResponse> response = paginatedListings.stream()
-                    .map(listing -> convertToSummaryResponse(listing, authentication != null ? authentication.getName() : null))
-                    .collect(Collectors.toList());
-
-            return ResponseEntity.ok(response);
+            int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+
+            // Seek past the cursor when given; otherwise page in the database by offset.
+            // Either way images/favorites are batch-loaded for this page only
+            Slice<HousingListing> slice = cursor != null
+                    ? housingListingService.findAllActiveAfter(ListingCursor.decode(cursor), pageSize)
+                    : housingListingService.findAllActive(PageRequest.of(Math.max(page, 0), pageSize));
+            List<HousingListing> paginatedListings = slice.getContent();
+
+            List<HousingListingSummaryResponse> response = convertToSummaryResponses(toSnapshots(paginatedListings),
+                    authentication != null ? authentication.getName() : null);
+
+            ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+            if (slice.hasNext()) {
+                HousingListing last = paginatedListings.get(paginatedListings.size() - 1);
+                builder.header(NEXT_CURSOR_HEADER,
+                        ListingCursor.after(last, ListingCursor.SortKey.CREATED_AT, true).encode());
+            }
+            return builder.body(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
@@ -131,9 +152,9 @@ public class HousingListingController {
                 id, userEmail, Thread.currentThread().getName());
         
         try {
-            // Step 1: Call service
-            log.info("Step 1: Calling housingListingService.findById({})", id);
-            Optional<HousingListing> listing = housingListingService.findById(id);
+            // Step 1: Call service (served from the listing cache when warm)
+            log.info("Step 1: Calling housingListingService.findSnapshotById({})", id);
+            Optional<ListingSnapshot> listing = housingListingService.findSnapshotById(id);
             log.info("Step 1 RESULT: listing.isPresent() = {}", listing.isPresent());
             
             // Step 2: Check if listing exists and is active
@@ -142,14 +163,14 @@ public class HousingListingController {
                 return ResponseEntity.notFound().build();
             }
             
-            HousingListing actualListing = listing.get();
+            ListingSnapshot actualListing = listing.get();
             log.info("Step 2: Found listing - ID: {}, Title: '{}', IsActive: {}, Owner: {}", 
-                    actualListing.getId(), 
-                    actualListing.getTitle(), 
-                    actualListing.getIsActive(),
-                    actualListing.getOwner() != null ? actualListing.getOwner().getEmail() : "null");
+                    actualListing.id(), 
+                    actualListing.title(), 
+                    actualListing.isActive(),
+                    actualListing.owner() != null ? actualListing.owner().email() : "null");
             
-            if (!actualListing.getIsActive()) {
+            if (!actualListing.isActive()) {
                 log.warn("Step 2: Listing {} is inactive - returning 404", id);
                 return ResponseEntity.notFound().build();
             }
@@ -157,11 +178,11 @@ public class HousingListingController {
             // Step 3: Convert to response
             log.info("Step 3: Converting to response for user: {}", userEmail);
             
-            // Log detailed entity state before conversion
-            log.info("Step 3 ENTITY STATE - Images: {}, Favorites: {}, Owner: {}", 
-                    actualListing.getImages() != null ? actualListing.getImages().size() : "null",
-                    actualListing.getFavorites() != null ? actualListing.getFavorites().size() : "null",
-                    actualListing.getOwner() != null ? "present" : "null");
+            // Log detailed snapshot state before conversion
+            log.info("Step 3 SNAPSHOT STATE - Images: {}, Favorites: {}, Owner: {}", 
+                    actualListing.images().size(),
+                    actualListing.favoriteCount(),
+                    actualListing.owner() != null ? "present" : "null");
             
             HousingListingResponse response = convertToResponse(actualListing, userEmail);
             log.info("Step 3 RESULT: Response created - ID: {}, Images: {}, FavoriteCount: {}", 
@@ -231,7 +252,7 @@ public class HousingListingController {
                 updateImages(saved, request.getS3Keys());
             }
 
-            return ResponseEntity.ok(convertToResponse(saved, authentication.getName()));
+            return ResponseEntity.ok(convertToResponse(ListingSnapshot.from(saved), authentication.getName()));
 
         } catch (RuntimeException e) {
             Map<String, String> error = new HashMap<>();
@@ -274,9 +295,7 @@ public class HousingListingController {
                 listings = housingListingService.findActiveByOwner(authentication.getName());
             }
 
-            List<HousingListingSummaryResponse> response = listings.stream()
-                    .map(listing -> convertToSummaryResponse(listing, authentication.getName()))
-                    .collect(Collectors.toList());
+            List<HousingListingSummaryResponse> response = convertToSummaryResponses(toSnapshots(listings), authentication.getName());
 
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -290,46 +309,28 @@ public class HousingListingController {
             @Valid @RequestBody SearchHousingListingRequest request,
             Authentication authentication) {
         try {
-            List<HousingListing> listings;
-
-            // Use the comprehensive search if all parameters are provided
-            if (request.getCity() != null && request.getMinPrice() != null && 
-                request.getMaxPrice() != null && request.getAvailableFrom() != null && 
-                request.getAvailableTo() != null) {
-                
-                listings = housingListingService.searchListings(
-                    request.getCity(),
-                    request.getMinPrice(),
-                    request.getMaxPrice(),
-                    request.getAvailableFrom(),
-                    request.getAvailableTo()
-                );
-            } else if (request.getCity() != null) {
-                listings = housingListingService.searchByCity(request.getCity());
-            } else if (request.getMinPrice() != null && request.getMaxPrice() != null) {
-                listings = housingListingService.searchByPriceRange(request.getMinPrice(), request.getMaxPrice());
-            } else {
-                listings = housingListingService.findAllActive();
-            }
-
-            // Apply additional filtering for bedroom/bathroom criteria
-            if (request.getMinBedrooms() != null || request.getMaxBedrooms() != null ||
-                request.getMinBathrooms() != null || request.getMaxBathrooms() != null) {
-                listings = listings.stream()
-                        .filter(listing -> filterByBedBath(listing, request))
-                        .collect(Collectors.toList());
+            int pageSize = Math.min(Math.max(request.getSize() != null ? request.getSize() : 20, 1), MAX_PAGE_SIZE);
+            ListingCursor.SortKey sortKey = ListingCursor.sortKeyFor(request.getSortBy());
+            boolean descending = "desc".equals(request.getSortDirection());
+
+            // Filters, sort and page limit all run in the database; seek past the cursor when given
+            ListingCursor cursor = request.getCursor() != null ? ListingCursor.decode(request.getCursor()) : null;
+            ListingPageSnapshot page = housingListingService.searchListingSnapshots(request, cursor, pageSize);
+            List<ListingSnapshot> listings = page.content();
+            boolean hasNext = page.hasNext();
+
+            List<HousingListingSummaryResponse> response = convertToSummaryResponses(listings,
+                    authentication != null ? authentication.getName() : null);
+
+            ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+            // Only createdAt/price are seekable; other sort fields keep offset paging
+            if (hasNext && sortKey != null) {
+                ListingSnapshot last = listings.get(listings.size() - 1);
+                builder.header(NEXT_CURSOR_HEADER, ListingCursor.after(last, sortKey, descending).encode());
             }
-
-            // Apply pagination and sorting
-            listings = applySorting(listings, request.getSortBy(), request.getSortDirection());
-            listings = applyPagination(listings, request.getPage(), request.getSize());
-
-            List<HousingListingSummaryResponse> response = listings.stream()
-                    .map(listing -> convertToSummaryResponse(listing, 
-                            authentication != null ? authentication.getName() : null))
-                    .collect(Collectors.toList());
-
-            return ResponseEntity.ok(response);
+            return builder.body(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
@@ -343,9 +344,7 @@ public class HousingListingController {
         try {
             List<HousingListing> listings = housingListingService.findAll();
             
-            List<HousingListingSummaryResponse> response = listings.stream()
-                    .map(listing -> convertToSummaryResponse(listing, authentication.getName()))
-                    .collect(Collectors.toList());
+            List<HousingListingSummaryResponse> response = convertToSummaryResponses(toSnapshots(listings), authentication.getName());
 
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -513,218 +512,121 @@ public class HousingListingController {
         }
     }
 
-    private boolean filterByBedBath(HousingListing listing, SearchHousingListingRequest request) {
-        if (request.getMinBedrooms() != null && listing.getBedrooms() < request.getMinBedrooms()) {
-            return false;
-        }
-        if (request.getMaxBedrooms() != null && listing.getBedrooms() > request.getMaxBedrooms()) {
-            return false;
-        }
-        if (request.getMinBathrooms() != null && listing.getBathrooms() < request.getMinBathrooms()) {
-            return false;
-        }
-        if (request.getMaxBathrooms() != null && listing.getBathrooms() > request.getMaxBathrooms()) {
-            return false;
+    private HousingListingResponse convertToResponse(ListingSnapshot listing, String currentUserEmail) {
+        log.info("  convertToResponse START - Listing ID: {}, User: {}", listing.id(), currentUserEmail);
+        
+        HousingListingResponse response = new HousingListingResponse();
+        response.setId(listing.id());
+        response.setTitle(listing.title());
+        response.setDescription(listing.description());
+        response.setPrice(listing.price());
+        response.setAddress(listing.address());
+        response.setCity(listing.city());
+        response.setBedrooms(listing.bedrooms());
+        response.setBathrooms(listing.bathrooms());
+        response.setAvailableFrom(listing.availableFrom());
+        response.setAvailableTo(listing.availableTo());
+        response.setIsActive(listing.isActive());
+        response.setCreatedAt(listing.createdAt());
+        response.setUpdatedAt(listing.updatedAt());
+
+        // Set owner info
+        if (listing.owner() != null) {
+            HousingListingResponse.OwnerInfo ownerInfo = new HousingListingResponse.OwnerInfo();
+            ownerInfo.setId(listing.owner().id());
+            ownerInfo.setFirstName(listing.owner().firstName());
+            ownerInfo.setLastName(listing.owner().lastName());
+            ownerInfo.setEmail(maskEmail(listing.owner().email()));
+            ownerInfo.setUniversityDomain(listing.owner().universityDomain());
+            response.setOwner(ownerInfo);
         }
-        return true;
-    }
 
-    private List<HousingListing> applySorting(List<HousingListing> listings, String sortBy, String sortDirection) {
-        return listings.stream()
-                .sorted((l1, l2) -> {
-                    int comparison = 0;
-                    switch (sortBy != null ? sortBy : "createdAt") {
-                        case "price":
-                            comparison = l1.getPrice().compareTo(l2.getPrice());
-                            break;
-                        case "bedrooms":
-                            comparison = l1.getBedrooms().compareTo(l2.getBedrooms());
-                            break;
-                        case "bathrooms":
-                            comparison = l1.getBathrooms().compareTo(l2.getBathrooms());
-                            break;
-                        case "city":
-                            comparison = l1.getCity().compareTo(l2.getCity());
-                            break;
-                        default: // createdAt
-                            comparison = l1.getCreatedAt().compareTo(l2.getCreatedAt());
-                            break;
+        // Set images info - every image of the listing is signed in one batch
+        Map<String, String> signedUrls = s3Service.getSignedImageUrls(listing.images().stream()
+                .map(ListingSnapshot.Image::s3Key)
+                .collect(Collectors.toList()));
+        List<HousingListingResponse.ImageInfo> imageInfos = listing.images().stream()
+                .map(image -> {
+                    HousingListingResponse.ImageInfo imageInfo = new HousingListingResponse.ImageInfo();
+                    imageInfo.setId(image.id());
+                    imageInfo.setS3Key(image.s3Key());
+                    imageInfo.setIsPrimary(image.isPrimary());
+                    imageInfo.setDisplayOrder(image.displayOrder());
+                    
+                    String signedUrl = signedUrls.get(image.s3Key());
+                    if (signedUrl == null) {
+                        log.error("    S3 signed URL generation failed for S3Key: {}", image.s3Key());
                     }
-                    return "desc".equals(sortDirection) ? -comparison : comparison;
+                    imageInfo.setImageUrl(signedUrl);
+                    return imageInfo;
                 })
                 .collect(Collectors.toList());
-    }
+        response.setImages(imageInfos);
 
-    private List<HousingListing> applyPagination(List<HousingListing> listings, Integer page, Integer size) {
-        int pageNum = page != null ? page : 0;
-        int pageSize = size != null ? size : 20;
-        
-        int start = pageNum * pageSize;
-        int end = Math.min(start + pageSize, listings.size());
-        
-        if (start >= listings.size()) {
-            return List.of();
-        }
-        
-        return listings.subList(start, end);
-    }
+        // Set favorites info
+        response.setFavoriteCount(listing.favoriteCount());
+        response.setIsFavorited(listing.isFavoritedBy(currentUserEmail));
 
-    private HousingListingResponse convertToResponse(HousingListing listing, String currentUserEmail) {
-        log.info("  convertToResponse START - Listing ID: {}, User: {}", listing.getId(), currentUserEmail);
+        log.info("  convertToResponse SUCCESS - Response ID: {}, Images: {}, FavoriteCount: {}", 
+                response.getId(), imageInfos.size(), response.getFavoriteCount());
         
-        try {
-            HousingListingResponse response = new HousingListingResponse();
-            response.setId(listing.getId());
-            response.setTitle(listing.getTitle());
-            response.setDescription(listing.getDescription());
-            response.setPrice(listing.getPrice());
-            response.setAddress(listing.getAddress());
-            response.setCity(listing.getCity());
-            response.setBedrooms(listing.getBedrooms());
-            response.setBathrooms(listing.getBathrooms());
-            response.setAvailableFrom(listing.getAvailableFrom());
-            response.setAvailableTo(listing.getAvailableTo());
-            response.setIsActive(listing.getIsActive());
-            response.setCreatedAt(listing.getCreatedAt());
-            response.setUpdatedAt(listing.getUpdatedAt());
-            log.info("  Basic properties set successfully");
-
-            // Set owner info
-            log.info("  Processing owner info - Owner present: {}", listing.getOwner() != null);
-            if (listing.getOwner() != null) {
-                HousingListingResponse.OwnerInfo ownerInfo = new HousingListingResponse.OwnerInfo();
-                ownerInfo.setId(listing.getOwner().getId());
-                ownerInfo.setFirstName(listing.getOwner().getFirstName());
-                ownerInfo.setLastName(listing.getOwner().getLastName());
-                ownerInfo.setEmail(maskEmail(listing.getOwner().getEmail()));
-                ownerInfo.setUniversityDomain(listing.getOwner().getUniversityDomain());
-                response.setOwner(ownerInfo);
-                log.info("  Owner info set successfully - ID: {}", ownerInfo.getId());
-            }
-
-            // Set images info
-            log.info("  Processing images - Images present: {}, Count: {}", 
-                    listing.getImages() != null, 
-                    listing.getImages() != null ? listing.getImages().size() : 0);
-            
-            if (listing.getImages() != null) {
-                List<HousingListingResponse.ImageInfo> imageInfos = listing.getImages().stream()
-                        .map(image -> {
-                            log.info("    Processing image - ID: {}, S3Key: {}, IsPrimary: {}", 
-                                    image.getId(), image.getS3Key(), image.getIsPrimary());
-                            
-                            HousingListingResponse.ImageInfo imageInfo = new HousingListingResponse.ImageInfo();
-                            imageInfo.setId(image.getId());
-                            imageInfo.setS3Key(image.getS3Key());
-                            imageInfo.setIsPrimary(image.getIsPrimary());
-                            imageInfo.setDisplayOrder(image.getDisplayOrder());
-                            
-                            try {
-                                log.info("    Calling s3Service.getSignedImageUrl for S3Key: {}", image.getS3Key());
-                                String signedUrl = s3Service.getSignedImageUrl(image.getS3Key());
-                                imageInfo.setImageUrl(signedUrl);
-                                log.info("    S3 signed URL generated successfully for S3Key: {}", image.getS3Key());
-                            } catch (Exception e) {
-                                log.error("    S3 signed URL generation failed for S3Key: {} - Exception: {}, Message: {}", 
-                                        image.getS3Key(), e.getClass().getSimpleName(), e.getMessage());
-                                imageInfo.setImageUrl(null);
-                            }
-                            return imageInfo;
-                        })
-                        .collect(Collectors.toList());
-                response.setImages(imageInfos);
-                log.info("  Images processed successfully - Final count: {}", imageInfos.size());
-            }
+        return response;
+    }
 
-            // Set favorites info
-            log.info("  Processing favorites - Favorites present: {}, Count: {}", 
-                    listing.getFavorites() != null, 
-                    listing.getFavorites() != null ? listing.getFavorites().size() : 0);
-            
-            if (listing.getFavorites() != null) {
-                response.setFavoriteCount(listing.getFavorites().size());
-                
-                if (currentUserEmail != null) {
-                    boolean isFavorited = listing.getFavorites().stream()
-                            .anyMatch(fav -> fav.getUser().getEmail().equals(currentUserEmail));
-                    response.setIsFavorited(isFavorited);
-                    log.info("  User favorites checked - Count: {}, IsFavorited: {}", 
-                            listing.getFavorites().size(), isFavorited);
-                } else {
-                    response.setIsFavorited(false);
-                    log.info("  Anonymous user - IsFavorited set to false");
-                }
-            } else {
-                response.setFavoriteCount(0);
-                response.setIsFavorited(false);
-                log.info("  No favorites found - set to 0/false");
-            }
+    // Converts a page of listings, signing all primary image URLs in one batch
+    private List<HousingListingSummaryResponse> convertToSummaryResponses(List<ListingSnapshot> listings,
+                                                                         String currentUserEmail) {
+        Map<String, String> signedUrls = s3Service.getSignedImageUrls(listings.stream()
+                .map(this::findPrimaryImage)
+                .flatMap(Optional::stream)
+                .map(ListingSnapshot.Image::s3Key)
+                .collect(Collectors.toList()));
 
-            log.info("  convertToResponse SUCCESS - Response ID: {}, Images: {}, FavoriteCount: {}", 
-                    response.getId(), 
-                    response.getImages() != null ? response.getImages().size() : 0,
-                    response.getFavoriteCount());
-            
-            return response;
-            
-        } catch (Exception e) {
-            log.error("  convertToResponse ERROR - Listing ID: {}, Exception: {}, Message: {}, StackTrace: {}", 
-                    listing.getId(), e.getClass().getSimpleName(), e.getMessage(), 
-                    java.util.Arrays.toString(e.getStackTrace()));
-            throw e; // Re-throw to be caught by the main method
-        }
+        return listings.stream()
+                .map(listing -> convertToSummaryResponse(listing, currentUserEmail, signedUrls))
+                .collect(Collectors.toList());
     }
 
-    private HousingListingSummaryResponse convertToSummaryResponse(HousingListing listing, String currentUserEmail) {
+    private HousingListingSummaryResponse convertToSummaryResponse(ListingSnapshot listing, String currentUserEmail,
+                                                                   Map<String, String> signedUrls) {
         HousingListingSummaryResponse response = new HousingListingSummaryResponse();
-        response.setId(listing.getId());
-        response.setTitle(listing.getTitle());
-        response.setPrice(listing.getPrice());
-        response.setCity(listing.getCity());
-        response.setBedrooms(listing.getBedrooms());
-        response.setBathrooms(listing.getBathrooms());
-        response.setAvailableFrom(listing.getAvailableFrom());
-        response.setAvailableTo(listing.getAvailableTo());
-        response.setCreatedAt(listing.getCreatedAt());
-        response.setOwnerName(listing.getOwner().getFirstName());
-
-        // Set primary image
-        if (listing.getImages() != null && !listing.getImages().isEmpty()) {
-            Optional<ListingImage> primaryImage = listing.getImages().stream()
-                    .filter(ListingImage::getIsPrimary)
-                    .findFirst();
-            
-            if (primaryImage.isEmpty()) {
-                primaryImage = listing.getImages().stream().findFirst();
-            }
-            
-            if (primaryImage.isPresent()) {
-                try {
-                    response.setPrimaryImageUrl(s3Service.getSignedImageUrl(primaryImage.get().getS3Key()));
-                } catch (Exception e) {
-                    response.setPrimaryImageUrl(null);
-                }
-            }
-        }
+        response.setId(listing.id());
+        response.setTitle(listing.title());
+        response.setPrice(listing.price());
+        response.setCity(listing.city());
+        response.setBedrooms(listing.bedrooms());
+        response.setBathrooms(listing.bathrooms());
+        response.setAvailableFrom(listing.availableFrom());
+        response.setAvailableTo(listing.availableTo());
+        response.setCreatedAt(listing.createdAt());
+        response.setOwnerName(listing.owner().firstName());
+
+        // Set primary image (null when signing failed)
+        findPrimaryImage(listing)
+                .ifPresent(image -> response.setPrimaryImageUrl(signedUrls.get(image.s3Key())));
 
         // Set favorites info
-        if (listing.getFavorites() != null) {
-            response.setFavoriteCount(listing.getFavorites().size());
-            
-            if (currentUserEmail != null) {
-                response.setIsFavorited(listing.getFavorites().stream()
-                        .anyMatch(fav -> fav.getUser().getEmail().equals(currentUserEmail)));
-            } else {
-                response.setIsFavorited(false);
-            }
-        } else {
-            response.setFavoriteCount(0);
-            response.setIsFavorited(false);
-        }
+        response.setFavoriteCount(listing.favoriteCount());
+        response.setIsFavorited(listing.isFavoritedBy(currentUserEmail));
 
         return response;
     }
 
+    private List<ListingSnapshot> toSnapshots(List<HousingListing> listings) {
+        return listings.stream().map(ListingSnapshot::from).collect(Collectors.toList());
+    }
+
+    private Optional<ListingSnapshot.Image> findPrimaryImage(ListingSnapshot listing) {
+        Optional<ListingSnapshot.Image> primaryImage = listing.images().stream()
+                .filter(image -> Boolean.TRUE.equals(image.isPrimary()))
+                .findFirst();
+        
+        if (primaryImage.isEmpty()) {
+            primaryImage = listing.images().stream().findFirst();
+        }
+        return primaryImage;
+    }
+
     private User getCurrentUser(Authentication authentication) {
         if (authentication.getPrincipal() instanceof User) {
             return (User) authentication.getPrincipal();
@@ -1,6 +1,7 @@
 package com.campusnest.campusnest_platform.controllers.websocket;
 
 import com.campusnest.campusnest_platform.models.*;
+import com.campusnest.campusnest_platform.projection.ConversationPageSnapshot;
 import com.campusnest.campusnest_platform.repository.housing.HousingListingRepository;
 import com.campusnest.campusnest_platform.repository.user.UserRepository;
 import com.campusnest.campusnest_platform.requests.CreateConversationRequest;
@@ -18,6 +19,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @RestController
@@ -44,19 +46,15 @@ public class MessagingController {
         log.info("Getting conversations for user: {}", maskEmail(currentUser.getEmail()));
         
         Pageable pageable = PageRequest.of(page, size);
-        Page<Conversation> conversations = messagingService.getUserConversations(currentUser, pageable);
-        
-        List<ConversationSummaryResponse> response = conversations.getContent().stream()
-                .map(conversation -> {
-                    Message lastMessage = messagingService.getLatestMessage(conversation.getId());
-                    String lastMessagePreview = lastMessage != null ? 
-                            truncateMessage(lastMessage.getContent(), 50) : "No messages yet";
-                    
-                    Long unreadCount = messagingService.getUnreadMessageCount(conversation.getId(), currentUser);
-                    
-                    return ConversationSummaryResponse.fromConversation(
-                            conversation, currentUser, lastMessagePreview, unreadCount);
-                })
+        // Inbox page is cached; unread counts change on every read receipt so they stay live,
+        // read for the whole page in one query
+        ConversationPageSnapshot conversations = messagingService.getUserConversationPage(currentUser, pageable);
+        Map<Long, Long> unreadCounts = messagingService.getUnreadMessageCounts(
+                conversations.content().stream().map(ConversationPageSnapshot.Entry::id).toList(), currentUser);
+        
+        List<ConversationSummaryResponse> response = conversations.content().stream()
+                .map(entry -> ConversationSummaryResponse.fromSnapshot(entry,
+                        unreadCounts.getOrDefault(entry.id(), 0L)))
                 .collect(Collectors.toList());
         
         return ResponseEntity.ok(response);
@@ -98,7 +96,9 @@ public class MessagingController {
             @PathVariable Long conversationId,
             Authentication authentication,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "50") int size) {
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(required = false) Long afterSeq,
+            @RequestParam(required = false) Long beforeSeq) {
         
         User currentUser = getCurrentUser(authentication);
         log.info("Getting messages for conversation {} for user: {}", conversationId, maskEmail(currentUser.getEmail()));
@@ -107,10 +107,18 @@ public class MessagingController {
             return ResponseEntity.notFound().build();
         }
         
-        Pageable pageable = PageRequest.of(page, size);
-        Page<Message> messages = messagingService.getConversationMessages(conversationId, currentUser, pageable);
+        // afterSeq: delta sync, oldest first; beforeSeq: older history, newest first; otherwise offset pages
+        List<Message> messages;
+        if (afterSeq != null) {
+            messages = messagingService.getMessagesAfterSeq(conversationId, currentUser, afterSeq, size);
+        } else if (beforeSeq != null) {
+            messages = messagingService.getMessagesBeforeSeq(conversationId, currentUser, beforeSeq, size);
+        } else {
+            messages = messagingService.getConversationMessages(conversationId, currentUser, PageRequest.of(page, size))
+                    .getContent();
+        }
         
-        List<MessageResponse> response = messages.getContent().stream()
+        List<MessageResponse> response = messages.stream()
                 .map(message -> MessageResponse.fromMessage(message, currentUser.getId()))
                 .collect(Collectors.toList());
         
@@ -3,17 +3,19 @@ package com.campusnest.campusnest_platform.controllers.websocket;
 import com.campusnest.campusnest_platform.events.MessageEvent;
 import com.campusnest.campusnest_platform.models.Message;
 import com.campusnest.campusnest_platform.models.User;
+import com.campusnest.campusnest_platform.projection.ConversationRoute;
 import com.campusnest.campusnest_platform.requests.ChatMessageRequest;
 import com.campusnest.campusnest_platform.requests.TypingIndicatorRequest;
 import com.campusnest.campusnest_platform.response.ChatMessageResponse;
-import com.campusnest.campusnest_platform.response.TypingIndicatorResponse;
 import com.campusnest.campusnest_platform.services.MessageEventProducer;
 import com.campusnest.campusnest_platform.services.MessagingService;
+import com.campusnest.campusnest_platform.services.TypingIndicatorCoalescer;
+import com.campusnest.campusnest_platform.services.UserMessageDelivery;
 import com.campusnest.campusnest_platform.services.UserPresenceService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.CacheManager;
 import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.messaging.simp.annotation.SendToUser;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -31,15 +33,18 @@ public class WebSocketMessagingController {
     @Autowired
     private SimpMessagingTemplate messagingTemplate;
 
-    @Autowired
-    private CacheManager cacheManager;
-
     @Autowired
     private MessageEventProducer messageEventProducer;
 
     @Autowired
     private UserPresenceService presenceService;
 
+    @Autowired
+    private UserMessageDelivery userMessageDelivery;
+
+    @Autowired
+    private TypingIndicatorCoalescer typingIndicatorCoalescer;
+
     @MessageMapping("/chat/send")
     public void sendMessage(ChatMessageRequest request, Principal principal) {
         try {
@@ -47,12 +52,21 @@ public class WebSocketMessagingController {
             log.info("Received WebSocket message from user {} for conversation {}", 
                     maskEmail(currentUser.getEmail()), request.getConversationId());
 
-            // Validate user can access conversation
-            if (!messagingService.canUserAccessConversation(request.getConversationId(), currentUser)) {
+            // Validate user can access conversation; the route is cached, so this normally runs no query
+            ConversationRoute route = messagingService.getConversationRoute(request.getConversationId());
+            if (route == null || !route.includes(currentUser.getId())) {
                 log.warn("User {} attempted to send message to unauthorized conversation {}", 
                         maskEmail(currentUser.getEmail()), request.getConversationId());
                 return;
             }
+            // Deactivating a conversation evicts its cached route, so this sees the change right away
+            if (route.inactive()) {
+                log.warn("User {} attempted to send message to inactive conversation {}",
+                        maskEmail(currentUser.getEmail()), request.getConversationId());
+                messagingTemplate.convertAndSendToUser(currentUser.getEmail(), "/queue/errors",
+                        "Failed to send message: conversation is no longer active");
+                return;
+            }
 
             // Send message through service (this handles the database transaction and cache clearing)
             Message message = messagingService.sendMessage(
@@ -62,36 +76,20 @@ public class WebSocketMessagingController {
                     request.getMessageType() != null ? request.getMessageType() : 
                             com.campusnest.campusnest_platform.enums.MessageType.TEXT
             );
-            
-            // Additional cache clearing for real-time messaging
-            clearUserCaches(currentUser.getId());
+
+            // The message itself tells the recipient the sender stopped typing
+            typingIndicatorCoalescer.clear(request.getConversationId(), currentUser.getId());
 
             // Create response
             ChatMessageResponse response = ChatMessageResponse.fromMessage(message);
 
-            // Get conversation details with eagerly loaded participants
-            var conversation = messagingService.getConversationWithParticipants(request.getConversationId(), currentUser);
-            
-            // Get other participant details safely
-            Long otherParticipantId = null;
-            String otherParticipantEmail = null;
-            
-            if (conversation.getParticipant1().getId().equals(currentUser.getId())) {
-                otherParticipantId = conversation.getParticipant2().getId();
-                otherParticipantEmail = conversation.getParticipant2().getEmail();
-            } else {
-                otherParticipantId = conversation.getParticipant1().getId();  
-                otherParticipantEmail = conversation.getParticipant1().getEmail();
-            }
+            // Other participant details come from the route too
+            String otherParticipantEmail = route.otherParticipant(currentUser.getId()).email();
 
-            MessageEvent messageEvent = MessageEvent.fromMessage(
-                    message,
-                    otherParticipantId,
-                    //could be wrong
-                    conversation.getParticipant1().getFullName(),
-                    otherParticipantEmail
-            );
-            messageEventProducer.publishMessageEvent(messageEvent);
+            messageEventProducer.publishMessageEvent(MessageEvent.fromMessage(message, route));
+
+            // Serialized once; the same bytes go to every destination of both participants
+            org.springframework.messaging.Message<?> serialized = userMessageDelivery.serialize(response);
 
             if (otherParticipantEmail != null) {
                 // Send to the other participant using their email as user identifier
@@ -99,36 +97,17 @@ public class WebSocketMessagingController {
                 log.info("Sending WebSocket message to user: {}, destination: {}, message: {}", 
                         maskEmail(otherParticipantEmail), destination, response);
                 
-                messagingTemplate.convertAndSendToUser(
-                        otherParticipantEmail,
-                        destination,
-                        response
-                );
-                
-                // Also send to a general message queue for testing
-                messagingTemplate.convertAndSendToUser(
-                        otherParticipantEmail,
-                        "/queue/messages",
-                        response
-                );
+                // Also sent to a general message queue for testing
+                userMessageDelivery.sendToUser(otherParticipantEmail, serialized, "message",
+                        destination, "/queue/messages");
                 
                 log.info("Message sent to user {} in conversation {}", 
                         maskEmail(otherParticipantEmail), request.getConversationId());
             }
 
-            // Send confirmation back to sender
-            messagingTemplate.convertAndSendToUser(
-                    currentUser.getEmail(),
-                    "/queue/message-sent/" + request.getConversationId(),
-                    response
-            );
-            
-            // Also send confirmation to general queue
-            messagingTemplate.convertAndSendToUser(
-                    currentUser.getEmail(),
-                    "/queue/message-sent",
-                    response
-            );
+            // Send confirmation back to sender, also on the general queue
+            userMessageDelivery.sendToUser(currentUser.getEmail(), serialized, "message-sent",
+                    "/queue/message-sent/" + request.getConversationId(), "/queue/message-sent");
 
         } catch (Exception e) {
             log.error("Error sending WebSocket message: {}", e.getMessage());
@@ -151,38 +130,24 @@ public class WebSocketMessagingController {
             log.debug("Received typing indicator from user {} for conversation {}: {}", 
                     maskEmail(currentUser.getEmail()), request.getConversationId(), request.getIsTyping());
 
-            // Validate user can access conversation
-            if (!messagingService.canUserAccessConversation(request.getConversationId(), currentUser)) {
+            // Validate user can access conversation (cached route, so no database hit after the first event)
+            ConversationRoute route = messagingService.getConversationRoute(request.getConversationId());
+            if (route == null || !route.includes(currentUser.getId())) {
                 log.warn("User {} attempted to send typing indicator to unauthorized conversation {}", 
                         maskEmail(currentUser.getEmail()), request.getConversationId());
                 return;
             }
-
-            // Get conversation details with eagerly loaded participants
-            var conversation = messagingService.getConversationWithParticipants(request.getConversationId(), currentUser);
-            
-            // Get other participant details safely
-            String otherParticipantEmail = null;
-            
-            if (conversation.getParticipant1().getId().equals(currentUser.getId())) {
-                otherParticipantEmail = conversation.getParticipant2().getEmail();
-            } else {
-                otherParticipantEmail = conversation.getParticipant1().getEmail();
+            if (route.inactive()) {
+                log.debug("Dropping typing indicator for inactive conversation {}", request.getConversationId());
+                return;
             }
 
-            if (otherParticipantEmail != null) {
-                // Create typing indicator response
-                TypingIndicatorResponse response = TypingIndicatorResponse.create(
-                        request.getConversationId(), currentUser, request.getIsTyping());
+            String otherParticipantEmail = route.otherParticipant(currentUser.getId()).email();
 
-                // Send typing indicator to the other participant
-                messagingTemplate.convertAndSendToUser(
-                        otherParticipantEmail,
-                        "/queue/typing/" + request.getConversationId(),
-                        response
-                );
-                log.debug("Typing indicator sent to user {} in conversation {}", 
-                        maskEmail(otherParticipantEmail), request.getConversationId());
+            if (otherParticipantEmail != null) {
+                // Repeats are coalesced and a stop is sent on its own after a pause, see TypingIndicatorCoalescer
+                typingIndicatorCoalescer.update(request.getConversationId(), currentUser, otherParticipantEmail,
+                        Boolean.TRUE.equals(request.getIsTyping()));
             }
 
         } catch (Exception e) {
@@ -259,29 +224,18 @@ public class WebSocketMessagingController {
         throw new RuntimeException("User not found in WebSocket authentication context");
     }
 
-    private void clearUserCaches(Long userId) {
-        // Clear specific user caches that might be affected by new messages
-        if (cacheManager.getCache("unread-counts") != null) {
-            cacheManager.getCache("unread-counts").evict(userId);
-        }
-        if (cacheManager.getCache("conversations") != null) {
-            cacheManager.getCache("conversations").clear(); // Clear all conversation caches
-        }
-        log.debug("Cleared caches for user: {}", userId);
-    }
-
     @MessageMapping("/chat/connect")
-    public void handleConnect(Principal principal) {
+    public void handleConnect(Principal principal, SimpMessageHeaderAccessor headerAccessor) {
         User currentUser = getCurrentUser(principal);
-        presenceService.setUserOnline(currentUser.getId());
+        presenceService.sessionConnected(currentUser, headerAccessor.getSessionId());
         log.info("User {} connected - now ONLINE", maskEmail(currentUser.getEmail()));
     }
 
     @MessageMapping("/chat/disconnect")
-    public void handleDisconnect(Principal principal) {
+    public void handleDisconnect(Principal principal, SimpMessageHeaderAccessor headerAccessor) {
         User currentUser = getCurrentUser(principal);
-        presenceService.setUserOffline(currentUser.getId());
-        log.info("User {} disconnected - now OFFLINE", maskEmail(currentUser.getEmail()));
+        presenceService.sessionDisconnected(currentUser, headerAccessor.getSessionId());
+        log.info("User {} disconnected - session released", maskEmail(currentUser.getEmail()));
     }
 
 
@@ -2,6 +2,7 @@ package com.campusnest.campusnest_platform.events;
 
 import com.campusnest.campusnest_platform.enums.MessageType;
 import com.campusnest.campusnest_platform.models.Message;
+import com.campusnest.campusnest_platform.projection.ConversationRoute;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -44,4 +45,23 @@ public class MessageEvent {
                 .build();
 
     }
+
+    // From a cached route instead of the message's lazy conversation, so building the event runs no query
+    public static MessageEvent fromMessage(Message message, ConversationRoute route) {
+        ConversationRoute.Participant recipient = route.otherParticipant(message.getSender().getId());
+        return MessageEvent.builder()
+                .messageId(message.getId())
+                .conversationId(route.conversationId())
+                .senderId(message.getSender().getId())
+                .senderName(message.getSender().getFirstName() + " " + message.getSender().getLastName())
+                .senderEmail(message.getSender().getEmail())
+                .recipientId(recipient.id())
+                .recipientName(recipient.fullName())
+                .recipientEmail(recipient.email())
+                .content(message.getContent())
+                .messageType(message.getMessageType())
+                .timestamp(message.getSentAt())
+                .housingListingId(route.housingListingId())
+                .build();
+    }
 }
@@ -8,7 +8,13 @@ import lombok.AllArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "conversations")
+@Table(name = "conversations", indexes = {
+    // Inbox: one index per participant side, so (participant1 = ? OR participant2 = ?) AND is_active
+    // becomes an index-merge union instead of a table scan. The union is unordered, so ORDER BY
+    // last_message_at still filesorts, but only over that user's conversations
+    @Index(name = "idx_conversations_participant1_inbox", columnList = "participant1_id, is_active, last_message_at"),
+    @Index(name = "idx_conversations_participant2_inbox", columnList = "participant2_id, is_active, last_message_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -33,12 +39,36 @@ public class Conversation {
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
 
-    @Column(name = "last_message_at")
+    // Moved forward by ConversationRepository.recordNewMessage; set only on insert through the entity
+    @Column(name = "last_message_at", updatable = false)
     private LocalDateTime lastMessageAt;
 
+    // Sequence number of the newest message, incremented by recordNewMessage under the row lock
+    @Column(name = "last_message_seq", nullable = false, updatable = false)
+    private long lastMessageSeq = 0;
+
+    // Start of the newest message, so the inbox needs no per-conversation message lookup
+    @Column(name = "last_message_preview", length = 60, updatable = false)
+    private String lastMessagePreview;
+
     @Column(name = "is_active", nullable = false)
     private Boolean isActive = true;
 
+    // Unread messages per participant, maintained by atomic UPDATEs in ConversationRepository.
+    // Not updatable through the entity so saving a stale instance cannot overwrite them.
+    @Column(name = "participant1_unread_count", nullable = false, updatable = false)
+    private int participant1UnreadCount = 0;
+
+    @Column(name = "participant2_unread_count", nullable = false, updatable = false)
+    private int participant2UnreadCount = 0;
+
+    // Read receipts: id of the newest message each participant has read (null = nothing read yet)
+    @Column(name = "participant1_last_read_message_id", updatable = false)
+    private Long participant1LastReadMessageId;
+
+    @Column(name = "participant2_last_read_message_id", updatable = false)
+    private Long participant2LastReadMessageId;
+
     @PrePersist
     public void prePersist() {
         if (createdAt == null) {
@@ -63,7 +93,21 @@ public class Conversation {
         return null;
     }
 
-    public void updateLastMessageTime() {
-        this.lastMessageAt = LocalDateTime.now();
+    public int getUnreadCountFor(User user) {
+        if (participant1.getId().equals(user.getId())) {
+            return participant1UnreadCount;
+        } else if (participant2.getId().equals(user.getId())) {
+            return participant2UnreadCount;
+        }
+        return 0;
+    }
+
+    public Long getLastReadMessageIdFor(User user) {
+        if (participant1.getId().equals(user.getId())) {
+            return participant1LastReadMessageId;
+        } else if (participant2.getId().equals(user.getId())) {
+            return participant2LastReadMessageId;
+        }
+        return null;
     }
 }
\ No newline at end of file
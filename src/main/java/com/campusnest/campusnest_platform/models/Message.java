@@ -9,12 +9,21 @@ import lombok.AllArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "messages")
+@Table(name = "messages", indexes = {
+    // Seq seeks (delta sync, history paging); also guarantees seq is unique per conversation.
+    // Id seeks and MAX(id) per conversation use the conversation_id foreign-key index, which InnoDB
+    // already suffixes with the primary key
+    @Index(name = "uk_messages_conversation_seq", columnList = "conversation_id, seq", unique = true),
+    // History and "since" queries ordered by sent_at
+    @Index(name = "idx_messages_conversation_sent_at", columnList = "conversation_id, sent_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Message {
 
+    // Kept on IDENTITY: MySQL has no sequences, and a pooled table generator hands each node its own
+    // id block, so ids would stop following send order and break the read watermarks
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -34,6 +43,11 @@ public class Message {
     @Column(name = "message_type", nullable = false)
     private MessageType messageType = MessageType.TEXT;
 
+    // Position in the conversation, 1-based and gapless: unambiguous ordering, seek paging and gap
+    // detection for clients. Messages from before sequences are numbered by MessageSeqMigration.
+    @Column(name = "seq", nullable = false)
+    private Long seq;
+
     @Column(name = "sent_at", nullable = false)
     private LocalDateTime sentAt;
 
@@ -10,7 +10,8 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "message_status", 
-       uniqueConstraints = @UniqueConstraint(columnNames = {"message_id", "user_id", "status"}))
+       uniqueConstraints = @UniqueConstraint(columnNames = {"message_id", "user_id", "status"}),
+       indexes = @Index(name = "idx_message_status_user_status_message", columnList = "user_id, status, message_id"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
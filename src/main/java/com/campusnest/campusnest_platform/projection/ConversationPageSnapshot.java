@@ -0,0 +1,76 @@
+package com.campusnest.campusnest_platform.projection;
+
+import com.campusnest.campusnest_platform.models.Conversation;
+import com.campusnest.campusnest_platform.models.HousingListing;
+import com.campusnest.campusnest_platform.models.User;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * One cached page of a user's inbox, as seen by that user. Unread counts are not part of it
+ * because they change on every read receipt; they are looked up per request.
+ */
+public record ConversationPageSnapshot(List<Entry> content, int page, int size, long totalElements) {
+
+    public ConversationPageSnapshot {
+        content = content != null ? List.copyOf(content) : List.of();
+    }
+
+    public record Entry(
+            Long id,
+            Participant otherParticipant,
+            Listing housingListing,
+            String lastMessagePreview,
+            LocalDateTime lastMessageAt,
+            Boolean isActive
+    ) {
+
+        public static Entry from(Conversation conversation, User currentUser, String lastMessagePreview) {
+            return new Entry(
+                    conversation.getId(),
+                    Participant.from(conversation.getOtherParticipant(currentUser)),
+                    Listing.from(conversation.getHousingListing()),
+                    lastMessagePreview,
+                    conversation.getLastMessageAt(),
+                    conversation.getIsActive()
+            );
+        }
+    }
+
+    public record Participant(Long id, String firstName, String lastName, String email, String universityDomain) {
+
+        public static Participant from(User user) {
+            if (user == null) {
+                return null;
+            }
+            return new Participant(user.getId(), user.getFirstName(), user.getLastName(),
+                    user.getEmail(), user.getUniversityDomain());
+        }
+    }
+
+    public record Listing(
+            Long id,
+            String title,
+            BigDecimal price,
+            String city,
+            Integer bedrooms,
+            Integer bathrooms,
+            LocalDate availableFrom,
+            LocalDate availableTo,
+            LocalDateTime createdAt,
+            String ownerName
+    ) {
+
+        public static Listing from(HousingListing listing) {
+            if (listing == null) {
+                return null;
+            }
+            return new Listing(listing.getId(), listing.getTitle(), listing.getPrice(), listing.getCity(),
+                    listing.getBedrooms(), listing.getBathrooms(), listing.getAvailableFrom(),
+                    listing.getAvailableTo(), listing.getCreatedAt(), listing.getOwner().getFirstName());
+        }
+    }
+}
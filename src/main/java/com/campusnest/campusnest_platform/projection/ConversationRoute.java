@@ -0,0 +1,35 @@
+package com.campusnest.campusnest_platform.projection;
+
+/**
+ * What the WebSocket paths need to route a conversation's traffic: who takes part and which listing
+ * it is about. Cached per conversation, so sends and typing indicators skip the conversation lookup.
+ */
+public record ConversationRoute(Long conversationId, Boolean active, Long housingListingId,
+                                Participant participant1, Participant participant2) {
+
+    // Constructor expression target for ConversationRepository.findRoute
+    public ConversationRoute(Long conversationId, Boolean active, Long housingListingId,
+                             Long participant1Id, String participant1Email, String participant1FirstName,
+                             String participant1LastName, Long participant2Id, String participant2Email,
+                             String participant2FirstName, String participant2LastName) {
+        this(conversationId, active, housingListingId,
+                new Participant(participant1Id, participant1Email, participant1FirstName + " " + participant1LastName),
+                new Participant(participant2Id, participant2Email, participant2FirstName + " " + participant2LastName));
+    }
+
+    // Not a bean-style name, so the cached JSON keeps only the record components
+    public boolean inactive() {
+        return !Boolean.TRUE.equals(active);
+    }
+
+    public boolean includes(Long userId) {
+        return participant1.id().equals(userId) || participant2.id().equals(userId);
+    }
+
+    public Participant otherParticipant(Long userId) {
+        return participant1.id().equals(userId) ? participant2 : participant1;
+    }
+
+    public record Participant(Long id, String email, String fullName) {
+    }
+}
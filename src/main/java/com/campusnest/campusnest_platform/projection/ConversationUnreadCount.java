@@ -0,0 +1,7 @@
+package com.campusnest.campusnest_platform.projection;
+
+/**
+ * A user's unread message count in one conversation, read straight from the conversation's counters.
+ */
+public record ConversationUnreadCount(Long conversationId, Integer unreadCount) {
+}
@@ -0,0 +1,14 @@
+package com.campusnest.campusnest_platform.projection;
+
+import java.util.List;
+
+/**
+ * One cached page of listing search results. Replaces caching Page&lt;HousingListing&gt;,
+ * which could not be round-tripped through Redis.
+ */
+public record ListingPageSnapshot(List<ListingSnapshot> content, int page, int size, boolean hasNext) {
+
+    public ListingPageSnapshot {
+        content = content != null ? List.copyOf(content) : List.of();
+    }
+}
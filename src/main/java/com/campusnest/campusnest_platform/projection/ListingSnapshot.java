@@ -0,0 +1,95 @@
+package com.campusnest.campusnest_platform.projection;
+
+import com.campusnest.campusnest_platform.models.HousingListing;
+import com.campusnest.campusnest_platform.models.ListingImage;
+import com.campusnest.campusnest_platform.models.User;
+import com.campusnest.campusnest_platform.models.UserFavorite;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Immutable, cache-friendly copy of a listing with everything the listing views render.
+ * Safe to share between threads and to serialize without Hibernate proxies or type hints.
+ */
+public record ListingSnapshot(
+        Long id,
+        String title,
+        String description,
+        BigDecimal price,
+        String address,
+        String city,
+        Integer bedrooms,
+        Integer bathrooms,
+        LocalDate availableFrom,
+        LocalDate availableTo,
+        Boolean isActive,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        Owner owner,
+        List<Image> images,
+        List<String> favoritedByEmails
+) {
+
+    public ListingSnapshot {
+        images = images != null ? List.copyOf(images) : List.of();
+        favoritedByEmails = favoritedByEmails != null ? List.copyOf(favoritedByEmails) : List.of();
+    }
+
+    public record Owner(Long id, String firstName, String lastName, String email, String universityDomain) {
+
+        public static Owner from(User user) {
+            if (user == null) {
+                return null;
+            }
+            return new Owner(user.getId(), user.getFirstName(), user.getLastName(),
+                    user.getEmail(), user.getUniversityDomain());
+        }
+    }
+
+    public record Image(Long id, String s3Key, Boolean isPrimary, Integer displayOrder) {
+
+        public static Image from(ListingImage image) {
+            return new Image(image.getId(), image.getS3Key(), image.getIsPrimary(), image.getDisplayOrder());
+        }
+    }
+
+    // Reads the listing's owner, images and favorites; call while they are loaded or loadable
+    public static ListingSnapshot from(HousingListing listing) {
+        List<Image> images = listing.getImages() != null
+                ? listing.getImages().stream().map(Image::from).toList()
+                : List.of();
+        List<String> favoritedBy = listing.getFavorites() != null
+                ? listing.getFavorites().stream().map(UserFavorite::getUser).map(User::getEmail).toList()
+                : List.of();
+
+        return new ListingSnapshot(
+                listing.getId(),
+                listing.getTitle(),
+                listing.getDescription(),
+                listing.getPrice(),
+                listing.getAddress(),
+                listing.getCity(),
+                listing.getBedrooms(),
+                listing.getBathrooms(),
+                listing.getAvailableFrom(),
+                listing.getAvailableTo(),
+                listing.getIsActive(),
+                listing.getCreatedAt(),
+                listing.getUpdatedAt(),
+                Owner.from(listing.getOwner()),
+                images,
+                favoritedBy
+        );
+    }
+
+    public int favoriteCount() {
+        return favoritedByEmails.size();
+    }
+
+    public boolean isFavoritedBy(String email) {
+        return email != null && favoritedByEmails.contains(email);
+    }
+}
@@ -0,0 +1,11 @@
+package com.campusnest.campusnest_platform.projection;
+
+/**
+ * A conversation as left by recordNewMessage: the seq it handed out and who takes part.
+ */
+public record NewMessageState(Long seq, Long participant1Id, Long participant2Id) {
+
+    public Long recipientOf(Long senderId) {
+        return participant1Id.equals(senderId) ? participant2Id : participant1Id;
+    }
+}
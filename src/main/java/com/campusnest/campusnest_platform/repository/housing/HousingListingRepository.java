@@ -4,25 +4,63 @@ import com.campusnest.campusnest_platform.models.HousingListing;
 import com.campusnest.campusnest_platform.models.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface HousingListingRepository extends JpaRepository<HousingListing, Long> {
-    
+public interface HousingListingRepository extends JpaRepository<HousingListing, Long>,
+        JpaSpecificationExecutor<HousingListing> {
+
     // Step 1: Fetch listings with owner only (avoid MultipleBagFetchException)
     @Query("SELECT h FROM HousingListing h " +
            "LEFT JOIN FETCH h.owner o " +
            "WHERE h.isActive = true " +
            "ORDER BY h.createdAt DESC")
     List<HousingListing> findByIsActiveTrueOrderByCreatedAtDesc();
-    
+
+    // Paged variant of the active feed - only one page of rows (plus one look-ahead row) is read.
+    // Returned as a Slice so no COUNT(*) over the whole table runs per request.
+    @Query("SELECT h FROM HousingListing h " +
+           "LEFT JOIN FETCH h.owner o " +
+           "WHERE h.isActive = true " +
+           "ORDER BY h.createdAt DESC, h.id DESC")
+    Slice<HousingListing> findActiveSlice(Pageable pageable);
+
+    // Keyset (seek) page of the active feed: rows strictly after (createdAt, id).
+    // Cost does not depend on how deep the client has paged.
+    @Query("SELECT h FROM HousingListing h " +
+           "LEFT JOIN FETCH h.owner o " +
+           "WHERE h.isActive = true " +
+           "AND (h.createdAt < :createdAt OR (h.createdAt = :createdAt AND h.id < :id)) " +
+           "ORDER BY h.createdAt DESC, h.id DESC")
+    List<HousingListing> findActiveCreatedBefore(
+        @Param("createdAt") LocalDateTime createdAt,
+        @Param("id") Long id,
+        Pageable pageable
+    );
+
+    // Walks active listings in id order, one batch at a time (search index load)
+    @Query("SELECT h FROM HousingListing h " +
+           "WHERE h.isActive = true AND h.id > :afterId " +
+           "ORDER BY h.id")
+    List<HousingListing> findActiveAfterId(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Hydrates a page of ids picked by the search index
+    @Query("SELECT h FROM HousingListing h " +
+           "LEFT JOIN FETCH h.owner o " +
+           "WHERE h.id IN :ids")
+    List<HousingListing> findAllByIdWithOwner(@Param("ids") Collection<Long> ids);
+
     @Query("SELECT h FROM HousingListing h " +
            "LEFT JOIN FETCH h.owner o " +
            "WHERE h.owner = :owner AND h.isActive = true " +
@@ -42,7 +80,8 @@ public interface HousingListingRepository extends JpaRepository<HousingListing,
     List<HousingListing> findWithImages(@Param("listings") List<HousingListing> listings);
     
     @Query("SELECT DISTINCT h FROM HousingListing h " +
-           "LEFT JOIN FETCH h.favorites " +
+           "LEFT JOIN FETCH h.favorites f " +
+           "LEFT JOIN FETCH f.user " +
            "WHERE h IN :listings")
     List<HousingListing> findWithFavorites(@Param("listings") List<HousingListing> listings);
     
@@ -0,0 +1,106 @@
+package com.campusnest.campusnest_platform.repository.housing;
+
+import com.campusnest.campusnest_platform.models.HousingListing;
+import com.campusnest.campusnest_platform.requests.SearchHousingListingRequest;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Composable criteria for listing search. Every filter in {@link SearchHousingListingRequest}
+ * becomes a SQL predicate, so filtering, ordering and the page limit all run in the database.
+ */
+public final class HousingListingSpecifications {
+
+    // Whitelisted sortBy values -> entity attributes; anything else falls back to createdAt
+    private static final Map<String, String> SORT_FIELDS = Map.of(
+            "createdAt", "createdAt",
+            "price", "price",
+            "bedrooms", "bedrooms",
+            "bathrooms", "bathrooms",
+            "city", "city"
+    );
+
+    private HousingListingSpecifications() {
+    }
+
+    // Active listings matching every non-null filter of the request
+    public static Specification<HousingListing> matching(SearchHousingListingRequest request) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(cb.isTrue(root.get("isActive")));
+
+            if (request.getCity() != null && !request.getCity().isBlank()) {
+                predicates.add(cb.like(cb.lower(root.get("city")),
+                        "%" + request.getCity().trim().toLowerCase() + "%"));
+            }
+            if (request.getMinPrice() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("price"), request.getMinPrice()));
+            }
+            if (request.getMaxPrice() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("price"), request.getMaxPrice()));
+            }
+            if (request.getMinBedrooms() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("bedrooms"), request.getMinBedrooms()));
+            }
+            if (request.getMaxBedrooms() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("bedrooms"), request.getMaxBedrooms()));
+            }
+            if (request.getMinBathrooms() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("bathrooms"), request.getMinBathrooms()));
+            }
+            if (request.getMaxBathrooms() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("bathrooms"), request.getMaxBathrooms()));
+            }
+            // Availability window overlap
+            if (request.getAvailableTo() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.<LocalDate>get("availableFrom"), request.getAvailableTo()));
+            }
+            if (request.getAvailableFrom() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.<LocalDate>get("availableTo"), request.getAvailableFrom()));
+            }
+
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    // Fetch-joins the owner so summaries don't trigger one query per row
+    public static Specification<HousingListing> fetchOwner() {
+        return (root, query, cb) -> {
+            // Count queries cannot carry a fetch join
+            if (query.getResultType() != Long.class && query.getResultType() != long.class) {
+                root.fetch("owner", JoinType.LEFT);
+            }
+            return null;
+        };
+    }
+
+    // Keyset predicate: rows strictly after (value, id) in the given direction
+    public static <Y extends Comparable<? super Y>> Specification<HousingListing> seek(
+            String attribute, Y value, Long id, boolean descending) {
+        return (root, query, cb) -> {
+            Path<Y> key = root.get(attribute);
+            Path<Long> rowId = root.get("id");
+            if (descending) {
+                return cb.or(cb.lessThan(key, value),
+                        cb.and(cb.equal(key, value), cb.lessThan(rowId, id)));
+            }
+            return cb.or(cb.greaterThan(key, value),
+                    cb.and(cb.equal(key, value), cb.greaterThan(rowId, id)));
+        };
+    }
+
+    // Sort for the request with id as tie-breaker so pages are stable
+    public static Sort sortFor(String sortBy, String sortDirection) {
+        String attribute = SORT_FIELDS.getOrDefault(sortBy != null ? sortBy : "createdAt", "createdAt");
+        Sort.Direction direction = "desc".equals(sortDirection) ? Sort.Direction.DESC : Sort.Direction.ASC;
+        return Sort.by(direction, attribute).and(Sort.by(direction, "id"));
+    }
+}
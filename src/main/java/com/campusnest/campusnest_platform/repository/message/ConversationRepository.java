@@ -3,13 +3,19 @@ package com.campusnest.campusnest_platform.repository.message;
 import com.campusnest.campusnest_platform.models.Conversation;
 import com.campusnest.campusnest_platform.models.HousingListing;
 import com.campusnest.campusnest_platform.models.User;
+import com.campusnest.campusnest_platform.projection.ConversationRoute;
+import com.campusnest.campusnest_platform.projection.ConversationUnreadCount;
+import com.campusnest.campusnest_platform.projection.NewMessageState;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -37,10 +43,33 @@ public interface ConversationRepository extends JpaRepository<Conversation, Long
            "c.isActive = true ORDER BY c.lastMessageAt DESC")
     List<Conversation> findByUserOrderByLastMessageDesc(@Param("user") User user);
 
+    // Inbox page in one statement: participants, listing and listing owner come with the conversation,
+    // and the preview and unread counters are columns on it
+    @Query(value = "SELECT c FROM Conversation c " +
+           "JOIN FETCH c.participant1 JOIN FETCH c.participant2 " +
+           "JOIN FETCH c.housingListing l JOIN FETCH l.owner " +
+           "WHERE (c.participant1 = :user OR c.participant2 = :user) AND c.isActive = true " +
+           "ORDER BY c.lastMessageAt DESC, c.id DESC",
+           countQuery = "SELECT COUNT(c) FROM Conversation c WHERE " +
+           "(c.participant1 = :user OR c.participant2 = :user) AND c.isActive = true")
+    Page<Conversation> findInboxPage(@Param("user") User user, Pageable pageable);
+
     @Query("SELECT c FROM Conversation c WHERE " +
            "c.housingListing = :listing AND c.isActive = true")
     List<Conversation> findByHousingListingAndActiveTrue(@Param("listing") HousingListing listing);
 
+    // Reconnect replay: the conversations a client reported last-seen seqs for, if the user is in them
+    @Query("SELECT c FROM Conversation c WHERE c.id IN :conversationIds AND c.isActive = true AND " +
+           "(c.participant1.id = :userId OR c.participant2.id = :userId)")
+    List<Conversation> findActiveByIdsForParticipant(
+            @Param("conversationIds") Collection<Long> conversationIds, 
+            @Param("userId") Long userId);
+
+    @Query("SELECT c FROM Conversation c WHERE c.isActive = true AND " +
+           "((c.participant1.id = :userId AND c.participant1UnreadCount > 0) OR " +
+           "(c.participant2.id = :userId AND c.participant2UnreadCount > 0))")
+    List<Conversation> findWithUnreadMessages(@Param("userId") Long userId);
+
     @Query("SELECT COUNT(c) FROM Conversation c WHERE " +
            "(c.participant1 = :user OR c.participant2 = :user) AND " +
            "c.isActive = true")
@@ -52,4 +81,135 @@ public interface ConversationRepository extends JpaRepository<Conversation, Long
     Optional<Conversation> findByIdAndParticipant(
             @Param("conversationId") Long conversationId, 
             @Param("user") User user);
-}
\ No newline at end of file
+
+    // Participants and listing id for the WebSocket paths, in one query and without loading entities
+    @Query("SELECT new com.campusnest.campusnest_platform.projection.ConversationRoute(c.id, c.isActive, " +
+           "c.housingListing.id, p1.id, p1.email, p1.firstName, p1.lastName, " +
+           "p2.id, p2.email, p2.firstName, p2.lastName) " +
+           "FROM Conversation c JOIN c.participant1 p1 JOIN c.participant2 p2 " +
+           "WHERE c.id = :conversationId")
+    Optional<ConversationRoute> findRoute(@Param("conversationId") Long conversationId);
+
+    // All conversation bookkeeping for a new message in one statement: takes the next sequence number,
+    // bumps the other participant's unread counter and moves lastMessageAt and the preview forward. Participation is checked in the
+    // WHERE, so 0 means the conversation does not exist or the sender is not in it. Holding the row lock
+    // until commit also keeps message ids in commit order within the conversation, which the read
+    // watermarks rely on. The preview is assigned before lastMessageAt: MySQL evaluates SET left to right.
+    @Modifying
+    @Query("UPDATE Conversation c SET " +
+           "c.lastMessageSeq = c.lastMessageSeq + 1, " +
+           "c.participant1UnreadCount = c.participant1UnreadCount + CASE WHEN c.participant2.id = :senderId THEN 1 ELSE 0 END, " +
+           "c.participant2UnreadCount = c.participant2UnreadCount + CASE WHEN c.participant1.id = :senderId THEN 1 ELSE 0 END, " +
+           "c.lastMessagePreview = CASE WHEN c.lastMessageAt IS NULL OR c.lastMessageAt <= :sentAt " +
+           "THEN :preview ELSE c.lastMessagePreview END, " +
+           "c.lastMessageAt = CASE WHEN c.lastMessageAt IS NULL OR c.lastMessageAt < :sentAt " +
+           "THEN :sentAt ELSE c.lastMessageAt END " +
+           "WHERE c.id = :conversationId AND (c.participant1.id = :senderId OR c.participant2.id = :senderId)")
+    int recordNewMessage(
+            @Param("conversationId") Long conversationId, 
+            @Param("senderId") Long senderId, 
+            @Param("preview") String preview, 
+            @Param("sentAt") LocalDateTime sentAt);
+
+    // Read back after recordNewMessage in the same transaction: the row lock makes lastMessageSeq the new
+    // message's seq. The participant ids come from the foreign keys, without a join.
+    @Query("SELECT new com.campusnest.campusnest_platform.projection.NewMessageState(c.lastMessageSeq, " +
+           "c.participant1.id, c.participant2.id) FROM Conversation c WHERE c.id = :conversationId")
+    NewMessageState findNewMessageState(@Param("conversationId") Long conversationId);
+
+    // Marks everything in the conversation read: moves the reader's watermark to the newest message
+    // and zeroes their counter. Idempotent, and the watermark never moves backwards even if a
+    // concurrent markReadUpTo got further. Returns 0 when the user is not a participant.
+    @Modifying
+    @Query("UPDATE Conversation c SET " +
+           "c.participant1UnreadCount = CASE WHEN c.participant1.id = :userId THEN 0 ELSE c.participant1UnreadCount END, " +
+           "c.participant2UnreadCount = CASE WHEN c.participant2.id = :userId THEN 0 ELSE c.participant2UnreadCount END, " +
+           "c.participant1LastReadMessageId = CASE WHEN c.participant1.id = :userId " +
+           "THEN NULLIF(GREATEST(COALESCE(c.participant1LastReadMessageId, 0), " +
+           "COALESCE((SELECT MAX(m.id) FROM Message m WHERE m.conversation = c), 0)), 0) " +
+           "ELSE c.participant1LastReadMessageId END, " +
+           "c.participant2LastReadMessageId = CASE WHEN c.participant2.id = :userId " +
+           "THEN NULLIF(GREATEST(COALESCE(c.participant2LastReadMessageId, 0), " +
+           "COALESCE((SELECT MAX(m.id) FROM Message m WHERE m.conversation = c), 0)), 0) " +
+           "ELSE c.participant2LastReadMessageId END " +
+           "WHERE c.id = :conversationId AND (c.participant1.id = :userId OR c.participant2.id = :userId)")
+    int markAllRead(
+            @Param("conversationId") Long conversationId, 
+            @Param("userId") Long userId);
+
+    // Moves the reader's watermark forward to :messageId and recounts what is still unread after it.
+    // Counters are assigned before watermarks: MySQL evaluates SET left to right with updated values.
+    @Modifying
+    @Query("UPDATE Conversation c SET " +
+           "c.participant1UnreadCount = CASE WHEN c.participant1.id = :userId AND " +
+           "(c.participant1LastReadMessageId IS NULL OR c.participant1LastReadMessageId < :messageId) " +
+           "THEN (SELECT COUNT(m) FROM Message m WHERE m.conversation = c AND m.id > :messageId AND m.sender.id <> :userId) " +
+           "ELSE c.participant1UnreadCount END, " +
+           "c.participant2UnreadCount = CASE WHEN c.participant2.id = :userId AND " +
+           "(c.participant2LastReadMessageId IS NULL OR c.participant2LastReadMessageId < :messageId) " +
+           "THEN (SELECT COUNT(m) FROM Message m WHERE m.conversation = c AND m.id > :messageId AND m.sender.id <> :userId) " +
+           "ELSE c.participant2UnreadCount END, " +
+           "c.participant1LastReadMessageId = CASE WHEN c.participant1.id = :userId AND " +
+           "(c.participant1LastReadMessageId IS NULL OR c.participant1LastReadMessageId < :messageId) " +
+           "THEN :messageId ELSE c.participant1LastReadMessageId END, " +
+           "c.participant2LastReadMessageId = CASE WHEN c.participant2.id = :userId AND " +
+           "(c.participant2LastReadMessageId IS NULL OR c.participant2LastReadMessageId < :messageId) " +
+           "THEN :messageId ELSE c.participant2LastReadMessageId END " +
+           "WHERE c.id = :conversationId")
+    int markReadUpTo(
+            @Param("conversationId") Long conversationId, 
+            @Param("userId") Long userId, 
+            @Param("messageId") Long messageId);
+
+    @Query("SELECT new com.campusnest.campusnest_platform.projection.ConversationUnreadCount(c.id, " +
+           "CASE WHEN c.participant1.id = :userId THEN c.participant1UnreadCount ELSE c.participant2UnreadCount END) " +
+           "FROM Conversation c WHERE c.id IN :conversationIds " +
+           "AND (c.participant1.id = :userId OR c.participant2.id = :userId)")
+    List<ConversationUnreadCount> findUnreadCounts(
+            @Param("userId") Long userId, 
+            @Param("conversationIds") Collection<Long> conversationIds);
+
+    @Query("SELECT COALESCE(SUM(CASE WHEN c.participant1.id = :userId " +
+           "THEN c.participant1UnreadCount ELSE c.participant2UnreadCount END), 0) " +
+           "FROM Conversation c WHERE c.participant1.id = :userId OR c.participant2.id = :userId")
+    long sumUnreadCountsForUser(@Param("userId") Long userId);
+
+    // One-off migration from per-message READ rows: each participant's watermark becomes the newest
+    // message they have a READ row for. Run before recalculateUnreadCounts.
+    @Modifying
+    @Query("UPDATE Conversation c SET " +
+           "c.participant1LastReadMessageId = COALESCE(c.participant1LastReadMessageId, " +
+           "(SELECT MAX(ms.message.id) FROM MessageStatus ms WHERE ms.message.conversation = c " +
+           "AND ms.user = c.participant1 AND ms.status = 'READ')), " +
+           "c.participant2LastReadMessageId = COALESCE(c.participant2LastReadMessageId, " +
+           "(SELECT MAX(ms.message.id) FROM MessageStatus ms WHERE ms.message.conversation = c " +
+           "AND ms.user = c.participant2 AND ms.status = 'READ'))")
+    int initializeReadWatermarks();
+
+    // One-off fill of lastMessagePreview from each conversation's newest message
+    @Modifying
+    @Query("UPDATE Conversation c SET c.lastMessagePreview = " +
+           "(SELECT CASE WHEN LENGTH(m.content) > 50 THEN CONCAT(SUBSTRING(m.content, 1, 50), '...') " +
+           "ELSE m.content END FROM Message m " +
+           "WHERE m.id = (SELECT MAX(m2.id) FROM Message m2 WHERE m2.conversation = c)) " +
+           "WHERE c.lastMessagePreview IS NULL")
+    int initializeLastMessagePreviews();
+
+    // Renumbering: seqs will run 1..n, so the next send continues after the message count. Also takes
+    // the row lock that recordNewMessage needs, holding off sends until the renumbering commits.
+    @Modifying
+    @Query("UPDATE Conversation c SET c.lastMessageSeq = " +
+           "(SELECT COUNT(m) FROM Message m WHERE m.conversation = c) WHERE c.id = :conversationId")
+    int resetLastMessageSeq(@Param("conversationId") Long conversationId);
+
+    // Rebuilds the counters from the watermarks
+    @Modifying
+    @Query("UPDATE Conversation c SET " +
+           "c.participant1UnreadCount = (SELECT COUNT(m) FROM Message m WHERE m.conversation = c " +
+           "AND m.sender <> c.participant1 " +
+           "AND (c.participant1LastReadMessageId IS NULL OR m.id > c.participant1LastReadMessageId)), " +
+           "c.participant2UnreadCount = (SELECT COUNT(m) FROM Message m WHERE m.conversation = c " +
+           "AND m.sender <> c.participant2 " +
+           "AND (c.participant2LastReadMessageId IS NULL OR m.id > c.participant2LastReadMessageId))")
+    int recalculateUnreadCounts();
+}
@@ -2,10 +2,10 @@ package com.campusnest.campusnest_platform.repository.message;
 
 import com.campusnest.campusnest_platform.models.Conversation;
 import com.campusnest.campusnest_platform.models.Message;
-import com.campusnest.campusnest_platform.models.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -18,51 +18,91 @@ import java.util.Optional;
 public interface MessageRepository extends JpaRepository<Message, Long> {
 
     @Query("SELECT m FROM Message m WHERE m.conversation = :conversation " +
-           "ORDER BY m.sentAt ASC")
+           "ORDER BY m.sentAt ASC, m.id ASC")
     List<Message> findByConversationOrderBySentAtAsc(@Param("conversation") Conversation conversation);
 
     @Query("SELECT m FROM Message m WHERE m.conversation = :conversation " +
-           "ORDER BY m.sentAt ASC")
+           "ORDER BY m.sentAt ASC, m.id ASC")
     Page<Message> findByConversationOrderBySentAtAsc(
             @Param("conversation") Conversation conversation,
             Pageable pageable);
 
     @Query("SELECT m FROM Message m WHERE m.conversation = :conversation " +
-           "ORDER BY m.sentAt DESC")
+           "ORDER BY m.sentAt DESC, m.id DESC")
     Page<Message> findByConversationOrderBySentAtDesc(
             @Param("conversation") Conversation conversation,
             Pageable pageable);
 
     @Query("SELECT m FROM Message m WHERE m.conversation = :conversation " +
-           "AND m.sentAt > :since ORDER BY m.sentAt ASC")
+           "AND m.sentAt > :since ORDER BY m.sentAt ASC, m.id ASC")
     List<Message> findByConversationAndSentAtAfter(
             @Param("conversation") Conversation conversation, 
             @Param("since") LocalDateTime since);
 
     @Query("SELECT m FROM Message m WHERE m.conversation = :conversation " +
-           "ORDER BY m.sentAt DESC LIMIT 1")
+           "ORDER BY m.sentAt DESC, m.id DESC LIMIT 1")
     Optional<Message> findLatestMessageByConversation(@Param("conversation") Conversation conversation);
 
-    @Query("SELECT COUNT(m) FROM Message m WHERE m.conversation = :conversation")
-    long countByConversation(@Param("conversation") Conversation conversation);
+    // Keyset seek for unread replay: the next messages from the other participant after the read watermark.
+    // Walks the conversation_id index (which carries the id), so every batch costs the same.
+    @Query("SELECT m FROM Message m JOIN FETCH m.sender WHERE m.conversation.id = :conversationId " +
+           "AND m.id > :afterId AND m.sender.id <> :recipientId ORDER BY m.id ASC")
+    List<Message> findIncomingAfter(
+            @Param("conversationId") Long conversationId, 
+            @Param("recipientId") Long recipientId, 
+            @Param("afterId") Long afterId, 
+            Pageable pageable);
 
-    @Query("SELECT m FROM Message m WHERE m.conversation = :conversation " +
-           "AND m.sender != :user AND m.id NOT IN " +
-           "(SELECT ms.message.id FROM MessageStatus ms WHERE ms.user = :user AND ms.status = 'READ')")
-    List<Message> findUnreadMessagesInConversation(
-            @Param("conversation") Conversation conversation, 
-            @Param("user") User user);
+    // Keyset seek for replay to a client that reported the last seq it holds in this conversation
+    @Query("SELECT m FROM Message m JOIN FETCH m.sender WHERE m.conversation.id = :conversationId " +
+           "AND m.seq > :afterSeq AND m.sender.id <> :recipientId ORDER BY m.seq ASC")
+    List<Message> findIncomingAfterSeq(
+            @Param("conversationId") Long conversationId, 
+            @Param("recipientId") Long recipientId, 
+            @Param("afterSeq") long afterSeq, 
+            Pageable pageable);
 
-    @Query("SELECT COUNT(m) FROM Message m WHERE m.conversation = :conversation " +
-           "AND m.sender != :user AND m.id NOT IN " +
-           "(SELECT ms.message.id FROM MessageStatus ms WHERE ms.user = :user AND ms.status = 'READ')")
-    long countUnreadMessagesInConversation(
-            @Param("conversation") Conversation conversation, 
-            @Param("user") User user);
+    // Seek paging on the (conversation_id, seq) index: delta sync forward from the last seq a client holds
+    @Query("SELECT m FROM Message m JOIN FETCH m.sender WHERE m.conversation.id = :conversationId " +
+           "AND m.seq > :afterSeq ORDER BY m.seq ASC")
+    List<Message> findByConversationAfterSeq(
+            @Param("conversationId") Long conversationId, 
+            @Param("afterSeq") long afterSeq, 
+            Pageable pageable);
 
-    @Query("SELECT m FROM Message m WHERE m.conversation.id IN " +
-           "(SELECT c.id FROM Conversation c WHERE c.participant1 = :user OR c.participant2 = :user) " +
-           "AND m.sender != :user AND m.id NOT IN " +
-           "(SELECT ms.message.id FROM MessageStatus ms WHERE ms.user = :user AND ms.status = 'READ')")
-    List<Message> findAllUnreadMessagesForUser(@Param("user") User user);
+    // ...and history backwards from the oldest seq it holds, newest first
+    @Query("SELECT m FROM Message m JOIN FETCH m.sender WHERE m.conversation.id = :conversationId " +
+           "AND m.seq < :beforeSeq ORDER BY m.seq DESC")
+    List<Message> findByConversationBeforeSeq(
+            @Param("conversationId") Long conversationId, 
+            @Param("beforeSeq") long beforeSeq, 
+            Pageable pageable);
+
+    // Conversations holding messages sent before sequences existed; see MessageSeqMigration
+    @Query("SELECT DISTINCT m.conversation.id FROM Message m WHERE m.seq IS NULL")
+    List<Long> findConversationIdsWithMissingSeq();
+
+    // Renumbering clears a conversation's seqs first, so the unique index never sees two rows with one value
+    @Modifying
+    @Query("UPDATE Message m SET m.seq = NULL WHERE m.conversation.id = :conversationId")
+    int clearSeqs(@Param("conversationId") Long conversationId);
+
+    // MySQL: numbers one conversation's messages 1..n in id order
+    @Modifying
+    @Query(nativeQuery = true, value = "UPDATE messages m JOIN (" +
+           "SELECT id, ROW_NUMBER() OVER (ORDER BY id) AS rn FROM messages WHERE conversation_id = :conversationId) r " +
+           "ON r.id = m.id SET m.seq = r.rn")
+    int numberConversation(@Param("conversationId") Long conversationId);
+
+    // "YES" while the column still accepts NULL, as created by schema updates before seq was required
+    @Query(nativeQuery = true, value = "SELECT IS_NULLABLE FROM information_schema.COLUMNS " +
+           "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'messages' AND COLUMN_NAME = 'seq'")
+    String findSeqNullability();
+
+    @Modifying
+    @Query(nativeQuery = true, value = "ALTER TABLE messages MODIFY seq BIGINT NOT NULL")
+    void requireSeq();
+
+    @Query("SELECT COUNT(m) FROM Message m WHERE m.conversation = :conversation")
+    long countByConversation(@Param("conversation") Conversation conversation);
 }
\ No newline at end of file
@@ -37,6 +37,9 @@ public class SearchHousingListingRequest {
     private String sortBy = "createdAt";
     
     private String sortDirection = "desc";
+    
+    // Opaque keyset cursor from the X-Next-Cursor header; when set, page is ignored
+    private String cursor;
 
     // Getters and Setters
     public String getCity() { return city; }
@@ -77,4 +80,18 @@ public class SearchHousingListingRequest {
     
     public String getSortDirection() { return sortDirection; }
     public void setSortDirection(String sortDirection) { this.sortDirection = sortDirection; }
+    
+    public String getCursor() { return cursor; }
+    public void setCursor(String cursor) { this.cursor = cursor; }
+    
+    // Filters, sort and page in a stable form for the housing-search cache; the cursor is keyed separately
+    public String toCacheKey() {
+        return String.join(":",
+                city != null ? city.trim().toLowerCase() : "",
+                String.valueOf(minPrice), String.valueOf(maxPrice),
+                String.valueOf(availableFrom), String.valueOf(availableTo),
+                String.valueOf(minBedrooms), String.valueOf(maxBedrooms),
+                String.valueOf(minBathrooms), String.valueOf(maxBathrooms),
+                String.valueOf(page), String.valueOf(sortBy), String.valueOf(sortDirection));
+    }
 }
\ No newline at end of file
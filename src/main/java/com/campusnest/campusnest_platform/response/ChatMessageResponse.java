@@ -10,6 +10,7 @@ public class ChatMessageResponse {
     
     private Long messageId;
     private Long conversationId;
+    private Long seq;
     private UserSummaryResponse sender;
     private String content;
     private MessageType messageType;
@@ -20,6 +21,7 @@ public class ChatMessageResponse {
         ChatMessageResponse response = new ChatMessageResponse();
         response.setMessageId(message.getId());
         response.setConversationId(message.getConversation().getId());
+        response.setSeq(message.getSeq());
         response.setSender(UserSummaryResponse.fromUser(message.getSender()));
         response.setContent(message.getContent());
         response.setMessageType(message.getMessageType());
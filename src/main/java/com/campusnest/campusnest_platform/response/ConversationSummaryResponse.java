@@ -1,5 +1,6 @@
 package com.campusnest.campusnest_platform.response;
 
+import com.campusnest.campusnest_platform.projection.ConversationPageSnapshot;
 import lombok.Data;
 
 import java.time.LocalDateTime;
@@ -31,4 +32,16 @@ public class ConversationSummaryResponse {
         response.setIsActive(conversation.getIsActive());
         return response;
     }
+
+    public static ConversationSummaryResponse fromSnapshot(ConversationPageSnapshot.Entry entry, Long unreadCount) {
+        ConversationSummaryResponse response = new ConversationSummaryResponse();
+        response.setId(entry.id());
+        response.setOtherParticipant(UserSummaryResponse.fromSnapshot(entry.otherParticipant()));
+        response.setHousingListing(HousingListingSummaryResponse.fromSnapshot(entry.housingListing()));
+        response.setLastMessagePreview(entry.lastMessagePreview());
+        response.setLastMessageAt(entry.lastMessageAt());
+        response.setUnreadCount(unreadCount);
+        response.setIsActive(entry.isActive());
+        return response;
+    }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.campusnest.campusnest_platform.response;
 
+import com.campusnest.campusnest_platform.projection.ConversationPageSnapshot;
 import lombok.Data;
 
 import java.math.BigDecimal;
@@ -51,4 +52,21 @@ public class HousingListingSummaryResponse {
         response.setOwnerName(listing.getOwner().getFirstName());
         return response;
     }
+
+    public static HousingListingSummaryResponse fromSnapshot(ConversationPageSnapshot.Listing listing) {
+        if (listing == null) return null;
+        
+        HousingListingSummaryResponse response = new HousingListingSummaryResponse();
+        response.setId(listing.id());
+        response.setTitle(listing.title());
+        response.setPrice(listing.price());
+        response.setCity(listing.city());
+        response.setBedrooms(listing.bedrooms());
+        response.setBathrooms(listing.bathrooms());
+        response.setAvailableFrom(listing.availableFrom());
+        response.setAvailableTo(listing.availableTo());
+        response.setCreatedAt(listing.createdAt());
+        response.setOwnerName(listing.ownerName());
+        return response;
+    }
 }
\ No newline at end of file
@@ -10,6 +10,7 @@ public class MessageResponse {
     
     private Long id;
     private Long conversationId;
+    private Long seq;
     private UserSummaryResponse sender;
     private String content;
     private MessageType messageType;
@@ -22,6 +23,7 @@ public class MessageResponse {
         MessageResponse response = new MessageResponse();
         response.setId(message.getId());
         response.setConversationId(message.getConversation().getId());
+        response.setSeq(message.getSeq());
         response.setSender(UserSummaryResponse.fromUser(message.getSender()));
         response.setContent(message.getContent());
         response.setMessageType(message.getMessageType());
@@ -1,5 +1,6 @@
 package com.campusnest.campusnest_platform.response;
 
+import com.campusnest.campusnest_platform.projection.ConversationPageSnapshot;
 import lombok.Data;
 
 @Data
@@ -23,6 +24,18 @@ public class UserSummaryResponse {
         return response;
     }
     
+    public static UserSummaryResponse fromSnapshot(ConversationPageSnapshot.Participant participant) {
+        if (participant == null) return null;
+        
+        UserSummaryResponse response = new UserSummaryResponse();
+        response.setId(participant.id());
+        response.setFirstName(participant.firstName());
+        response.setLastName(participant.lastName());
+        response.setEmail(participant.email());
+        response.setUniversityDomain(participant.universityDomain());
+        return response;
+    }
+    
     public String getFullName() {
         return firstName + " " + lastName;
     }
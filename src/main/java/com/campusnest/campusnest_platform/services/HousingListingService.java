@@ -2,6 +2,11 @@ package com.campusnest.campusnest_platform.services;
 
 import com.campusnest.campusnest_platform.models.HousingListing;
 import com.campusnest.campusnest_platform.models.User;
+import com.campusnest.campusnest_platform.projection.ListingPageSnapshot;
+import com.campusnest.campusnest_platform.projection.ListingSnapshot;
+import com.campusnest.campusnest_platform.requests.SearchHousingListingRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -15,8 +20,17 @@ public interface HousingListingService {
     
     Optional<HousingListing> findById(Long id);
     
+    // Cached, immutable view of a listing for read-only endpoints
+    Optional<ListingSnapshot> findSnapshotById(Long id);
+    
     List<HousingListing> findAllActive();
     
+    // One page of active listings with owner, images and favorites loaded for that page only
+    Slice<HousingListing> findAllActive(Pageable pageable);
+    
+    // Keyset page of active listings strictly after the cursor (newest first)
+    Slice<HousingListing> findAllActiveAfter(ListingCursor cursor, int size);
+    
     HousingListing updateListing(Long id, HousingListing updatedListing, String requesterEmail);
     
     void deleteListing(Long id, String requesterEmail);
@@ -34,6 +48,13 @@ public interface HousingListingService {
     
     List<HousingListing> searchByPriceRange(BigDecimal minPrice, BigDecimal maxPrice);
     
+    // One page of search results with every filter, the sort and the limit applied in SQL.
+    // Seeks past the cursor when given (it must match the request's sort), otherwise uses the request's page
+    Slice<HousingListing> searchListings(SearchHousingListingRequest request, ListingCursor cursor, int size);
+    
+    // Same page as searchListings, as a cacheable snapshot
+    ListingPageSnapshot searchListingSnapshots(SearchHousingListingRequest request, ListingCursor cursor, int size);
+    
     // Security operations
     boolean isOwnerOrAdmin(Long listingId, String requesterEmail);
     
@@ -2,22 +2,35 @@ package com.campusnest.campusnest_platform.services;
 
 import com.campusnest.campusnest_platform.models.HousingListing;
 import com.campusnest.campusnest_platform.models.User;
+import com.campusnest.campusnest_platform.projection.ListingPageSnapshot;
+import com.campusnest.campusnest_platform.projection.ListingSnapshot;
 import com.campusnest.campusnest_platform.repository.housing.HousingListingRepository;
+import com.campusnest.campusnest_platform.repository.housing.HousingListingSpecifications;
 import com.campusnest.campusnest_platform.repository.housing.ListingImageRepository;
 import com.campusnest.campusnest_platform.repository.user.UserRepository;
+import com.campusnest.campusnest_platform.requests.SearchHousingListingRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service("housingListingService")
@@ -32,6 +45,17 @@ public class HousingListingServiceImpl implements HousingListingService {
     
     @Autowired
     private ListingImageRepository listingImageRepository;
+    
+    // Present only when housing.search.index.enabled=true
+    @Autowired(required = false)
+    private ListingSearchIndex listingSearchIndex;
+
+    @Autowired
+    private SearchCacheTags searchCacheTags;
+
+    // Deeper offset pages cost a scan of every skipped row; clients follow the X-Next-Cursor header instead
+    @Value("${housing.search.max-page:50}")
+    private int maxSearchPage = 50;
 
     @Override
     public HousingListing createListing(HousingListing listing, String ownerEmail) {
@@ -43,12 +67,14 @@ public class HousingListingServiceImpl implements HousingListingService {
         listing.setCreatedAt(LocalDateTime.now());
         listing.setUpdatedAt(LocalDateTime.now());
         
-        return housingListingRepository.save(listing);
+        HousingListing saved = housingListingRepository.save(listing);
+        refreshIndexAfterCommit(saved);
+        evictSearchesAfterCommit(saved);
+        return saved;
     }
 
     @Override
     @Transactional(readOnly = true)
-    @Cacheable(value = "housing-listings", key = "#id") // TEMPORARILY DISABLED DUE TO REDIS SERIALIZATION ISSUES
     public Optional<HousingListing> findById(Long id) {
         // Step 1: Fetch listing with owner (avoiding MultipleBagFetchException)
         HousingListing listing = housingListingRepository.findByIdWithOwner(id);
@@ -57,13 +83,18 @@ public class HousingListingServiceImpl implements HousingListingService {
         }
         
         // Step 2: Fetch images and favorites separately (following Baeldung's multiple queries approach)
-        List<HousingListing> singleList = List.of(listing);
-        housingListingRepository.findWithImages(singleList);
-        housingListingRepository.findWithFavorites(singleList);
+        fetchImagesAndFavorites(List.of(listing));
         
         return Optional.of(listing);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    @Cacheable(value = "housing-listings", key = "#id", unless = "#result == null")
+    public Optional<ListingSnapshot> findSnapshotById(Long id) {
+        return findById(id).map(ListingSnapshot::from);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<HousingListing> findAllActive() {
@@ -71,13 +102,93 @@ public class HousingListingServiceImpl implements HousingListingService {
     }
 
     @Override
-    @CachePut(value = "housing-listings", key = "#id")
-    @CacheEvict(value = "housing-search", allEntries = true)
+    @Transactional(readOnly = true)
+    public Slice<HousingListing> findAllActive(Pageable pageable) {
+        // Step 1: Fetch only the requested page with owner
+        Slice<HousingListing> page = housingListingRepository.findActiveSlice(pageable);
+        
+        // Step 2: Batch-load images and favorites for this page's listings only
+        fetchImagesAndFavorites(page.getContent());
+        
+        return page;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<HousingListing> findAllActiveAfter(ListingCursor cursor, int size) {
+        if (!cursor.matches(ListingCursor.SortKey.CREATED_AT, true)) {
+            throw new IllegalArgumentException("Cursor does not match the listing feed order");
+        }
+        // Ask for one extra row to learn whether another page exists without a COUNT query
+        List<HousingListing> rows = housingListingRepository.findActiveCreatedBefore(
+                cursor.getCreatedAt(), cursor.getId(), PageRequest.of(0, size + 1));
+        return toSlice(rows, size);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<HousingListing> searchListings(SearchHousingListingRequest request, ListingCursor cursor, int size) {
+        Specification<HousingListing> spec = HousingListingSpecifications.matching(request)
+                .and(HousingListingSpecifications.fetchOwner());
+        Sort sort = HousingListingSpecifications.sortFor(request.getSortBy(), request.getSortDirection());
+
+        int pageNumber = 0;
+        if (cursor != null) {
+            ListingCursor.SortKey sortKey = ListingCursor.sortKeyFor(request.getSortBy());
+            boolean descending = "desc".equals(request.getSortDirection());
+            if (sortKey == null || !cursor.matches(sortKey, descending)) {
+                throw new IllegalArgumentException("Cursor does not match the requested sort order");
+            }
+            spec = spec.and(sortKey == ListingCursor.SortKey.PRICE
+                    ? HousingListingSpecifications.seek("price", cursor.getPrice(), cursor.getId(), descending)
+                    : HousingListingSpecifications.seek("createdAt", cursor.getCreatedAt(), cursor.getId(), descending));
+        } else {
+            pageNumber = Math.max(request.getPage() != null ? request.getPage() : 0, 0);
+            if (pageNumber > maxSearchPage) {
+                throw new IllegalArgumentException("Page " + pageNumber + " is past the last offset page ("
+                        + maxSearchPage + "); continue with the cursor");
+            }
+        }
+        Pageable pageable = PageRequest.of(pageNumber, size, sort);
+
+        // Serve from the in-memory index when it is loaded; MySQL only hydrates the page by id
+        if (listingSearchIndex != null && listingSearchIndex.isReady()) {
+            ListingSearchIndex.SearchResult result = listingSearchIndex.search(request, cursor,
+                    Math.multiplyExact(pageNumber, size), size);
+            List<HousingListing> content = findAllByIdInOrder(result.ids());
+            fetchImagesAndFavorites(content);
+            return new SliceImpl<>(content, pageable, result.hasNext());
+        }
+
+        // Slice reads one look-ahead row instead of running a COUNT query
+        Slice<HousingListing> page = housingListingRepository.findBy(spec, query -> query.slice(pageable));
+
+        fetchImagesAndFavorites(page.getContent());
+        return page;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @Cacheable(value = "housing-search",
+            key = "T(com.campusnest.campusnest_platform.services.HousingListingServiceImpl).searchCacheKey(#request, #cursor, #size)")
+    public ListingPageSnapshot searchListingSnapshots(SearchHousingListingRequest request, ListingCursor cursor, int size) {
+        // Tag before querying: a page stored after a concurrent listing change stays tagged for the next one
+        searchCacheTags.register(searchCacheKey(request, cursor, size), request);
+        Slice<HousingListing> page = searchListings(request, cursor, size);
+        return new ListingPageSnapshot(
+                page.getContent().stream().map(ListingSnapshot::from).toList(),
+                page.getNumber(), size, page.hasNext());
+    }
+
+    @Override
+    @CacheEvict(value = "housing-listings", key = "#id")
     public HousingListing updateListing(Long id, HousingListing updatedListing, String requesterEmail) {
         verifyOwnershipOrAdmin(id, requesterEmail);
         
         HousingListing existingListing = housingListingRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Listing not found: " + id));
+        // Searches matching the old city or price must go too
+        HousingListing previousState = searchState(existingListing);
         
         // Update fields
         existingListing.setTitle(updatedListing.getTitle());
@@ -91,11 +202,14 @@ public class HousingListingServiceImpl implements HousingListingService {
         existingListing.setAvailableTo(updatedListing.getAvailableTo());
         existingListing.setUpdatedAt(LocalDateTime.now());
         
-        return housingListingRepository.save(existingListing);
+        HousingListing saved = housingListingRepository.save(existingListing);
+        refreshIndexAfterCommit(saved);
+        evictSearchesAfterCommit(previousState, saved);
+        return saved;
     }
 
     @Override
-    @CacheEvict(value = {"housing-listings", "housing-search"}, key = "#id", allEntries = true)
+    @CacheEvict(value = "housing-listings", key = "#id")
     public void deleteListing(Long id, String requesterEmail) {
         verifyOwnershipOrAdmin(id, requesterEmail);
         
@@ -106,12 +220,15 @@ public class HousingListingServiceImpl implements HousingListingService {
         listing.setIsActive(false);
         listing.setUpdatedAt(LocalDateTime.now());
         housingListingRepository.save(listing);
+        removeFromIndexAfterCommit(id);
+        evictSearchesAfterCommit(listing);
         
         // Note: Images are kept for data integrity and potential recovery
         // For hard delete (permanent removal), use hardDeleteListing method
     }
     
     // Optional: Add hard delete method for complete removal
+    @CacheEvict(value = "housing-listings", key = "#id")
     public void hardDeleteListing(Long id, String requesterEmail) {
         verifyOwnershipOrAdmin(id, requesterEmail);
         
@@ -123,6 +240,8 @@ public class HousingListingServiceImpl implements HousingListingService {
         
         // Hard delete the listing
         housingListingRepository.delete(listing);
+        removeFromIndexAfterCommit(id);
+        evictSearchesAfterCommit(listing);
     }
 
     @Override
@@ -207,6 +326,7 @@ public class HousingListingServiceImpl implements HousingListingService {
     }
 
     @Override
+    @CacheEvict(value = "housing-listings", key = "#id")
     public HousingListing toggleListingStatus(Long id, String adminEmail) {
         User admin = userRepository.findByEmail(adminEmail)
                 .orElseThrow(() -> new RuntimeException("User not found: " + adminEmail));
@@ -221,7 +341,10 @@ public class HousingListingServiceImpl implements HousingListingService {
         listing.setIsActive(!listing.getIsActive());
         listing.setUpdatedAt(LocalDateTime.now());
         
-        return housingListingRepository.save(listing);
+        HousingListing saved = housingListingRepository.save(listing);
+        refreshIndexAfterCommit(saved);
+        evictSearchesAfterCommit(saved);
+        return saved;
     }
 
     @Override
@@ -238,32 +361,112 @@ public class HousingListingServiceImpl implements HousingListingService {
         
         return housingListingRepository.countByOwner(owner);
     }
-    @Cacheable(value = "housing-listings", key = "#id")
     public HousingListing getById(Long id){
         return housingListingRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Listing not found: " + id));
     }
 
-    @Cacheable(value = "housing-search",
-            key = "#city + ':' + #minPrice + ':' + #maxPrice + ':' + #pageable.pageNumber")
-    public Page<HousingListing> searchListings(String city, BigDecimal minPrice, BigDecimal maxPrice, Pageable pageable) {
-        return housingListingRepository.findByCityAndPriceBetween(city, minPrice, maxPrice, pageable);
-    }
-
-
-    @CachePut(value = "housing-listings", key = "#result.id")
+    @CacheEvict(value = "housing-listings", key = "#result.id")
     public HousingListing saveOrUpdate(HousingListing listing) {
-        return housingListingRepository.save(listing);
+        HousingListing saved = housingListingRepository.save(listing);
+        refreshIndexAfterCommit(saved);
+        evictSearchesAfterCommit(saved);
+        return saved;
     }
 
     @CacheEvict(value = "housing-listings", key = "#id")
     public void delete(Long id) {
-        housingListingRepository.deleteById(id);
-        clearSearchCache();
+        // Load first: the search tags are derived from the listing's city and price
+        housingListingRepository.findById(id).ifPresent(listing -> {
+            housingListingRepository.delete(listing);
+            evictSearchesAfterCommit(listing);
+        });
+        removeFromIndexAfterCommit(id);
     }
-    @CacheEvict(value = "housing-search", allEntries = true)
-    public void clearSearchCache() {
 
+    // Search cache key; also used to tag the entry, see SearchCacheTags
+    public static String searchCacheKey(SearchHousingListingRequest request, ListingCursor cursor, int size) {
+        return request.toCacheKey() + ':' + (cursor != null ? cursor.encode() : "") + ':' + size;
+    }
+
+    // Trims the look-ahead row and batch-loads collections for the rows actually returned
+    private Slice<HousingListing> toSlice(List<HousingListing> rows, int size) {
+        boolean hasNext = rows.size() > size;
+        List<HousingListing> content = hasNext ? rows.subList(0, size) : rows;
+        fetchImagesAndFavorites(content);
+        return new SliceImpl<>(content, PageRequest.of(0, size), hasNext);
+    }
+
+    // Hydrates index hits with their owners, keeping the index's order
+    private List<HousingListing> findAllByIdInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, HousingListing> byId = new HashMap<>();
+        for (HousingListing listing : housingListingRepository.findAllByIdWithOwner(ids)) {
+            byId.put(listing.getId(), listing);
+        }
+        List<HousingListing> ordered = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            HousingListing listing = byId.get(id);
+            if (listing != null) {
+                ordered.add(listing);
+            }
+        }
+        return ordered;
+    }
+
+    // The index only sees committed state, so rolled-back writes never reach it
+    private void refreshIndexAfterCommit(HousingListing listing) {
+        if (listingSearchIndex != null) {
+            runAfterCommit(() -> listingSearchIndex.upsert(listing));
+        }
+    }
+
+    private void removeFromIndexAfterCommit(Long id) {
+        if (listingSearchIndex != null) {
+            runAfterCommit(() -> listingSearchIndex.remove(id));
+        }
+    }
+
+    // Evicting before commit would let a concurrent search re-cache the old rows
+    private void evictSearchesAfterCommit(HousingListing... states) {
+        List<HousingListing> snapshot = new ArrayList<>(states.length);
+        for (HousingListing state : states) {
+            snapshot.add(searchState(state));
+        }
+        runAfterCommit(() -> searchCacheTags.evictFor(snapshot));
+    }
+
+    // Detached copy of the fields search tags are derived from
+    private static HousingListing searchState(HousingListing listing) {
+        HousingListing state = new HousingListing();
+        state.setId(listing.getId());
+        state.setCity(listing.getCity());
+        state.setPrice(listing.getPrice());
+        return state;
+    }
+
+    private void runAfterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    // Two-step collection loading: one IN query per collection for the whole batch
+    private void fetchImagesAndFavorites(List<HousingListing> listings) {
+        if (listings.isEmpty()) {
+            return;
+        }
+        housingListingRepository.findWithImages(listings);
+        housingListingRepository.findWithFavorites(listings);
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,67 @@
+package com.campusnest.campusnest_platform.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Per-user versions of the {@code conversations} inbox cache.
+ * <p>
+ * Inbox pages are cached under {@code <user id>:<version>:<page>:<size>}, with the version kept in Redis
+ * ({@code conversations:version:<user id>}) so every node reads the same one. Bumping a user's version
+ * retires all of that user's pages at once, without touching anyone else's entries, scanning keys or
+ * clearing other nodes' near caches; the retired entries expire with the cache TTL.
+ */
+@Component("inboxCacheVersions")
+@Slf4j
+public class InboxCacheVersions {
+
+    static final String KEY_PREFIX = "conversations:version:";
+
+    // Far longer than the inbox cache TTL, so a version that expires cannot bring an old page back
+    private static final Duration VERSION_TTL = Duration.ofDays(1);
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    /**
+     * The user's current version, for the inbox cache key.
+     */
+    public String current(Long userId) {
+        try {
+            String version = redisTemplate.opsForValue().get(KEY_PREFIX + userId);
+            return version != null ? version : "0";
+        } catch (Exception e) {
+            // A key nobody else uses: this read misses the cache and nothing it stores is ever served
+            log.warn("Failed to read inbox cache version for user {}: {}", userId, e.getMessage());
+            return "unversioned-" + UUID.randomUUID();
+        }
+    }
+
+    /**
+     * Retires every cached inbox page of the given users.
+     */
+    public void bump(Long... userIds) {
+        long ttlSeconds = VERSION_TTL.toSeconds();
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection redis = (StringRedisConnection) connection;
+                for (Long userId : userIds) {
+                    redis.incr(KEY_PREFIX + userId);
+                    redis.expire(KEY_PREFIX + userId, ttlSeconds);
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            // The pages stay cached until their TTL runs out
+            log.warn("Failed to bump inbox cache version for users {}: {}", Arrays.toString(userIds), e.getMessage());
+        }
+    }
+}
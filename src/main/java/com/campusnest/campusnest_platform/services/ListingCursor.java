@@ -0,0 +1,95 @@
+package com.campusnest.campusnest_platform.services;
+
+import com.campusnest.campusnest_platform.models.HousingListing;
+import com.campusnest.campusnest_platform.projection.ListingSnapshot;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Opaque keyset (seek) position for listing feeds and searches.
+ * Holds the sort key of the last row returned plus its id as a tie-breaker, so the
+ * next page starts right after it via idx_created_at / idx_price instead of an OFFSET.
+ */
+@Getter
+public final class ListingCursor {
+
+    public enum SortKey { CREATED_AT, PRICE }
+
+    private final SortKey sortKey;
+    private final boolean descending;
+    private final LocalDateTime createdAt;
+    private final BigDecimal price;
+    private final Long id;
+
+    private ListingCursor(SortKey sortKey, boolean descending, LocalDateTime createdAt, BigDecimal price, Long id) {
+        this.sortKey = sortKey;
+        this.descending = descending;
+        this.createdAt = createdAt;
+        this.price = price;
+        this.id = id;
+    }
+
+    // Cursor pointing just past the given row
+    public static ListingCursor after(HousingListing last, SortKey sortKey, boolean descending) {
+        return after(last.getCreatedAt(), last.getPrice(), last.getId(), sortKey, descending);
+    }
+
+    public static ListingCursor after(ListingSnapshot last, SortKey sortKey, boolean descending) {
+        return after(last.createdAt(), last.price(), last.id(), sortKey, descending);
+    }
+
+    private static ListingCursor after(LocalDateTime createdAt, BigDecimal price, Long id,
+                                       SortKey sortKey, boolean descending) {
+        return new ListingCursor(sortKey, descending,
+                sortKey == SortKey.CREATED_AT ? createdAt : null,
+                sortKey == SortKey.PRICE ? price : null,
+                id);
+    }
+
+    // Maps the sortBy request value to a seekable key; other sort fields only support offset paging
+    public static SortKey sortKeyFor(String sortBy) {
+        if (sortBy == null || "createdAt".equals(sortBy)) {
+            return SortKey.CREATED_AT;
+        }
+        if ("price".equals(sortBy)) {
+            return SortKey.PRICE;
+        }
+        return null;
+    }
+
+    public boolean matches(SortKey sortKey, boolean descending) {
+        return this.sortKey == sortKey && this.descending == descending;
+    }
+
+    public String encode() {
+        String value = sortKey == SortKey.CREATED_AT ? createdAt.toString() : price.toPlainString();
+        String raw = (sortKey == SortKey.CREATED_AT ? "c" : "p") + "|" + (descending ? "d" : "a") + "|" + value + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ListingCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length != 4 || !("d".equals(parts[1]) || "a".equals(parts[1]))) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            boolean descending = "d".equals(parts[1]);
+            Long id = Long.valueOf(parts[3]);
+            switch (parts[0]) {
+                case "c":
+                    return new ListingCursor(SortKey.CREATED_AT, descending, LocalDateTime.parse(parts[2]), null, id);
+                case "p":
+                    return new ListingCursor(SortKey.PRICE, descending, null, new BigDecimal(parts[2]), id);
+                default:
+                    throw new IllegalArgumentException("Invalid cursor");
+            }
+        } catch (IllegalArgumentException | java.time.format.DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
@@ -0,0 +1,436 @@
+package com.campusnest.campusnest_platform.services;
+
+import com.campusnest.campusnest_platform.models.HousingListing;
+import com.campusnest.campusnest_platform.repository.housing.HousingListingRepository;
+import com.campusnest.campusnest_platform.requests.SearchHousingListingRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process columnar index over active listings for the search endpoint.
+ * Each listing occupies one slot across primitive column arrays; city is dictionary-encoded
+ * with one bitmap posting list per distinct city. Searches scan only matching slots and keep
+ * a bounded top-K heap, so MySQL is only hit to hydrate the returned page by id.
+ * Enabled with housing.search.index.enabled=true; until the initial load finishes,
+ * searches fall back to the database.
+ */
+@Component
+@ConditionalOnProperty(name = "housing.search.index.enabled", havingValue = "true")
+@Slf4j
+public class ListingSearchIndex {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    @Autowired
+    private HousingListingRepository housingListingRepository;
+
+    @Value("${housing.search.index.load-batch-size:1000}")
+    private int loadBatchSize = 1000;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Column storage, indexed by slot
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private long[] priceCents = new long[INITIAL_CAPACITY];
+    private byte[] bedrooms = new byte[INITIAL_CAPACITY];
+    private byte[] bathrooms = new byte[INITIAL_CAPACITY];
+    private int[] availableFrom = new int[INITIAL_CAPACITY];
+    private int[] availableTo = new int[INITIAL_CAPACITY];
+    private long[] createdAt = new long[INITIAL_CAPACITY];
+    private int[] cityCodes = new int[INITIAL_CAPACITY];
+
+    // Occupied slots, plus freed slots kept for reuse
+    private final BitSet live = new BitSet();
+    private int[] freeSlots = new int[64];
+    private int freeCount;
+    private int highWater;
+
+    private final Map<Long, Integer> slotById = new HashMap<>();
+
+    // City dictionary: lower-cased name -> code, code -> name, code -> posting list
+    private final Map<String, Integer> cityDictionary = new HashMap<>();
+    private final List<String> cityNames = new ArrayList<>();
+    private final List<BitSet> cityPostings = new ArrayList<>();
+
+    // Mutations seen while the initial load is running win over the rows it reads
+    private final Set<Long> touchedDuringLoad = new HashSet<>();
+    private volatile boolean ready;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.currentTimeMillis();
+        long afterId = 0L;
+        List<HousingListing> batch;
+        do {
+            batch = housingListingRepository.findActiveAfterId(afterId, PageRequest.of(0, loadBatchSize));
+            lock.writeLock().lock();
+            try {
+                for (HousingListing listing : batch) {
+                    if (!touchedDuringLoad.contains(listing.getId())) {
+                        put(listing);
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            if (!batch.isEmpty()) {
+                afterId = batch.get(batch.size() - 1).getId();
+            }
+        } while (batch.size() == loadBatchSize);
+
+        lock.writeLock().lock();
+        try {
+            touchedDuringLoad.clear();
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Listing search index loaded {} active listings in {}ms", size(), System.currentTimeMillis() - start);
+    }
+
+    // Inserts or refreshes the listing; inactive listings are removed
+    public void upsert(HousingListing listing) {
+        if (listing == null || listing.getId() == null) {
+            return;
+        }
+        if (!Boolean.TRUE.equals(listing.getIsActive())) {
+            remove(listing.getId());
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (!ready) {
+                touchedDuringLoad.add(listing.getId());
+            }
+            put(listing);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        if (id == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (!ready) {
+                touchedDuringLoad.add(id);
+            }
+            Integer slot = slotById.remove(id);
+            if (slot != null) {
+                live.clear(slot);
+                cityPostings.get(cityCodes[slot]).clear(slot);
+                if (freeCount == freeSlots.length) {
+                    freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+                }
+                freeSlots[freeCount++] = slot;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of one page of matching listings in request order, plus whether more rows follow.
+     * With a cursor the page starts right after it; otherwise {@code offset} rows are skipped.
+     */
+    public SearchResult search(SearchHousingListingRequest request, ListingCursor cursor, int offset, int size) {
+        if (offset < 0 || size < 1) {
+            throw new IllegalArgumentException("Invalid search page: offset " + offset + ", size " + size);
+        }
+        long minPrice = request.getMinPrice() != null ? toCents(request.getMinPrice(), RoundingMode.CEILING) : Long.MIN_VALUE;
+        long maxPrice = request.getMaxPrice() != null ? toCents(request.getMaxPrice(), RoundingMode.FLOOR) : Long.MAX_VALUE;
+        int minBedrooms = request.getMinBedrooms() != null ? request.getMinBedrooms() : Integer.MIN_VALUE;
+        int maxBedrooms = request.getMaxBedrooms() != null ? request.getMaxBedrooms() : Integer.MAX_VALUE;
+        int minBathrooms = request.getMinBathrooms() != null ? request.getMinBathrooms() : Integer.MIN_VALUE;
+        int maxBathrooms = request.getMaxBathrooms() != null ? request.getMaxBathrooms() : Integer.MAX_VALUE;
+        // Availability window overlap: listing.from <= request.to and listing.to >= request.from
+        int windowEnd = request.getAvailableTo() != null ? toEpochDay(request.getAvailableTo()) : Integer.MAX_VALUE;
+        int windowStart = request.getAvailableFrom() != null ? toEpochDay(request.getAvailableFrom()) : Integer.MIN_VALUE;
+        String city = request.getCity() != null && !request.getCity().isBlank()
+                ? request.getCity().trim().toLowerCase() : null;
+
+        boolean descending = "desc".equals(request.getSortDirection());
+        String sortBy = request.getSortBy() != null ? request.getSortBy() : "createdAt";
+        long wanted = (cursor != null ? 0L : offset) + size + 1;
+
+        lock.readLock().lock();
+        try {
+            BitSet candidates = city != null ? cityCandidates(city) : live;
+            SlotComparator order = comparatorFor(sortBy, descending);
+            SlotFilter afterCursor = cursor != null ? seekFilter(cursor, descending) : null;
+            // Never size the heap past the rows that could match
+            TopK top = new TopK((int) Math.min(wanted, candidates.cardinality()), order);
+
+            for (int slot = candidates.nextSetBit(0); slot >= 0; slot = candidates.nextSetBit(slot + 1)) {
+                long price = priceCents[slot];
+                if (price < minPrice || price > maxPrice
+                        || bedrooms[slot] < minBedrooms || bedrooms[slot] > maxBedrooms
+                        || bathrooms[slot] < minBathrooms || bathrooms[slot] > maxBathrooms
+                        || availableFrom[slot] > windowEnd || availableTo[slot] < windowStart) {
+                    continue;
+                }
+                if (afterCursor != null && !afterCursor.accept(slot)) {
+                    continue;
+                }
+                top.offer(slot);
+            }
+
+            int[] sorted = top.sorted();
+            int from = cursor != null ? 0 : Math.min(offset, sorted.length);
+            int to = Math.min(from + size, sorted.length);
+            List<Long> pageIds = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                pageIds.add(ids[sorted[i]]);
+            }
+            return new SearchResult(pageIds, sorted.length > to);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public record SearchResult(List<Long> ids, boolean hasNext) {
+    }
+
+    // Caller holds the write lock
+    private void put(HousingListing listing) {
+        Integer slot = slotById.get(listing.getId());
+        if (slot == null) {
+            slot = allocateSlot();
+            slotById.put(listing.getId(), slot);
+            live.set(slot);
+        } else {
+            cityPostings.get(cityCodes[slot]).clear(slot);
+        }
+
+        int cityCode = cityCode(listing.getCity());
+        ids[slot] = listing.getId();
+        priceCents[slot] = toCents(listing.getPrice(), RoundingMode.HALF_UP);
+        bedrooms[slot] = toByte(listing.getBedrooms());
+        bathrooms[slot] = toByte(listing.getBathrooms());
+        availableFrom[slot] = toEpochDay(listing.getAvailableFrom());
+        availableTo[slot] = toEpochDay(listing.getAvailableTo());
+        createdAt[slot] = toSortableTime(listing.getCreatedAt());
+        cityCodes[slot] = cityCode;
+        cityPostings.get(cityCode).set(slot);
+    }
+
+    private int allocateSlot() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        if (highWater == ids.length) {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            priceCents = Arrays.copyOf(priceCents, capacity);
+            bedrooms = Arrays.copyOf(bedrooms, capacity);
+            bathrooms = Arrays.copyOf(bathrooms, capacity);
+            availableFrom = Arrays.copyOf(availableFrom, capacity);
+            availableTo = Arrays.copyOf(availableTo, capacity);
+            createdAt = Arrays.copyOf(createdAt, capacity);
+            cityCodes = Arrays.copyOf(cityCodes, capacity);
+        }
+        return highWater++;
+    }
+
+    private int cityCode(String city) {
+        String key = city != null ? city.toLowerCase() : "";
+        Integer code = cityDictionary.get(key);
+        if (code == null) {
+            code = cityNames.size();
+            cityDictionary.put(key, code);
+            cityNames.add(key);
+            cityPostings.add(new BitSet());
+        }
+        return code;
+    }
+
+    // Same "contains, ignoring case" semantics as the SQL search, evaluated once per distinct city
+    private BitSet cityCandidates(String city) {
+        BitSet result = new BitSet();
+        for (int code = 0; code < cityNames.size(); code++) {
+            if (cityNames.get(code).contains(city)) {
+                result.or(cityPostings.get(code));
+            }
+        }
+        return result;
+    }
+
+    private SlotComparator comparatorFor(String sortBy, boolean descending) {
+        SlotComparator byKey;
+        switch (sortBy) {
+            case "price":
+                byKey = (a, b) -> Long.compare(priceCents[a], priceCents[b]);
+                break;
+            case "bedrooms":
+                byKey = (a, b) -> Integer.compare(bedrooms[a], bedrooms[b]);
+                break;
+            case "bathrooms":
+                byKey = (a, b) -> Integer.compare(bathrooms[a], bathrooms[b]);
+                break;
+            case "city":
+                byKey = (a, b) -> cityNames.get(cityCodes[a]).compareTo(cityNames.get(cityCodes[b]));
+                break;
+            default: // createdAt
+                byKey = (a, b) -> Long.compare(createdAt[a], createdAt[b]);
+                break;
+        }
+        // Tie-break on id, in the same direction as the key, like the SQL sort
+        SlotComparator ascending = (a, b) -> {
+            int comparison = byKey.compare(a, b);
+            return comparison != 0 ? comparison : Long.compare(ids[a], ids[b]);
+        };
+        return descending ? (a, b) -> ascending.compare(b, a) : ascending;
+    }
+
+    private SlotFilter seekFilter(ListingCursor cursor, boolean descending) {
+        long key = cursor.getSortKey() == ListingCursor.SortKey.PRICE
+                ? toCents(cursor.getPrice(), RoundingMode.HALF_UP)
+                : toSortableTime(cursor.getCreatedAt());
+        long[] column = cursor.getSortKey() == ListingCursor.SortKey.PRICE ? priceCents : createdAt;
+        long id = cursor.getId();
+        return slot -> {
+            int comparison = Long.compare(column[slot], key);
+            if (comparison == 0) {
+                comparison = Long.compare(ids[slot], id);
+            }
+            return descending ? comparison < 0 : comparison > 0;
+        };
+    }
+
+    private static long toCents(BigDecimal amount, RoundingMode rounding) {
+        return amount != null ? amount.setScale(2, rounding).unscaledValue().longValue() : 0L;
+    }
+
+    private static byte toByte(Integer value) {
+        return value != null ? (byte) Math.max(Byte.MIN_VALUE, Math.min(Byte.MAX_VALUE, value)) : 0;
+    }
+
+    private static int toEpochDay(LocalDate date) {
+        return date != null ? (int) date.toEpochDay() : 0;
+    }
+
+    // Nanosecond-precision timestamp so cursor values compare exactly
+    private static long toSortableTime(LocalDateTime time) {
+        if (time == null) {
+            return Long.MIN_VALUE;
+        }
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + time.getNano();
+    }
+
+    @FunctionalInterface
+    private interface SlotComparator {
+        int compare(int a, int b);
+    }
+
+    @FunctionalInterface
+    private interface SlotFilter {
+        boolean accept(int slot);
+    }
+
+    /**
+     * Bounded heap of the best {@code capacity} slots. The worst kept slot sits at the root,
+     * so each candidate costs one comparison unless it displaces it.
+     */
+    private static final class TopK {
+        private final int[] heap;
+        private final SlotComparator order;
+        private int size;
+
+        TopK(int capacity, SlotComparator order) {
+            this.heap = new int[capacity];
+            this.order = order;
+        }
+
+        void offer(int slot) {
+            if (size < heap.length) {
+                heap[size] = slot;
+                siftUp(size++);
+            } else if (order.compare(slot, heap[0]) < 0) {
+                heap[0] = slot;
+                siftDown(0);
+            }
+        }
+
+        // Drains the heap into request order
+        int[] sorted() {
+            int[] result = new int[size];
+            for (int i = size - 1; i >= 0; i--) {
+                result[i] = heap[0];
+                heap[0] = heap[--size];
+                siftDown(0);
+            }
+            return result;
+        }
+
+        private void siftUp(int index) {
+            int slot = heap[index];
+            while (index > 0) {
+                int parent = (index - 1) >>> 1;
+                if (order.compare(slot, heap[parent]) <= 0) {
+                    break;
+                }
+                heap[index] = heap[parent];
+                index = parent;
+            }
+            heap[index] = slot;
+        }
+
+        private void siftDown(int index) {
+            if (size == 0) {
+                return;
+            }
+            int slot = heap[index];
+            int half = size >>> 1;
+            while (index < half) {
+                int child = 2 * index + 1;
+                int right = child + 1;
+                if (right < size && order.compare(heap[right], heap[child]) > 0) {
+                    child = right;
+                }
+                if (order.compare(slot, heap[child]) >= 0) {
+                    break;
+                }
+                heap[index] = heap[child];
+                index = child;
+            }
+            heap[index] = slot;
+        }
+    }
+}
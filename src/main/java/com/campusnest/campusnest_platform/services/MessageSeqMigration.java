@@ -0,0 +1,68 @@
+package com.campusnest.campusnest_platform.services;
+
+import com.campusnest.campusnest_platform.repository.message.ConversationRepository;
+import com.campusnest.campusnest_platform.repository.message.MessageRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Numbers messages sent before per-conversation sequences existed, before the application serves
+ * traffic: it runs once all beans are created and before the web server, WebSocket broker and Kafka
+ * listeners start, and a failure stops startup. No send can take a seq in a conversation whose older
+ * messages are still unnumbered, and delta sync never sees a conversation with gaps.
+ * <p>
+ * Each conversation with unnumbered messages is renumbered as a whole, 1..n in id order, under its
+ * row lock, and continues from n. Once no message is left without a seq the column is made NOT NULL.
+ * Nodes running a version that does not set seq must be stopped before the first node with this runs.
+ */
+@Component
+@ConditionalOnProperty(name = "messaging.seq-migration.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class MessageSeqMigration implements SmartInitializingSingleton {
+
+    @Autowired
+    private ConversationRepository conversationRepository;
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        migrate();
+    }
+
+    void migrate() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        long start = System.currentTimeMillis();
+        List<Long> conversationIds = messageRepository.findConversationIdsWithMissingSeq();
+        // One transaction per conversation keeps each row lock short
+        for (Long conversationId : conversationIds) {
+            tx.executeWithoutResult(status -> renumber(conversationId));
+        }
+        if (!conversationIds.isEmpty()) {
+            log.info("Numbered messages in {} conversations in {}ms",
+                    conversationIds.size(), System.currentTimeMillis() - start);
+        }
+        if ("YES".equalsIgnoreCase(messageRepository.findSeqNullability())) {
+            tx.executeWithoutResult(status -> messageRepository.requireSeq());
+            log.info("messages.seq is now NOT NULL");
+        }
+    }
+
+    private void renumber(Long conversationId) {
+        // Lock the conversation row first; sends take their seq under the same lock
+        conversationRepository.resetLastMessageSeq(conversationId);
+        messageRepository.clearSeqs(conversationId);
+        messageRepository.numberConversation(conversationId);
+    }
+}
@@ -2,11 +2,15 @@ package com.campusnest.campusnest_platform.services;
 
 import com.campusnest.campusnest_platform.enums.MessageType;
 import com.campusnest.campusnest_platform.models.*;
+import com.campusnest.campusnest_platform.projection.ConversationPageSnapshot;
+import com.campusnest.campusnest_platform.projection.ConversationRoute;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface MessagingService {
     
@@ -39,6 +43,16 @@ public interface MessagingService {
      * Get recent messages since a specific timestamp
      */
     List<Message> getRecentMessages(Long conversationId, User requestingUser, LocalDateTime since);
+
+    /**
+     * Get up to limit messages after the given sequence number, oldest first (delta sync)
+     */
+    List<Message> getMessagesAfterSeq(Long conversationId, User requestingUser, long afterSeq, int limit);
+
+    /**
+     * Get up to limit messages before the given sequence number, newest first (history paging)
+     */
+    List<Message> getMessagesBeforeSeq(Long conversationId, User requestingUser, long beforeSeq, int limit);
     
     /**
      * Get all conversations for a user
@@ -49,6 +63,11 @@ public interface MessagingService {
      * Get conversations for a user with pagination
      */
     Page<Conversation> getUserConversations(User user, Pageable pageable);
+
+    /**
+     * Get a page of a user's inbox as an immutable, cacheable snapshot (without unread counts)
+     */
+    ConversationPageSnapshot getUserConversationPage(User user, Pageable pageable);
     
     /**
      * Mark messages as read by a user
@@ -64,6 +83,12 @@ public interface MessagingService {
      * Get unread message count for a conversation
      */
     long getUnreadMessageCount(Long conversationId, User user);
+
+    /**
+     * Get unread message counts for several conversations in one query, keyed by conversation id.
+     * Conversations the user is not part of are left out.
+     */
+    Map<Long, Long> getUnreadMessageCounts(Collection<Long> conversationIds, User user);
     
     /**
      * Get total unread message count for a user
@@ -80,6 +105,12 @@ public interface MessagingService {
      */
     Conversation getConversationWithParticipants(Long conversationId, User user);
     
+    /**
+     * Get the participants and listing of a conversation, cached per conversation (null if it does not
+     * exist). Callers check participation with {@link ConversationRoute#includes}.
+     */
+    ConversationRoute getConversationRoute(Long conversationId);
+    
     /**
      * Check if user can access a conversation
      */
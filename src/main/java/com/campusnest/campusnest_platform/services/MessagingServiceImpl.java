@@ -1,30 +1,41 @@
 package com.campusnest.campusnest_platform.services;
 
-import com.campusnest.campusnest_platform.enums.MessageStatusType;
 import com.campusnest.campusnest_platform.enums.MessageType;
 import com.campusnest.campusnest_platform.models.*;
+import com.campusnest.campusnest_platform.projection.ConversationPageSnapshot;
+import com.campusnest.campusnest_platform.projection.ConversationRoute;
+import com.campusnest.campusnest_platform.projection.ConversationUnreadCount;
+import com.campusnest.campusnest_platform.projection.NewMessageState;
 import com.campusnest.campusnest_platform.repository.housing.HousingListingRepository;
 import com.campusnest.campusnest_platform.repository.message.ConversationRepository;
 import com.campusnest.campusnest_platform.repository.message.MessageRepository;
-import com.campusnest.campusnest_platform.repository.message.MessageStatusRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.cache.annotation.Caching;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @Service
 @Slf4j
 @Transactional
 public class MessagingServiceImpl implements MessagingService {
 
+    private static final int PREVIEW_LENGTH = 50;
+
     @Autowired
     private ConversationRepository conversationRepository;
 
@@ -32,10 +43,13 @@ public class MessagingServiceImpl implements MessagingService {
     private MessageRepository messageRepository;
 
     @Autowired
-    private MessageStatusRepository messageStatusRepository;
+    private HousingListingRepository housingListingRepository;
 
     @Autowired
-    private HousingListingRepository housingListingRepository;
+    private InboxCacheVersions inboxCacheVersions;
+
+    @Autowired
+    private CacheManager cacheManager;
 
     @Override
     public Conversation createOrGetConversation(User user1, User user2, HousingListing listing) {
@@ -68,7 +82,7 @@ public class MessagingServiceImpl implements MessagingService {
                     
                     Conversation saved = conversationRepository.save(conversation);
                     
-                    // Send system message to initialize conversation
+                    // Send system message to initialize conversation; it also retires both users' cached inboxes
                     sendMessage(saved.getId(), user1, 
                             "Conversation started about: " + currentListing.getTitle(), 
                             MessageType.SYSTEM);
@@ -78,41 +92,42 @@ public class MessagingServiceImpl implements MessagingService {
     }
 
     @Override
-    @Caching(evict = {
-            @CacheEvict(value = "unread-counts", allEntries = true),
-            @CacheEvict(value = "conversations", allEntries = true),
-            @CacheEvict(value = "conversation-messages", key = "#conversationId")
-    })
+    @CacheEvict(value = "conversation-messages", key = "#conversationId")
     public Message sendMessage(Long conversationId, User sender, String content, MessageType messageType) {
         log.info("Sending {} message in conversation {} from user {}", 
                 messageType, conversationId, maskEmail(sender.getEmail()));
 
-        Conversation conversation = getConversation(conversationId, sender);
+        LocalDateTime sentAt = LocalDateTime.now();
+        // One UPDATE checks participation and does the conversation bookkeeping (recipient's unread
+        // counter, lastMessageAt, inbox preview, next seq) before the message INSERT.
+        // Read state lives in the per-participant watermarks, so no per-message status rows are written.
+        if (conversationRepository.recordNewMessage(conversationId, sender.getId(),
+                truncateMessage(content, PREVIEW_LENGTH), sentAt) == 0) {
+            throw new RuntimeException("Conversation not found or user not authorized");
+        }
         
+        // The UPDATE above took the next seq and still holds the row lock
+        NewMessageState state = conversationRepository.findNewMessageState(conversationId);
+        Long recipientId = state.recipientOf(sender.getId());
+        // Only the two participants' inboxes and the recipient's unread total change
+        runAfterCommit(() -> {
+            inboxCacheVersions.bump(state.participant1Id(), state.participant2Id());
+            Cache unreadCounts = cacheManager.getCache("unread-counts");
+            if (unreadCounts != null) {
+                unreadCounts.evict(recipientId);
+            }
+        });
+
         Message message = new Message();
-        message.setConversation(conversation);
+        message.setConversation(conversationRepository.getReferenceById(conversationId));
+        message.setSeq(state.seq());
         message.setSender(sender);
         message.setContent(content);
         message.setMessageType(messageType);
-        message.setSentAt(LocalDateTime.now());
+        message.setSentAt(sentAt);
         
         Message savedMessage = messageRepository.save(message);
         
-        // Update conversation last message time
-        conversation.updateLastMessageTime();
-        conversationRepository.save(conversation);
-        
-        // Create message status for sender (SENT)
-        MessageStatus senderStatus = MessageStatus.createSentStatus(savedMessage, sender);
-        messageStatusRepository.save(senderStatus);
-        
-        // Create message status for recipient (DELIVERED - will be updated when they come online)
-        User recipient = conversation.getOtherParticipant(sender);
-        if (recipient != null) {
-            MessageStatus recipientStatus = MessageStatus.createDeliveredStatus(savedMessage, recipient);
-            messageStatusRepository.save(recipientStatus);
-        }
-        
         log.info("Message sent successfully with ID: {}", savedMessage.getId());
         return savedMessage;
     }
@@ -150,6 +165,20 @@ public class MessagingServiceImpl implements MessagingService {
         return messageRepository.findByConversationAndSentAtAfter(conversation, since);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<Message> getMessagesAfterSeq(Long conversationId, User requestingUser, long afterSeq, int limit) {
+        Conversation conversation = getConversation(conversationId, requestingUser);
+        return messageRepository.findByConversationAfterSeq(conversation.getId(), afterSeq, PageRequest.of(0, limit));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Message> getMessagesBeforeSeq(Long conversationId, User requestingUser, long beforeSeq, int limit) {
+        Conversation conversation = getConversation(conversationId, requestingUser);
+        return messageRepository.findByConversationBeforeSeq(conversation.getId(), beforeSeq, PageRequest.of(0, limit));
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<Conversation> getUserConversations(User user) {
@@ -166,35 +195,35 @@ public class MessagingServiceImpl implements MessagingService {
         return conversationRepository.findByUserOrderByLastMessageDesc(user, pageable);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    @Cacheable(value = "conversations", key = "#user.id + ':' + @inboxCacheVersions.current(#user.id) + ':' " +
+            "+ #pageable.pageNumber + ':' + #pageable.pageSize")
+    public ConversationPageSnapshot getUserConversationPage(User user, Pageable pageable) {
+        Page<Conversation> conversations = conversationRepository.findInboxPage(user, pageable);
+        List<ConversationPageSnapshot.Entry> entries = conversations.getContent().stream()
+                .map(conversation -> ConversationPageSnapshot.Entry.from(conversation, user,
+                        conversation.getLastMessagePreview() != null
+                                ? conversation.getLastMessagePreview() : "No messages yet"))
+                .toList();
+        return new ConversationPageSnapshot(entries, pageable.getPageNumber(), pageable.getPageSize(),
+                conversations.getTotalElements());
+    }
+
     @Override
     @CacheEvict(value = "unread-counts", key = "#user.id")
-    @Transactional(noRollbackFor = org.springframework.dao.DataIntegrityViolationException.class)
-    public synchronized void markMessagesAsRead(Long conversationId, User user) {
+    public void markMessagesAsRead(Long conversationId, User user) {
         log.info("Marking messages as read in conversation {} for user {}", conversationId, maskEmail(user.getEmail()));
 
-        Conversation conversation = getConversation(conversationId, user);
-        List<Message> unreadMessages = messageRepository.findUnreadMessagesInConversation(conversation, user);
-
-        int markedCount = 0;
-        for (Message message : unreadMessages) {
-            try {
-                // Check again inside transaction to prevent race condition
-                if (!messageStatusRepository.existsByMessageAndUserAndStatus(message, user, MessageStatusType.READ)) {
-                    MessageStatus readStatus = MessageStatus.createReadStatus(message, user);
-                    messageStatusRepository.save(readStatus);
-                    markedCount++;
-                }
-            } catch (org.springframework.dao.DataIntegrityViolationException e) {
-                // Ignore duplicate key errors - message already marked as read by another thread
-                log.debug("Message {} already marked as read for user {} (concurrent update)",
-                        message.getId(), maskEmail(user.getEmail()));
-            }
+        // One idempotent UPDATE moves the read watermark to the newest message and checks participation.
+        // Concurrent calls only contend on that conversation's row lock, so no JVM-wide lock is needed.
+        if (conversationRepository.markAllRead(conversationId, user.getId()) == 0) {
+            throw new RuntimeException("Conversation not found or user not authorized");
         }
-
-        log.info("Marked {} messages as read (out of {} unread)", markedCount, unreadMessages.size());
     }
 
     @Override
+    @CacheEvict(value = "unread-counts", key = "#user.id")
     public void markMessageAsRead(Long messageId, User user) {
         log.info("Marking message {} as read for user {}", messageId, maskEmail(user.getEmail()));
         
@@ -206,25 +235,33 @@ public class MessagingServiceImpl implements MessagingService {
             throw new RuntimeException("User not authorized to access this message");
         }
         
-        if (!messageStatusRepository.existsByMessageAndUserAndStatus(message, user, MessageStatusType.READ)) {
-            MessageStatus readStatus = MessageStatus.createReadStatus(message, user);
-            messageStatusRepository.save(readStatus);
-        }
+        // Reading a message implies everything before it was read; older ids leave the watermark as is
+        conversationRepository.markReadUpTo(message.getConversation().getId(), user.getId(), messageId);
     }
 
     @Override
     @Transactional(readOnly = true)
     public long getUnreadMessageCount(Long conversationId, User user) {
         Conversation conversation = getConversation(conversationId, user);
-        return messageRepository.countUnreadMessagesInConversation(conversation, user);
+        return conversation.getUnreadCountFor(user);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, Long> getUnreadMessageCounts(Collection<Long> conversationIds, User user) {
+        if (conversationIds.isEmpty()) {
+            return Map.of();
+        }
+        return conversationRepository.findUnreadCounts(user.getId(), conversationIds).stream()
+                .collect(Collectors.toMap(ConversationUnreadCount::conversationId,
+                        count -> count.unreadCount().longValue()));
     }
 
     @Override
     @Transactional(readOnly = true)
     @Cacheable(value = "unread-counts", key = "#user.id")
     public long getTotalUnreadMessageCount(User user) {
-        List<Message> unreadMessages = messageRepository.findAllUnreadMessagesForUser(user);
-        return unreadMessages.size();
+        return conversationRepository.sumUnreadCountsForUser(user.getId());
     }
 
     @Override
@@ -247,6 +284,13 @@ public class MessagingServiceImpl implements MessagingService {
         return conversation;
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    @Cacheable(value = "conversation-routes", key = "#conversationId", unless = "#result == null")
+    public ConversationRoute getConversationRoute(Long conversationId) {
+        return conversationRepository.findRoute(conversationId).orElse(null);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public boolean canUserAccessConversation(Long conversationId, User user) {
@@ -254,12 +298,16 @@ public class MessagingServiceImpl implements MessagingService {
     }
 
     @Override
+    @CacheEvict(value = "conversation-routes", key = "#conversationId")
     public void deactivateConversation(Long conversationId, User user) {
         log.info("Deactivating conversation {} for user {}", conversationId, maskEmail(user.getEmail()));
         
         Conversation conversation = getConversation(conversationId, user);
         conversation.setIsActive(false);
         conversationRepository.save(conversation);
+        Long participant1Id = conversation.getParticipant1().getId();
+        Long participant2Id = conversation.getParticipant2().getId();
+        runAfterCommit(() -> inboxCacheVersions.bump(participant1Id, participant2Id));
     }
 
     @Override
@@ -296,6 +344,26 @@ public class MessagingServiceImpl implements MessagingService {
         }
     }
 
+    // Invalidating before commit would let a concurrent read re-cache the old state
+    private void runAfterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private String truncateMessage(String message, int maxLength) {
+        if (message == null) return null;
+        if (message.length() <= maxLength) return message;
+        return message.substring(0, maxLength) + "...";
+    }
+
     private String maskEmail(String email) {
         if (email == null) return "null";
         int atIndex = email.indexOf("@");
@@ -0,0 +1,193 @@
+package com.campusnest.campusnest_platform.services;
+
+import com.campusnest.campusnest_platform.models.Conversation;
+import com.campusnest.campusnest_platform.models.Message;
+import com.campusnest.campusnest_platform.models.User;
+import com.campusnest.campusnest_platform.repository.message.ConversationRepository;
+import com.campusnest.campusnest_platform.repository.message.MessageRepository;
+import com.campusnest.campusnest_platform.response.ChatMessageResponse;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replays messages a user missed while disconnected.
+ * <p>
+ * Clients resume per conversation: the {@value #LAST_SEEN_HEADER} CONNECT header lists the newest seq
+ * they hold in each conversation ({@code conversationId:seq,...}), and they get only newer messages, one
+ * frame each on {@code /queue/messages}. A single id across conversations would not do: ids are taken at
+ * INSERT and committed later, so a lower id in one conversation can commit after a higher one in another
+ * was delivered. Conversations the client did not list, and clients without the header, get their unread
+ * messages; the latter on both legacy destinations, as before. Either way each message is also delivered
+ * on {@link UserMessageDelivery#EVENTS_DESTINATION}.
+ * <p>
+ * Each conversation is walked with a keyset seek in bounded batches, capped per connect, on a small
+ * dedicated pool. A reconnect storm queues up there instead of flooding the database and the outbound
+ * channel, and a replay stops between batches once its session disconnects.
+ */
+@Component
+@Slf4j
+public class MissedMessageReplayer {
+
+    public static final String LAST_SEEN_HEADER = "last-seen-seqs";
+
+    @Autowired
+    private ConversationRepository conversationRepository;
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @Autowired
+    private UserMessageDelivery userMessageDelivery;
+
+    @Value("${messaging.replay.batch-size:100}")
+    private int batchSize = 100;
+
+    // Anything beyond this is left for the client to page in over REST
+    @Value("${messaging.replay.max-messages:500}")
+    private int maxMessages = 500;
+
+    @Value("${messaging.replay.threads:2}")
+    private int threads = 2;
+
+    @Value("${messaging.replay.queue-capacity:1000}")
+    private int queueCapacity = 1000;
+
+    // Sessions whose replay is queued or running; removed on disconnect
+    private final Set<String> activeSessions = ConcurrentHashMap.newKeySet();
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    void initExecutor() {
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("message-replay-"));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Queues a replay for a newly connected session. lastSeenSeqs maps conversation id to the newest seq
+     * the client holds there; null means the client did not send any, so it gets its unread messages.
+     */
+    public void replay(String sessionId, User user, Map<Long, Long> lastSeenSeqs) {
+        activeSessions.add(sessionId);
+        try {
+            executor.execute(() -> {
+                try {
+                    replayNow(sessionId, user, lastSeenSeqs);
+                } catch (Exception e) {
+                    log.error("Error replaying missed messages to user {}: {}",
+                            maskEmail(user.getEmail()), e.getMessage(), e);
+                } finally {
+                    activeSessions.remove(sessionId);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            activeSessions.remove(sessionId);
+            log.warn("Replay queue full, skipping missed-message replay for user {}", maskEmail(user.getEmail()));
+        }
+    }
+
+    /**
+     * Stops a queued or running replay at the next batch boundary.
+     */
+    public void cancel(String sessionId) {
+        activeSessions.remove(sessionId);
+    }
+
+    int replayNow(String sessionId, User user, Map<Long, Long> lastSeenSeqs) {
+        boolean incremental = lastSeenSeqs != null;
+        int sent = 0;
+        for (Conversation conversation : conversationsToReplay(user, lastSeenSeqs)) {
+            Long seenSeq = incremental ? lastSeenSeqs.get(conversation.getId()) : null;
+            // Seqs are assigned under the conversation row lock, so they follow commit order
+            long after = seenSeq != null ? seenSeq : readWatermark(conversation, user);
+            while (sent < maxMessages) {
+                if (!activeSessions.contains(sessionId)) {
+                    log.debug("Session {} disconnected, stopping replay after {} messages", sessionId, sent);
+                    return sent;
+                }
+                int limit = Math.min(batchSize, maxMessages - sent);
+                PageRequest page = PageRequest.of(0, limit);
+                List<Message> batch = seenSeq != null
+                        ? messageRepository.findIncomingAfterSeq(conversation.getId(), user.getId(), after, page)
+                        : messageRepository.findIncomingAfter(conversation.getId(), user.getId(), after, page);
+                batch.forEach(message -> send(user, message, incremental));
+                sent += batch.size();
+                if (batch.size() < limit) {
+                    break;
+                }
+                Message last = batch.get(batch.size() - 1);
+                after = seenSeq != null ? last.getSeq() : last.getId();
+            }
+        }
+
+        if (sent >= maxMessages) {
+            log.info("Replay to user {} stopped at the {} message cap", maskEmail(user.getEmail()), maxMessages);
+        } else if (sent > 0) {
+            log.info("Replayed {} missed messages to user {}", sent, maskEmail(user.getEmail()));
+        }
+        return sent;
+    }
+
+    private void send(User user, Message message, boolean incremental) {
+        ChatMessageResponse response = ChatMessageResponse.fromMessage(message);
+        org.springframework.messaging.Message<?> serialized = userMessageDelivery.serialize(response);
+        if (incremental) {
+            userMessageDelivery.sendToUser(user.getEmail(), serialized, "message", "/queue/messages");
+        } else {
+            userMessageDelivery.sendToUser(user.getEmail(), serialized, "message",
+                    "/queue/messages/" + response.getConversationId(), "/queue/messages");
+        }
+    }
+
+    // Listed conversations with anything past the client's seq, then those with unread messages
+    private Collection<Conversation> conversationsToReplay(User user, Map<Long, Long> lastSeenSeqs) {
+        Map<Long, Conversation> conversations = new LinkedHashMap<>();
+        if (lastSeenSeqs != null && !lastSeenSeqs.isEmpty()) {
+            for (Conversation conversation : conversationRepository.findActiveByIdsForParticipant(
+                    lastSeenSeqs.keySet(), user.getId())) {
+                if (conversation.getLastMessageSeq() > lastSeenSeqs.get(conversation.getId())) {
+                    conversations.put(conversation.getId(), conversation);
+                }
+            }
+        }
+        for (Conversation conversation : conversationRepository.findWithUnreadMessages(user.getId())) {
+            if (lastSeenSeqs == null || !lastSeenSeqs.containsKey(conversation.getId())) {
+                conversations.putIfAbsent(conversation.getId(), conversation);
+            }
+        }
+        return conversations.values();
+    }
+
+    private long readWatermark(Conversation conversation, User user) {
+        Long lastRead = conversation.getLastReadMessageIdFor(user);
+        return lastRead != null ? lastRead : 0L;
+    }
+
+    private String maskEmail(String email) {
+        if (email == null) return "null";
+        int atIndex = email.indexOf("@");
+        return atIndex > 0 ? email.substring(0, 1) + "***" + email.substring(atIndex) : email;
+    }
+}
@@ -1,11 +1,15 @@
 package com.campusnest.campusnest_platform.services;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
-import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
-import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.*;
 import software.amazon.awssdk.services.s3.presigner.S3Presigner;
@@ -15,51 +19,73 @@ import software.amazon.awssdk.services.s3.presigner.model.PresignedGetObjectRequ
 import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
 
 import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.UUID;
 
 @Service
+@Slf4j
 public class S3Service {
     
     @Autowired
     private S3Client s3Client;
     
+    // Shared presigner - building one per URL costs far more than the signing itself
+    @Autowired
+    private S3Presigner s3Presigner;
+    
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+    
     @Value("${aws.s3.bucket-name}")
     private String bucketName;
     
-    @Value("${aws.s3.region}")
-    private String region;
+    // How long a signed GET URL stays valid
+    @Value("${aws.s3.signed-url.ttl-minutes:1440}")
+    private long signedUrlTtlMinutes;
     
-    @Value("${aws.access-key-id}")
-    private String accessKeyId;
+    // Cached URLs are dropped this long before they expire, so clients never receive a nearly-dead URL
+    @Value("${aws.s3.signed-url.safety-margin-minutes:60}")
+    private long signedUrlSafetyMarginMinutes;
     
-    @Value("${aws.secret-access-key}")
-    private String secretAccessKey;
+    @Value("${aws.s3.signed-url.cache-max-size:10000}")
+    private long signedUrlCacheMaxSize;
+    
+    private Cache<String, String> signedUrlCache;
+    
+    @PostConstruct
+    void initSignedUrlCache() {
+        if (signedUrlSafetyMarginMinutes >= signedUrlTtlMinutes) {
+            throw new IllegalArgumentException("aws.s3.signed-url.safety-margin-minutes must be less than ttl-minutes");
+        }
+        signedUrlCache = Caffeine.newBuilder()
+                .maximumSize(signedUrlCacheMaxSize)
+                .expireAfterWrite(Duration.ofMinutes(signedUrlTtlMinutes - signedUrlSafetyMarginMinutes))
+                .recordStats()
+                .build();
+        if (meterRegistry != null) {
+            CaffeineCacheMetrics.monitor(meterRegistry, signedUrlCache, "s3-presigned-urls");
+        }
+    }
     
     public String generatePresignedUploadUrl(String fileName, String contentType) {
         String key = "listing-images/" + UUID.randomUUID() + "_" + fileName;
         System.out.println("Generating presigned URL with contentType: " + contentType);
         
-        AwsBasicCredentials awsCredentials = AwsBasicCredentials.create(accessKeyId, secretAccessKey);
+        PutObjectRequest putObjectRequest = PutObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .contentType(contentType)
+                .build();
         
-        try (S3Presigner presigner = S3Presigner.builder()
-                .region(Region.of(region))
-                .credentialsProvider(StaticCredentialsProvider.create(awsCredentials))
-                .build()) {
-            
-            PutObjectRequest putObjectRequest = PutObjectRequest.builder()
-                    .bucket(bucketName)
-                    .key(key)
-                    .contentType(contentType)
-                    .build();
-            
-            PutObjectPresignRequest presignRequest = PutObjectPresignRequest.builder()
-                    .signatureDuration(Duration.ofMinutes(10))
-                    .putObjectRequest(putObjectRequest)
-                    .build();
-            
-            PresignedPutObjectRequest presignedRequest = presigner.presignPutObject(presignRequest);
-            return presignedRequest.url().toString();
-        }
+        PutObjectPresignRequest presignRequest = PutObjectPresignRequest.builder()
+                .signatureDuration(Duration.ofMinutes(10))
+                .putObjectRequest(putObjectRequest)
+                .build();
+        
+        PresignedPutObjectRequest presignedRequest = s3Presigner.presignPutObject(presignRequest);
+        return presignedRequest.url().toString();
     }
     
     public String getImageUrl(String s3Key) {
@@ -68,30 +94,48 @@ public class S3Service {
     }
     
     public String getSignedImageUrl(String s3Key) {
-        AwsBasicCredentials awsCredentials = AwsBasicCredentials.create(accessKeyId, secretAccessKey);
-        
-        try (S3Presigner presigner = S3Presigner.builder()
-                .region(Region.of(region))
-                .credentialsProvider(StaticCredentialsProvider.create(awsCredentials))
-                .build()) {
-            
-            GetObjectRequest getObjectRequest = GetObjectRequest.builder()
-                    .bucket(bucketName)
-                    .key(s3Key)
-                    .build();
-            
-            GetObjectPresignRequest presignRequest = GetObjectPresignRequest.builder()
-                    .signatureDuration(Duration.ofHours(24)) // 24 hour access - industry standard
-                    .getObjectRequest(getObjectRequest)
-                    .build();
-            
-            PresignedGetObjectRequest presignedRequest = presigner.presignGetObject(presignRequest);
-            return presignedRequest.url().toString();
+        try {
+            return signedUrlCache.get(s3Key, this::presignGetUrl);
         } catch (Exception e) {
             throw new RuntimeException("Failed to generate signed URL: " + e.getMessage());
         }
     }
     
+    // Signs a whole page of keys in one pass; keys that fail to sign are left out of the map
+    public Map<String, String> getSignedImageUrls(Collection<String> s3Keys) {
+        Map<String, String> signedUrls = new LinkedHashMap<>();
+        for (String s3Key : s3Keys) {
+            if (s3Key == null || signedUrls.containsKey(s3Key)) {
+                continue;
+            }
+            try {
+                signedUrls.put(s3Key, signedUrlCache.get(s3Key, this::presignGetUrl));
+            } catch (Exception e) {
+                log.warn("Failed to generate signed URL for {}", s3Key, e);
+            }
+        }
+        return signedUrls;
+    }
+    
+    private String presignGetUrl(String s3Key) {
+        GetObjectRequest getObjectRequest = GetObjectRequest.builder()
+                .bucket(bucketName)
+                .key(s3Key)
+                .build();
+        
+        GetObjectPresignRequest presignRequest = GetObjectPresignRequest.builder()
+                .signatureDuration(Duration.ofMinutes(signedUrlTtlMinutes)) // 24 hour access by default
+                .getObjectRequest(getObjectRequest)
+                .build();
+        
+        PresignedGetObjectRequest presignedRequest = s3Presigner.presignGetObject(presignRequest);
+        return presignedRequest.url().toString();
+    }
+    
+    CacheStats signedUrlCacheStats() {
+        return signedUrlCache.stats();
+    }
+    
     public String extractS3KeyFromUrl(String presignedUrl) {
         return presignedUrl.split("\\?")[0].substring(presignedUrl.indexOf("listing-images/"));
     }
@@ -104,6 +148,7 @@ public class S3Service {
                     .build();
             
             s3Client.deleteObject(deleteObjectRequest);
+            signedUrlCache.invalidate(s3Key);
         } catch (Exception e) {
             throw new RuntimeException("Failed to delete image from S3: " + e.getMessage());
         }
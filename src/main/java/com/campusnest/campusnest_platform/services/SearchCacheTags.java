@@ -0,0 +1,167 @@
+package com.campusnest.campusnest_platform.services;
+
+import com.campusnest.campusnest_platform.config.caching.RedisConfig;
+import com.campusnest.campusnest_platform.models.HousingListing;
+import com.campusnest.campusnest_platform.requests.SearchHousingListingRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Tags housing-search cache entries with the city filter and price buckets they cover, so a
+ * listing change evicts only the searches it could appear in instead of the whole cache.
+ * <p>
+ * Each tag is a Redis sorted set of cache keys: {@code housing-search:tagged:<city filter>:<bucket>},
+ * where a search without a city filter uses {@code *}. City filters are substring matches, so the set
+ * of filters in use is kept in {@code housing-search:tags:cities} and tested against the listing's city.
+ * Tags only cover city and price; other filters make the eviction a safe superset.
+ * <p>
+ * Members are scored with the time their cache entry expires at the latest and are never removed on
+ * eviction: a search that read old rows while a listing changed may store its page after that change
+ * evicted the key, and must stay tagged so the next change still finds it. Expired members are trimmed
+ * when the tag is next written.
+ */
+@Component
+@Slf4j
+public class SearchCacheTags {
+
+    static final String CACHE_NAME = "housing-search";
+    static final String TAG_PREFIX = CACHE_NAME + ":tags:";
+    static final String CITY_TAGS_KEY = TAG_PREFIX + "cities";
+    // Sorted sets; a prefix of their own so they never collide with plain sets written by older nodes
+    static final String TAGGED_KEYS_PREFIX = CACHE_NAME + ":tagged:";
+    static final String ANY_CITY = "*";
+
+    // Prices at or above MAX_BUCKET * width share the last bucket
+    static final int MAX_BUCKET = 40;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Value("${housing.search.cache.price-bucket-width:250}")
+    private int priceBucketWidth = 250;
+
+    /**
+     * Records which tags a search cache entry depends on. Call before the entry is stored.
+     */
+    public void register(String cacheKey, SearchHousingListingRequest request) {
+        int low = bucket(request.getMinPrice() != null ? request.getMinPrice() : BigDecimal.ZERO);
+        int high = request.getMaxPrice() != null ? bucket(request.getMaxPrice()) : MAX_BUCKET;
+        if (low > high) {
+            // min > max matches nothing, so no listing change can affect it
+            return;
+        }
+        String cityTag = cityTag(request.getCity());
+        long ttlSeconds = RedisConfig.SEARCH_CACHE_TTL.toSeconds();
+        long now = System.currentTimeMillis();
+        long expiresAt = now + RedisConfig.SEARCH_CACHE_TTL.toMillis();
+
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection redis = (StringRedisConnection) connection;
+            redis.sAdd(CITY_TAGS_KEY, cityTag);
+            redis.expire(CITY_TAGS_KEY, ttlSeconds);
+            for (int b = low; b <= high; b++) {
+                String tagKey = tagKey(cityTag, b);
+                redis.zAdd(tagKey, expiresAt, cacheKey);
+                redis.zRemRangeByScore(tagKey, Double.NEGATIVE_INFINITY, now);
+                redis.expire(tagKey, ttlSeconds);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Evicts every cached search that the given listing states could appear in. Pass both the old
+     * and the new state when a listing moves between cities or price buckets.
+     */
+    public void evictFor(Collection<HousingListing> states) {
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        if (cache == null) {
+            return;
+        }
+        try {
+            Set<String> cityTags = redisTemplate.opsForSet().members(CITY_TAGS_KEY);
+            if (cityTags == null || cityTags.isEmpty()) {
+                return;
+            }
+            List<String> tagKeys = new ArrayList<>();
+            for (HousingListing state : states) {
+                tagKeys.addAll(tagKeysFor(state, cityTags));
+            }
+            if (tagKeys.isEmpty()) {
+                return;
+            }
+            long now = System.currentTimeMillis();
+            List<Object> tagged = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection redis = (StringRedisConnection) connection;
+                tagKeys.forEach(tagKey -> redis.zRangeByScore(tagKey, now, Double.POSITIVE_INFINITY));
+                return null;
+            });
+            Set<String> cacheKeys = new LinkedHashSet<>();
+            for (Object members : tagged) {
+                if (members instanceof Collection<?> keys) {
+                    keys.forEach(key -> cacheKeys.add(String.valueOf(key)));
+                }
+            }
+            if (cacheKeys.isEmpty()) {
+                return;
+            }
+            // Evict through the cache so near caches on other nodes are invalidated too
+            cacheKeys.forEach(cache::evict);
+            log.debug("Evicted {} search cache entries for {} tags", cacheKeys.size(), tagKeys.size());
+        } catch (Exception e) {
+            // Without the tags we cannot tell what is stale, so fall back to dropping everything
+            log.warn("Targeted search cache eviction failed, clearing {}: {}", CACHE_NAME, e.getMessage());
+            cache.clear();
+        }
+    }
+
+    List<String> tagKeysFor(HousingListing state, Collection<String> cityTags) {
+        if (state == null || state.getCity() == null || state.getPrice() == null) {
+            return List.of();
+        }
+        String city = state.getCity().toLowerCase();
+        int bucket = bucket(state.getPrice());
+        Set<String> keys = new LinkedHashSet<>();
+        for (String cityTag : cityTags) {
+            if (ANY_CITY.equals(cityTag) || city.contains(cityTag)) {
+                keys.add(tagKey(cityTag, bucket));
+            }
+        }
+        return new ArrayList<>(keys);
+    }
+
+    int bucket(BigDecimal price) {
+        if (price.signum() <= 0) {
+            return 0;
+        }
+        BigDecimal index = price.divide(BigDecimal.valueOf(priceBucketWidth), 0, RoundingMode.FLOOR);
+        return index.compareTo(BigDecimal.valueOf(MAX_BUCKET)) >= 0 ? MAX_BUCKET : index.intValue();
+    }
+
+    // Same normalization as the city predicate in HousingListingSpecifications
+    static String cityTag(String city) {
+        return city == null || city.isBlank() ? ANY_CITY : city.trim().toLowerCase();
+    }
+
+    static String tagKey(String cityTag, int bucket) {
+        return TAGGED_KEYS_PREFIX + cityTag + ":" + bucket;
+    }
+}
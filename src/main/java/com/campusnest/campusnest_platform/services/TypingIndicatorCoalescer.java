@@ -0,0 +1,124 @@
+package com.campusnest.campusnest_platform.services;
+
+import com.campusnest.campusnest_platform.models.User;
+import com.campusnest.campusnest_platform.response.TypingIndicatorResponse;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Turns a client's stream of typing events into at most one frame per coalesce window.
+ * <p>
+ * The first "typing" for a (conversation, user) pair is forwarded at once; repeats within
+ * {@code coalesce-window-millis} are absorbed, later ones are forwarded as a keep-alive. "Stopped" is
+ * forwarded only if "typing" was, and is sent automatically once no typing event has arrived for
+ * {@code stop-timeout-millis}. Sending a message ends the typing state without a frame, since the
+ * message itself tells the recipient the sender stopped.
+ */
+@Component
+@Slf4j
+public class TypingIndicatorCoalescer {
+
+    static final String EVENT_TYPE = "typing";
+
+    @Autowired
+    private UserMessageDelivery userMessageDelivery;
+
+    @Value("${messaging.typing.coalesce-window-millis:3000}")
+    private long coalesceWindowMillis = 3000;
+
+    @Value("${messaging.typing.stop-timeout-millis:5000}")
+    private long stopTimeoutMillis = 5000;
+
+    @Value("${messaging.typing.sweep-interval-millis:1000}")
+    private long sweepIntervalMillis = 1000;
+
+    private final Map<Key, TypingState> typing = new ConcurrentHashMap<>();
+
+    LongSupplier clock = System::currentTimeMillis;
+
+    private ScheduledExecutorService sweeper;
+
+    record Key(Long conversationId, Long userId) {
+    }
+
+    private record TypingState(User user, String recipientEmail, long lastForwardedAt, long lastEventAt) {
+    }
+
+    @PostConstruct
+    void start() {
+        sweeper = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("typing-sweeper-"));
+        sweeper.scheduleAtFixedRate(this::stopIdle, sweepIntervalMillis, sweepIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        sweeper.shutdownNow();
+    }
+
+    /**
+     * Records a typing event from an already authorized participant and forwards it if needed.
+     */
+    public void update(Long conversationId, User user, String recipientEmail, boolean isTyping) {
+        Key key = new Key(conversationId, user.getId());
+        long now = clock.getAsLong();
+        if (!isTyping) {
+            if (typing.remove(key) != null) {
+                send(conversationId, user, recipientEmail, false);
+            }
+            return;
+        }
+        boolean[] forward = new boolean[1];
+        typing.compute(key, (k, state) -> {
+            if (state == null || now - state.lastForwardedAt() >= coalesceWindowMillis) {
+                forward[0] = true;
+                return new TypingState(user, recipientEmail, now, now);
+            }
+            return new TypingState(user, recipientEmail, state.lastForwardedAt(), now);
+        });
+        if (forward[0]) {
+            send(conversationId, user, recipientEmail, true);
+        }
+    }
+
+    /**
+     * Ends the typing state without a frame, e.g. when the user sends a message.
+     */
+    public void clear(Long conversationId, Long userId) {
+        typing.remove(new Key(conversationId, userId));
+    }
+
+    void stopIdle() {
+        long now = clock.getAsLong();
+        typing.forEach((key, state) -> {
+            if (now - state.lastEventAt() >= stopTimeoutMillis && typing.remove(key, state)) {
+                send(key.conversationId(), state.user(), state.recipientEmail(), false);
+            }
+        });
+    }
+
+    int trackedCount() {
+        return typing.size();
+    }
+
+    private void send(Long conversationId, User user, String recipientEmail, boolean isTyping) {
+        try {
+            TypingIndicatorResponse response = TypingIndicatorResponse.create(conversationId, user, isTyping);
+            userMessageDelivery.sendToUser(recipientEmail, userMessageDelivery.serialize(response), EVENT_TYPE,
+                    "/queue/typing/" + conversationId);
+        } catch (Exception e) {
+            log.warn("Failed to send typing indicator for conversation {}: {}", conversationId, e.getMessage());
+        }
+    }
+}
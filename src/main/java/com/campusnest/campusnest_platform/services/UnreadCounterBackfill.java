@@ -0,0 +1,36 @@
+package com.campusnest.campusnest_platform.services;
+
+import com.campusnest.campusnest_platform.repository.message.ConversationRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Rebuilds read watermarks and unread counters on startup, seeding watermarks from legacy
+ * message_status READ rows, and fills missing inbox previews. Run once
+ * (messaging.unread-counters.backfill=true) when the columns are first added; afterwards sendMessage
+ * and the read paths keep them current. Message sequence numbers are handled by MessageSeqMigration.
+ */
+@Component
+@ConditionalOnProperty(name = "messaging.unread-counters.backfill", havingValue = "true")
+@Slf4j
+public class UnreadCounterBackfill {
+
+    @Autowired
+    private ConversationRepository conversationRepository;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfill() {
+        long start = System.currentTimeMillis();
+        conversationRepository.initializeReadWatermarks();
+        int updated = conversationRepository.recalculateUnreadCounts();
+        conversationRepository.initializeLastMessagePreviews();
+        log.info("Recalculated unread counters for {} conversations in {}ms",
+                updated, System.currentTimeMillis() - start);
+    }
+}
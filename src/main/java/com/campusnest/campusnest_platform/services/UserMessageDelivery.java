@@ -0,0 +1,93 @@
+package com.campusnest.campusnest_platform.services;
+
+import com.campusnest.campusnest_platform.config.websocket.RedisUserDestinationRelay;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.converter.MessageConversionException;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeType;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sends one payload to several user destinations while serializing it only once.
+ * <p>
+ * Every delivery also goes to {@value #EVENTS_DESTINATION}, tagged with an {@value #EVENT_TYPE_HEADER}
+ * header. Clients that subscribe to {@code /user/queue/events} alone receive one frame per event
+ * instead of one per legacy destination. The broker only writes frames for destinations a session
+ * has subscribed to, so legacy clients see no change.
+ * <p>
+ * With the Redis relay, all frames of one call reach the user's other nodes in a single publish per
+ * node, and the receiving node fans them out to its own sessions.
+ */
+@Component
+public class UserMessageDelivery {
+
+    public static final String EVENTS_DESTINATION = "/queue/events";
+    public static final String EVENT_TYPE_HEADER = "event-type";
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    // Present only with websocket.broker.mode=redis
+    @Autowired(required = false)
+    private RedisUserDestinationRelay redisUserDestinationRelay;
+
+    /**
+     * Serializes a payload with the broker's converter, for use with {@link #sendToUser}.
+     */
+    public Message<?> serialize(Object payload) {
+        Message<?> message = messagingTemplate.getMessageConverter().toMessage(payload, null);
+        if (message == null) {
+            throw new MessageConversionException("Unable to serialize " + payload.getClass().getName());
+        }
+        return message;
+    }
+
+    /**
+     * Sends an already serialized payload to the given destinations of one user and to their events
+     * destination. The payload bytes are shared by all frames.
+     */
+    public void sendToUser(String user, Message<?> serialized, String eventType, String... destinations) {
+        List<Message<?>> frames = new ArrayList<>(destinations.length + 1);
+        for (String destination : destinations) {
+            frames.add(frame(user, serialized, destination, null));
+        }
+        frames.add(frame(user, serialized, EVENTS_DESTINATION, eventType));
+        if (redisUserDestinationRelay != null) {
+            redisUserDestinationRelay.forwardAll(frames);
+        }
+        frames.forEach(messagingTemplate::send);
+    }
+
+    private Message<?> frame(String user, Message<?> serialized, String destination, String eventType) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        String userDestination = userDestination(user, destination);
+        accessor.setDestination(userDestination);
+        Object contentType = serialized.getHeaders().get(MessageHeaders.CONTENT_TYPE);
+        if (contentType instanceof MimeType mimeType) {
+            accessor.setContentType(mimeType);
+        }
+        if (eventType != null) {
+            accessor.setNativeHeader(EVENT_TYPE_HEADER, eventType);
+        }
+        if (redisUserDestinationRelay != null) {
+            // Forwarded above as one batch; the marker keeps the broker channel from forwarding each frame
+            accessor.setNativeHeader(SimpMessageHeaderAccessor.ORIGINAL_DESTINATION, userDestination);
+        }
+        return MessageBuilder.createMessage(serialized.getPayload(), accessor.getMessageHeaders());
+    }
+
+    // Same encoding as SimpMessagingTemplate.convertAndSendToUser
+    private String userDestination(String user, String destination) {
+        return messagingTemplate.getUserDestinationPrefix() + StringUtils.replace(user, "/", "%2F")
+                + (destination.startsWith("/") ? destination : "/" + destination);
+    }
+}
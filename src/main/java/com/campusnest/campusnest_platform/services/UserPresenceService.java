@@ -1,29 +1,201 @@
 package com.campusnest.campusnest_platform.services;
 
+import com.campusnest.campusnest_platform.events.UserPresenceEvent;
+import com.campusnest.campusnest_platform.models.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Cluster-wide user presence, kept in Redis.
+ * <p>
+ * Each user has a sorted set {@code presence:user:<id>} of session id to expiry time. A user is online
+ * while any session in it has not expired, so closing one tab leaves the others counted. Every node
+ * renews the sessions it holds on a heartbeat; the sessions of a node that dies expire after the TTL.
+ * Online/offline transitions are published as presence events. Reads go through a short-lived local
+ * cache, and sessions held by this node answer without Redis at all.
+ */
 @Service
+@Slf4j
 public class UserPresenceService {
 
-    // In-memory storage for user presence (in production, use Redis)
-    private final Map<Long, Boolean> onlineUsers = new ConcurrentHashMap<>();
+    public static final String ONLINE = "ONLINE";
+    public static final String OFFLINE = "OFFLINE";
 
-    public void setUserOnline(Long userId) {
-        onlineUsers.put(userId, true);
+    static final String USER_KEY_PREFIX = "presence:user:";
+    static final String ONLINE_USERS_KEY = "presence:online";
+
+    // Prunes expired sessions, adds/renews one and returns how many live sessions there were before
+    private static final RedisScript<Long> TOUCH_SESSION = new DefaultRedisScript<>(
+            "redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', ARGV[2]) " +
+            "local before = redis.call('ZCARD', KEYS[1]) " +
+            "redis.call('ZADD', KEYS[1], ARGV[3], ARGV[1]) " +
+            "redis.call('PEXPIREAT', KEYS[1], ARGV[3]) " +
+            "redis.call('ZADD', KEYS[2], 'GT', ARGV[3], ARGV[4]) " +
+            "return before", Long.class);
+
+    // Removes one session and returns how many live sessions are left
+    private static final RedisScript<Long> RELEASE_SESSION = new DefaultRedisScript<>(
+            "redis.call('ZREM', KEYS[1], ARGV[1]) " +
+            "redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', ARGV[2]) " +
+            "local left = redis.call('ZCARD', KEYS[1]) " +
+            "if left == 0 then redis.call('DEL', KEYS[1]) redis.call('ZREM', KEYS[2], ARGV[3]) end " +
+            "return left", Long.class);
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private MessageEventProducer messageEventProducer;
+
+    @Value("${presence.session-ttl-seconds:90}")
+    private long sessionTtlSeconds = 90;
+
+    // Bounds how stale another node's view of a user can be
+    @Value("${presence.cache-ttl-millis:2000}")
+    private long cacheTtlMillis = 2000;
+
+    // Sessions connected to this node: session id -> user id
+    private final Map<String, Long> localSessions = new ConcurrentHashMap<>();
+
+    // User id -> number of its sessions in localSessions; a user has an entry only while it has one
+    private final Map<Long, Integer> localSessionCounts = new ConcurrentHashMap<>();
+
+    private Cache<Long, Boolean> onlineCache;
+
+    private ScheduledExecutorService heartbeat;
+
+    @PostConstruct
+    void init() {
+        onlineCache = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(Duration.ofMillis(cacheTtlMillis))
+                .build();
+        // Renew well inside the TTL so one missed beat does not drop anyone
+        long period = Math.max(1, sessionTtlSeconds / 3);
+        heartbeat = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("presence-heartbeat-"));
+        heartbeat.scheduleAtFixedRate(this::renewLocalSessions, period, period, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        heartbeat.shutdownNow();
     }
 
-    public void setUserOffline(Long userId) {
-        onlineUsers.remove(userId);
+    public void sessionConnected(User user, String sessionId) {
+        if (localSessions.put(sessionId, user.getId()) == null) {
+            localSessionCounts.merge(user.getId(), 1, Integer::sum);
+        }
+        onlineCache.put(user.getId(), true);
+        try {
+            Long before = touch(user.getId(), sessionId);
+            if (before != null && before == 0) {
+                publish(user, ONLINE, sessionId);
+            }
+        } catch (Exception e) {
+            log.warn("Failed to record presence for user {}: {}", user.getId(), e.getMessage());
+        }
+    }
+
+    public void sessionDisconnected(User user, String sessionId) {
+        if (localSessions.remove(sessionId) == null) {
+            // Already released, e.g. an explicit /chat/disconnect followed by the socket closing
+            return;
+        }
+        localSessionCounts.computeIfPresent(user.getId(), (userId, count) -> count > 1 ? count - 1 : null);
+        onlineCache.invalidate(user.getId());
+        try {
+            Long left = release(user.getId(), sessionId);
+            if (left != null && left == 0) {
+                publish(user, OFFLINE, sessionId);
+            }
+        } catch (Exception e) {
+            log.warn("Failed to release presence for user {}: {}", user.getId(), e.getMessage());
+        }
     }
 
     public boolean isUserOnline(Long userId) {
-        return onlineUsers.getOrDefault(userId, false);
+        if (localSessionCounts.containsKey(userId)) {
+            return true;
+        }
+        return onlineCache.get(userId, this::isOnlineInRedis);
     }
 
     public int getOnlineUserCount() {
-        return onlineUsers.size();
+        try {
+            Long count = redisTemplate.opsForZSet().count(ONLINE_USERS_KEY, System.currentTimeMillis(), Double.POSITIVE_INFINITY);
+            return count != null ? count.intValue() : 0;
+        } catch (Exception e) {
+            log.warn("Failed to count online users: {}", e.getMessage());
+            return localSessionCounts.size();
+        }
+    }
+
+    void renewLocalSessions() {
+        localSessions.forEach((sessionId, userId) -> {
+            try {
+                touch(userId, sessionId);
+                // A disconnect that released the session just before the touch would leave it online
+                if (!localSessions.containsKey(sessionId)) {
+                    release(userId, sessionId);
+                }
+            } catch (Exception e) {
+                log.warn("Failed to renew presence for user {}: {}", userId, e.getMessage());
+            }
+        });
+    }
+
+    private Long touch(Long userId, String sessionId) {
+        long now = System.currentTimeMillis();
+        long expiresAt = now + TimeUnit.SECONDS.toMillis(sessionTtlSeconds);
+        return redisTemplate.execute(TOUCH_SESSION,
+                List.of(USER_KEY_PREFIX + userId, ONLINE_USERS_KEY),
+                sessionId, String.valueOf(now), String.valueOf(expiresAt), userId.toString());
+    }
+
+    private Long release(Long userId, String sessionId) {
+        return redisTemplate.execute(RELEASE_SESSION,
+                List.of(USER_KEY_PREFIX + userId, ONLINE_USERS_KEY),
+                sessionId, String.valueOf(System.currentTimeMillis()), userId.toString());
+    }
+
+    private boolean isOnlineInRedis(Long userId) {
+        try {
+            Long live = redisTemplate.opsForZSet()
+                    .count(USER_KEY_PREFIX + userId, System.currentTimeMillis(), Double.POSITIVE_INFINITY);
+            return live != null && live > 0;
+        } catch (Exception e) {
+            // Treated as offline: a push notification too many beats a missed one
+            log.warn("Failed to read presence for user {}: {}", userId, e.getMessage());
+            return false;
+        }
+    }
+
+    private void publish(User user, String status, String sessionId) {
+        messageEventProducer.publishPresenceEvent(UserPresenceEvent.builder()
+                .userId(user.getId())
+                .email(user.getEmail())
+                .status(status)
+                .timestamp(LocalDateTime.now())
+                .sessionId(sessionId)
+                .build());
     }
 }
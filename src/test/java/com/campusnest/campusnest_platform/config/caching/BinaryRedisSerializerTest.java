@@ -0,0 +1,100 @@
+package com.campusnest.campusnest_platform.config.caching;
+
+import com.campusnest.campusnest_platform.projection.ListingPageSnapshot;
+import com.campusnest.campusnest_platform.projection.ListingSnapshot;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BinaryRedisSerializerTest {
+
+    static ListingSnapshot listing(long id) {
+        return new ListingSnapshot(id, "Sunny room near campus #" + id,
+                "Furnished room in a shared house, five minutes from the main library. Utilities included.",
+                new BigDecimal("1250.00"), id + " University Ave", "Palo Alto", 2, 1,
+                LocalDate.of(2025, 6, 1), LocalDate.of(2025, 9, 1), true,
+                LocalDateTime.of(2025, 1, 1, 12, 0), LocalDateTime.of(2025, 1, 2, 8, 30),
+                new ListingSnapshot.Owner(7L, "Ada", "Lovelace", "ada@stanford.edu", "stanford.edu"),
+                List.of(new ListingSnapshot.Image(id * 10, "listings/" + id + "/front.jpg", true, 0),
+                        new ListingSnapshot.Image(id * 10 + 1, "listings/" + id + "/kitchen.jpg", false, 1)),
+                List.of("bob@stanford.edu", "eve@stanford.edu"));
+    }
+
+    static ListingPageSnapshot page(int size) {
+        return new ListingPageSnapshot(IntStream.rangeClosed(1, size)
+                .mapToObj(BinaryRedisSerializerTest::listing)
+                .toList(), 0, size, true);
+    }
+
+    @Test
+    void smallValue_isStoredRawAndRoundTrips() {
+        BinaryRedisSerializer<ListingSnapshot> serializer = new BinaryRedisSerializer<>(ListingSnapshot.class, 4096);
+        ListingSnapshot value = listing(1L);
+
+        byte[] bytes = serializer.serialize(value);
+
+        assertThat(bytes[0]).isEqualTo(BinaryRedisSerializer.RAW);
+        assertThat(serializer.deserialize(bytes)).isEqualTo(value);
+    }
+
+    @Test
+    void largeValue_isCompressedAndRoundTrips() {
+        BinaryRedisSerializer<ListingPageSnapshot> serializer = new BinaryRedisSerializer<>(ListingPageSnapshot.class, 512);
+        ListingPageSnapshot value = page(20);
+
+        byte[] bytes = serializer.serialize(value);
+
+        assertThat(bytes[0]).isEqualTo(BinaryRedisSerializer.LZ4);
+        assertThat(bytes.length).isLessThan(new BinaryRedisSerializer<>(ListingPageSnapshot.class, Integer.MAX_VALUE)
+                .serialize(value).length);
+        assertThat(serializer.deserialize(bytes)).isEqualTo(value);
+    }
+
+    @Test
+    void unreadCount_roundTrips() {
+        BinaryRedisSerializer<Long> serializer = new BinaryRedisSerializer<>(Long.class, 512);
+
+        assertThat(serializer.deserialize(serializer.serialize(42L))).isEqualTo(42L);
+    }
+
+    @Test
+    void nullAndEmpty_mapToEachOther() {
+        BinaryRedisSerializer<Long> serializer = new BinaryRedisSerializer<>(Long.class, 512);
+
+        assertThat(serializer.serialize(null)).isEmpty();
+        assertThat(serializer.deserialize(new byte[0])).isNull();
+    }
+
+    @Test
+    void deserialize_rejectsValuesWrittenByAnotherSerializer() {
+        BinaryRedisSerializer<Long> serializer = new BinaryRedisSerializer<>(Long.class, 512);
+
+        assertThatThrownBy(() -> serializer.deserialize("42".getBytes()))
+                .isInstanceOf(SerializationException.class);
+    }
+
+    @Test
+    void deserialize_rejectsCorruptCompressedLengths() {
+        BinaryRedisSerializer<ListingPageSnapshot> serializer = new BinaryRedisSerializer<>(ListingPageSnapshot.class, 512);
+        byte[] bytes = serializer.serialize(page(20));
+        int originalLength = ByteBuffer.wrap(bytes, 1, 4).getInt();
+
+        for (int length : new int[]{-1, Integer.MAX_VALUE, originalLength + 1, originalLength - 1}) {
+            byte[] corrupt = bytes.clone();
+            ByteBuffer.wrap(corrupt, 1, 4).putInt(length);
+            assertThatThrownBy(() -> serializer.deserialize(corrupt))
+                    .isInstanceOf(SerializationException.class);
+        }
+        assertThatThrownBy(() -> serializer.deserialize(new byte[]{BinaryRedisSerializer.LZ4, 0}))
+                .isInstanceOf(SerializationException.class);
+    }
+}
@@ -0,0 +1,72 @@
+package com.campusnest.campusnest_platform.config.caching;
+
+import com.campusnest.campusnest_platform.projection.ListingPageSnapshot;
+import com.campusnest.campusnest_platform.projection.ListingSnapshot;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares bytes on the wire and serialize/deserialize time of the cache value serializers.
+ * Opt-in: mvn test -Dtest=CacheSerializerBenchmarkTest -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class CacheSerializerBenchmarkTest {
+
+    private static final int WARMUP_ITERATIONS = 2_000;
+    private static final int MEASURED_ITERATIONS = 10_000;
+
+    @Test
+    void compareSerializers() {
+        run("listing", ListingSnapshot.class, BinaryRedisSerializerTest.listing(1L));
+        run("search page (20)", ListingPageSnapshot.class, BinaryRedisSerializerTest.page(20));
+        run("unread count", Long.class, 17L);
+    }
+
+    // The previous cache format: JSON with class names embedded
+    private static RedisSerializer<Object> classNameJson() {
+        return GenericJackson2JsonRedisSerializer.builder()
+                .objectMapper(RedisConfig.redisObjectMapper())
+                .defaultTyping(true)
+                .build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> void run(String payload, Class<T> type, T value) {
+        Map<String, RedisSerializer<T>> serializers = new LinkedHashMap<>();
+        serializers.put("json+class names", (RedisSerializer<T>) classNameJson());
+        serializers.put("typed json", new Jackson2JsonRedisSerializer<>(RedisConfig.redisObjectMapper(), type));
+        serializers.put("cbor", new BinaryRedisSerializer<>(type, Integer.MAX_VALUE));
+        serializers.put("cbor+lz4", new BinaryRedisSerializer<>(type, 512));
+
+        System.out.printf("%n%-18s %-18s %8s %12s %12s%n", "payload", "serializer", "bytes", "ser ns/op", "deser ns/op");
+        serializers.forEach((name, serializer) -> {
+            byte[] bytes = serializer.serialize(value);
+            // Compared as text: the class-name format reads small Longs back as Integers
+            assertThat(String.valueOf(serializer.deserialize(bytes))).isEqualTo(String.valueOf(value));
+
+            for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+                serializer.deserialize(serializer.serialize(value));
+            }
+            long start = System.nanoTime();
+            for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+                bytes = serializer.serialize(value);
+            }
+            long serNanos = (System.nanoTime() - start) / MEASURED_ITERATIONS;
+            start = System.nanoTime();
+            for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+                serializer.deserialize(bytes);
+            }
+            long deserNanos = (System.nanoTime() - start) / MEASURED_ITERATIONS;
+
+            System.out.printf("%-18s %-18s %8d %12d %12d%n", payload, name, bytes.length, serNanos, deserNanos);
+        });
+    }
+}
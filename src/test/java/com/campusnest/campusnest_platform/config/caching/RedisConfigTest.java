@@ -0,0 +1,64 @@
+package com.campusnest.campusnest_platform.config.caching;
+
+import com.campusnest.campusnest_platform.projection.ConversationPageSnapshot;
+import com.campusnest.campusnest_platform.projection.ConversationRoute;
+import com.campusnest.campusnest_platform.projection.ListingPageSnapshot;
+import com.campusnest.campusnest_platform.projection.ListingSnapshot;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RedisConfigTest {
+
+    @Test
+    void listingPageSnapshot_roundTripsWithoutTypeInformation() {
+        ListingSnapshot listing = new ListingSnapshot(1L, "Room near campus", "Sunny", new BigDecimal("1250.00"),
+                "1 Main St", "Palo Alto", 2, 1, LocalDate.of(2025, 6, 1), LocalDate.of(2025, 9, 1),
+                true, LocalDateTime.of(2025, 1, 1, 12, 0), LocalDateTime.of(2025, 1, 2, 8, 30),
+                new ListingSnapshot.Owner(7L, "Ada", "Lovelace", "ada@stanford.edu", "stanford.edu"),
+                List.of(new ListingSnapshot.Image(3L, "listings/1/a.jpg", true, 0)),
+                List.of("bob@stanford.edu"));
+        ListingPageSnapshot page = new ListingPageSnapshot(List.of(listing), 0, 20, true);
+
+        Jackson2JsonRedisSerializer<ListingPageSnapshot> serializer =
+                new Jackson2JsonRedisSerializer<>(RedisConfig.redisObjectMapper(), ListingPageSnapshot.class);
+        byte[] bytes = serializer.serialize(page);
+
+        assertThat(new String(bytes)).doesNotContain("@class");
+        assertThat(serializer.deserialize(bytes)).isEqualTo(page);
+        assertThat(serializer.deserialize(bytes).content().get(0).isFavoritedBy("bob@stanford.edu")).isTrue();
+    }
+
+    @Test
+    void conversationPageSnapshot_roundTrips() {
+        ConversationPageSnapshot page = new ConversationPageSnapshot(List.of(new ConversationPageSnapshot.Entry(
+                5L,
+                new ConversationPageSnapshot.Participant(8L, "Bob", "Smith", "bob@stanford.edu", "stanford.edu"),
+                new ConversationPageSnapshot.Listing(1L, "Room", new BigDecimal("900.00"), "Berkeley", 1, 1,
+                        LocalDate.of(2025, 6, 1), null, LocalDateTime.of(2025, 1, 1, 12, 0), "Ada"),
+                "Is it still available?", LocalDateTime.of(2025, 1, 3, 9, 15), true)), 0, 20, 1);
+
+        Jackson2JsonRedisSerializer<ConversationPageSnapshot> serializer =
+                new Jackson2JsonRedisSerializer<>(RedisConfig.redisObjectMapper(), ConversationPageSnapshot.class);
+
+        assertThat(serializer.deserialize(serializer.serialize(page))).isEqualTo(page);
+    }
+
+    @Test
+    void conversationRoute_roundTripsThroughCanonicalConstructor() {
+        ConversationRoute route = new ConversationRoute(5L, true, 1L,
+                8L, "bob@stanford.edu", "Bob", "Smith", 9L, "ada@stanford.edu", "Ada", "Lovelace");
+
+        Jackson2JsonRedisSerializer<ConversationRoute> serializer =
+                new Jackson2JsonRedisSerializer<>(RedisConfig.redisObjectMapper(), ConversationRoute.class);
+
+        assertThat(serializer.deserialize(serializer.serialize(route))).isEqualTo(route);
+        assertThat(route.otherParticipant(8L).fullName()).isEqualTo("Ada Lovelace");
+    }
+}
@@ -0,0 +1,104 @@
+package com.campusnest.campusnest_platform.config.caching;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class TwoLevelCacheManagerTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    // Stands in for Redis: shared by both "nodes"
+    private ConcurrentMapCacheManager sharedL2;
+    private TwoLevelCacheManager nodeA;
+    private TwoLevelCacheManager nodeB;
+
+    @BeforeEach
+    void setUp() {
+        sharedL2 = new ConcurrentMapCacheManager("housing-listings");
+        nodeA = new TwoLevelCacheManager(sharedL2, redisTemplate, 100, Duration.ofMinutes(1));
+        nodeB = new TwoLevelCacheManager(sharedL2, redisTemplate, 100, Duration.ofMinutes(1));
+    }
+
+    @Test
+    void get_servesFromL1AfterFirstL2Read() {
+        sharedL2.getCache("housing-listings").put(1L, "listing-1");
+        Cache cache = nodeA.getCache("housing-listings");
+
+        assertThat(cache.get(1L).get()).isEqualTo("listing-1");
+        // Gone from L2, still served locally
+        sharedL2.getCache("housing-listings").evict(1L);
+        assertThat(cache.get(1L).get()).isEqualTo("listing-1");
+    }
+
+    @Test
+    void get_returnsSameImmutableInstanceFromL1() {
+        List<String> value = List.of("Room");
+        Cache cache = nodeA.getCache("housing-listings");
+        cache.put(1L, value);
+
+        assertThat(cache.get(1L).get()).isSameAs(value);
+        assertThat(cache.get(1L).get()).isSameAs(cache.get(1L).get());
+    }
+
+    @Test
+    void get_distinguishesCachedNullFromMiss() {
+        Cache cache = nodeA.getCache("housing-listings");
+        cache.put(1L, null);
+
+        assertThat(cache.get(1L)).isNotNull();
+        assertThat(cache.get(1L).get()).isNull();
+        assertThat(cache.get(2L)).isNull();
+    }
+
+    @Test
+    void evict_isBroadcastAndDropsOtherNodesL1() {
+        Cache cacheA = nodeA.getCache("housing-listings");
+        Cache cacheB = nodeB.getCache("housing-listings");
+        cacheA.put(1L, "v1");
+        assertThat(cacheB.get(1L).get()).isEqualTo("v1");
+
+        cacheA.evict(1L);
+
+        ArgumentCaptor<String> published = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate, atLeastOnce())
+                .convertAndSend(eq(TwoLevelCacheManager.INVALIDATION_CHANNEL), published.capture());
+        String evictMessage = published.getValue();
+        assertThat(evictMessage).startsWith(nodeA.getNodeId() + "|housing-listings|E|1");
+
+        nodeB.onMessage(new DefaultMessage(TwoLevelCacheManager.INVALIDATION_CHANNEL.getBytes(StandardCharsets.UTF_8),
+                evictMessage.getBytes(StandardCharsets.UTF_8)), null);
+        assertThat(cacheB.get(1L)).isNull();
+    }
+
+    @Test
+    void onMessage_ignoresOwnMessages() {
+        Cache cacheA = nodeA.getCache("housing-listings");
+        cacheA.put(1L, "v1");
+        sharedL2.getCache("housing-listings").evict(1L);
+
+        String ownClear = nodeA.getNodeId() + "|housing-listings|C|";
+        nodeA.onMessage(new DefaultMessage(TwoLevelCacheManager.INVALIDATION_CHANNEL.getBytes(StandardCharsets.UTF_8),
+                ownClear.getBytes(StandardCharsets.UTF_8)), null);
+
+        assertThat(cacheA.get(1L).get()).isEqualTo("v1");
+    }
+}
@@ -0,0 +1,149 @@
+package com.campusnest.campusnest_platform.config.websocket;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.MessageHandlingRunnable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class InboundLaneExecutorTest {
+
+    private final InboundLaneExecutor executor = new InboundLaneExecutor();
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(executor, "laneCount", 4);
+        ReflectionTestUtils.setField(executor, "laneCapacity", 1);
+        ReflectionTestUtils.setField(executor, "overloadTimeoutMillis", 50L);
+        executor.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.stop();
+    }
+
+    @Test
+    void execute_runsOneSessionsFramesInArrivalOrder() throws Exception {
+        ReflectionTestUtils.setField(executor, "laneCapacity", 100);
+        executor.stop();
+        executor.start();
+        List<Integer> handled = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(50);
+
+        for (int i = 0; i < 50; i++) {
+            int n = i;
+            executor.execute(task("session-1", "/app/chat/send", () -> {
+                handled.add(n);
+                done.countDown();
+            }));
+        }
+
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(handled).isSorted().hasSize(50);
+    }
+
+    @Test
+    void execute_fullLane_dropsTypingFramesImmediately() throws Exception {
+        fillLaneOf("session-1");
+
+        executor.execute(task("session-1", "/app/chat/typing", () -> {}));
+
+        assertThat(executor.getDroppedCount()).isEqualTo(1);
+        assertThat(executor.getOverloadedCount()).isZero();
+    }
+
+    @Test
+    void execute_fullLane_rejectsOtherFramesAfterTimeout() throws Exception {
+        fillLaneOf("session-1");
+
+        assertThatThrownBy(() -> executor.execute(task("session-1", "/app/chat/send", () -> {})))
+                .isInstanceOf(RejectedExecutionException.class);
+        assertThat(executor.getOverloadedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void execute_fullLane_doesNotHoldUpSessionsInOtherLanes() throws Exception {
+        fillLaneOf("session-1");
+        String otherSession = sessionInAnotherLaneThan("session-1");
+        CountDownLatch handled = new CountDownLatch(1);
+
+        executor.execute(task(otherSession, "/app/chat/send", handled::countDown));
+
+        assertThat(handled.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    // Blocks the lane's worker and fills its one-slot queue
+    private void fillLaneOf(String sessionId) throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        executor.execute(task(sessionId, "/app/chat/send", () -> {
+            started.countDown();
+            awaitRelease();
+        }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        executor.execute(task(sessionId, "/app/chat/send", () -> {}));
+        assertThat(executor.getQueuedCount()).isEqualTo(1);
+    }
+
+    private String sessionInAnotherLaneThan(String sessionId) {
+        int lane = executor.laneOf(message(sessionId, "/app/chat/send"));
+        for (int i = 0; ; i++) {
+            String candidate = "session-" + i;
+            if (executor.laneOf(message(candidate, "/app/chat/send")) != lane) {
+                return candidate;
+            }
+        }
+    }
+
+    private void awaitRelease() {
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static MessageHandlingRunnable task(String sessionId, String destination, Runnable body) {
+        Message<?> message = message(sessionId, destination);
+        return new MessageHandlingRunnable() {
+            @Override
+            public Message<?> getMessage() {
+                return message;
+            }
+
+            @Override
+            public MessageHandler getMessageHandler() {
+                return m -> body.run();
+            }
+
+            @Override
+            public void run() {
+                body.run();
+            }
+        };
+    }
+
+    private static Message<?> message(String sessionId, String destination) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId(sessionId);
+        accessor.setDestination(destination);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}
@@ -0,0 +1,112 @@
+package com.campusnest.campusnest_platform.config.websocket;
+
+import com.campusnest.campusnest_platform.services.UserMessageDelivery;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class OutboundBufferGuardTest {
+
+    private static final String SESSION_ID = "session-1";
+
+    private final OutboundBufferGuard guard = new OutboundBufferGuard();
+
+    private final WebSocketHandler delegate = mock(WebSocketHandler.class);
+
+    private final WebSocketSession rawSession = mock(WebSocketSession.class);
+
+    private final AtomicReference<WebSocketSession> countingSession = new AtomicReference<>();
+
+    private WebSocketHandler handler;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ReflectionTestUtils.setField(guard, "nonCriticalBufferLimit", 100L);
+        when(rawSession.getId()).thenReturn(SESSION_ID);
+        doAnswer(invocation -> {
+            countingSession.set(invocation.getArgument(0));
+            return null;
+        }).when(delegate).afterConnectionEstablished(any());
+        handler = guard.decorate(delegate);
+        handler.afterConnectionEstablished(rawSession);
+    }
+
+    @Test
+    void preSend_backlogUnderLimit_passesTypingFrames() {
+        assertThat(guard.preSend(frame("/user/queue/typing/10", null, 50), null)).isNotNull();
+
+        assertThat(guard.getBacklog(SESSION_ID).pendingBytes()).isEqualTo(50);
+    }
+
+    @Test
+    void preSend_backlogOverLimit_dropsNonCriticalFrames() {
+        guard.preSend(frame("/user/queue/messages", "message", 150), null);
+
+        assertThat(guard.preSend(frame("/user/queue/typing/10", null, 10), null)).isNull();
+        assertThat(guard.preSend(frame("/user/queue/events", "typing", 10), null)).isNull();
+        assertThat(guard.getDroppedCount()).isEqualTo(2);
+        assertThat(guard.getBacklog(SESSION_ID).droppedFrames()).isEqualTo(2);
+    }
+
+    @Test
+    void preSend_backlogOverLimit_keepsChatFrames() {
+        guard.preSend(frame("/user/queue/messages", "message", 150), null);
+
+        assertThat(guard.preSend(frame("/user/queue/messages", "message", 150), null)).isNotNull();
+        assertThat(guard.getBacklog(SESSION_ID).pendingBytes()).isEqualTo(300);
+    }
+
+    @Test
+    void preSend_oldestFrameTooOld_dropsNonCriticalFrames() {
+        ReflectionTestUtils.setField(guard, "nonCriticalAgeLimitMillis", 0L);
+        guard.preSend(frame("/user/queue/messages", "message", 10), null);
+
+        assertThat(guard.preSend(frame("/user/queue/typing/10", null, 10), null)).isNull();
+    }
+
+    @Test
+    void sendMessage_writtenFramesReleaseBacklog() throws Exception {
+        guard.preSend(frame("/user/queue/messages", "message", 150), null);
+        countingSession.get().sendMessage(new TextMessage("MESSAGE"));
+
+        assertThat(guard.getBacklog(SESSION_ID).pendingBytes()).isZero();
+        assertThat(guard.getBacklog(SESSION_ID).sentFrames()).isEqualTo(1);
+        assertThat(guard.preSend(frame("/user/queue/typing/10", null, 10), null)).isNotNull();
+    }
+
+    @Test
+    void afterConnectionClosed_stopsTrackingSession() throws Exception {
+        handler.afterConnectionClosed(rawSession, CloseStatus.SESSION_NOT_RELIABLE);
+
+        assertThat(guard.getBacklog(SESSION_ID)).isNull();
+        assertThat(guard.preSend(frame("/user/queue/typing/10", null, 10), null)).isNotNull();
+    }
+
+    // Outbound user-destination frames carry the subscribed destination as a native header
+    private static Message<byte[]> frame(String originalDestination, String eventType, int size) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId(SESSION_ID);
+        accessor.setDestination(originalDestination + "-user" + SESSION_ID);
+        accessor.setNativeHeader(SimpMessageHeaderAccessor.ORIGINAL_DESTINATION, originalDestination);
+        if (eventType != null) {
+            accessor.setNativeHeader(UserMessageDelivery.EVENT_TYPE_HEADER, eventType);
+        }
+        return MessageBuilder.createMessage(new byte[size], accessor.getMessageHeaders());
+    }
+}
@@ -0,0 +1,253 @@
+package com.campusnest.campusnest_platform.config.websocket;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RedisUserDestinationRelayTest {
+
+    private static final String DESTINATION = "/user/reader@campus.edu/queue/messages";
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private SetOperations<String, String> setOperations;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    @Mock
+    private ObjectProvider<MessageChannel> brokerChannel;
+
+    @InjectMocks
+    private RedisUserDestinationRelay relay;
+
+    @Test
+    void preSend_userMessage_isPublishedToEveryOtherNodeOfTheUser() throws Exception {
+        String key = RedisUserDestinationRelay.USER_NODES_PREFIX + "reader@campus.edu";
+        when(redisTemplate.opsForSet()).thenReturn(setOperations);
+        when(setOperations.members(key)).thenReturn(new LinkedHashSet<>(List.of(relay.getNodeId(), "node-b")));
+        when(redisTemplate.convertAndSend(eq("ws:node:node-b"), anyString())).thenReturn(1L);
+
+        // The user also has a session here; the tab on node-b must still get it
+        Message<?> message = userSend("{\"content\":\"hi\"}");
+        assertThat(relay.preSend(message, mock(MessageChannel.class))).isSameAs(message);
+
+        ArgumentCaptor<String> body = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate).convertAndSend(eq("ws:node:node-b"), body.capture());
+        verify(redisTemplate, never()).convertAndSend(eq("ws:node:" + relay.getNodeId()), anyString());
+        RedisUserDestinationRelay.ForwardedMessage forwarded =
+                new ObjectMapper().readValue(body.getValue(), RedisUserDestinationRelay.ForwardedMessage.class);
+        assertThat(forwarded.contentType()).isEqualTo("application/json");
+        assertThat(forwarded.targets()).singleElement().satisfies(target -> {
+            assertThat(target.destination()).isEqualTo(DESTINATION);
+            assertThat(target.nativeHeaders()).containsOnly(entry("event-type", List.of("message")));
+        });
+        assertThat(new String(forwarded.payload(), StandardCharsets.UTF_8)).isEqualTo("{\"content\":\"hi\"}");
+    }
+
+    @Test
+    void forwardAll_publishesAllFramesOnceToEachOtherNode() throws Exception {
+        String key = RedisUserDestinationRelay.USER_NODES_PREFIX + "reader@campus.edu";
+        when(redisTemplate.opsForSet()).thenReturn(setOperations);
+        when(setOperations.members(key)).thenReturn(new LinkedHashSet<>(List.of("node-b", "node-c")));
+        when(redisTemplate.convertAndSend(anyString(), anyString())).thenReturn(1L);
+
+        relay.forwardAll(List.of(userSend("{}"), userSend("{}", "/user/reader@campus.edu/queue/events")));
+
+        ArgumentCaptor<String> body = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate).convertAndSend(eq("ws:node:node-b"), body.capture());
+        verify(redisTemplate).convertAndSend(eq("ws:node:node-c"), anyString());
+        RedisUserDestinationRelay.ForwardedMessage forwarded =
+                new ObjectMapper().readValue(body.getValue(), RedisUserDestinationRelay.ForwardedMessage.class);
+        assertThat(forwarded.targets()).extracting(RedisUserDestinationRelay.Target::destination)
+                .containsExactly(DESTINATION, "/user/reader@campus.edu/queue/events");
+    }
+
+    @Test
+    void preSend_noReceiverOnLiveNode_keepsItsRoute() {
+        String key = RedisUserDestinationRelay.USER_NODES_PREFIX + "reader@campus.edu";
+        when(redisTemplate.opsForSet()).thenReturn(setOperations);
+        when(setOperations.members(key)).thenReturn(new LinkedHashSet<>(List.of("node-b")));
+        // e.g. node-b is resubscribing after a connection blip
+        when(redisTemplate.convertAndSend(eq("ws:node:node-b"), anyString())).thenReturn(0L);
+        when(redisTemplate.hasKey("ws:node-alive:node-b")).thenReturn(true);
+
+        relay.preSend(userSend("{}"), mock(MessageChannel.class));
+
+        verify(setOperations, never()).remove(anyString(), any());
+        verify(redisTemplate, never()).delete(anyString());
+    }
+
+    @Test
+    void preSend_noReceiverOnDeadNode_dropsItsRoute() {
+        String key = RedisUserDestinationRelay.USER_NODES_PREFIX + "reader@campus.edu";
+        when(redisTemplate.opsForSet()).thenReturn(setOperations);
+        when(setOperations.members(key)).thenReturn(new LinkedHashSet<>(List.of("node-gone")));
+        when(redisTemplate.convertAndSend(eq("ws:node:node-gone"), anyString())).thenReturn(0L);
+        when(redisTemplate.hasKey("ws:node-alive:node-gone")).thenReturn(false);
+
+        relay.preSend(userSend("{}"), mock(MessageChannel.class));
+
+        verify(setOperations).remove(key, "node-gone");
+        verify(redisTemplate).delete("ws:user-sessions:node-gone:reader@campus.edu");
+    }
+
+    @Test
+    void sessionEvents_registerAndReleaseEachSessionOnce() {
+        relay.onSessionConnected(new SessionConnectedEvent(this, connectAck("s-1"), () -> "reader@campus.edu"));
+        SessionDisconnectEvent disconnect = new SessionDisconnectEvent(this, connectAck("s-1"), "s-1",
+                CloseStatus.NORMAL, () -> "reader@campus.edu");
+
+        relay.onSessionDisconnected(disconnect);
+        relay.onSessionDisconnected(disconnect);
+        // Never connected here, e.g. a handshake that failed authentication
+        relay.onSessionDisconnected(new SessionDisconnectEvent(this, connectAck("s-2"), "s-2",
+                CloseStatus.NORMAL, () -> "reader@campus.edu"));
+
+        List<String> keys = List.of("ws:user-sessions:" + relay.getNodeId() + ":reader@campus.edu",
+                "ws:user-node-set:reader@campus.edu");
+        verify(redisTemplate).execute(ArgumentMatchers.<RedisScript<Long>>any(), eq(keys),
+                eq("s-1"), eq(relay.getNodeId()), eq("90"));
+        verify(redisTemplate, times(1)).execute(ArgumentMatchers.<RedisScript<Long>>any(), eq(keys),
+                eq("s-1"), eq(relay.getNodeId()));
+        verify(redisTemplate, never()).execute(ArgumentMatchers.<RedisScript<Long>>any(), anyList(),
+                eq("s-2"), any());
+    }
+
+    @Test
+    void renewRoutes_renewsLivenessAndSessions_andReleasesOneClosedMeanwhile() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        relay.onSessionConnected(new SessionConnectedEvent(this, connectAck("s-1"), () -> "reader@campus.edu"));
+        SessionDisconnectEvent disconnect = new SessionDisconnectEvent(this, connectAck("s-1"), "s-1",
+                CloseStatus.NORMAL, () -> "reader@campus.edu");
+        when(redisTemplate.execute(ArgumentMatchers.<RedisScript<Long>>any(), anyList(), any(), any(), any()))
+                .thenAnswer(invocation -> {
+                    // The socket closes while the heartbeat's register is in flight
+                    relay.onSessionDisconnected(disconnect);
+                    return 1L;
+                });
+
+        relay.renewRoutes();
+
+        verify(valueOperations).set("ws:node-alive:" + relay.getNodeId(), "1", Duration.ofSeconds(90));
+        verify(redisTemplate, times(2)).execute(ArgumentMatchers.<RedisScript<Long>>any(), anyList(),
+                eq("s-1"), eq(relay.getNodeId()));
+    }
+
+    @Test
+    void preSend_otherDestinations_passThroughUntouched() {
+        Message<byte[]> message = MessageBuilder.withPayload(new byte[0])
+                .setHeader(SimpMessageHeaderAccessor.DESTINATION_HEADER, "/topic/conversation/1")
+                .build();
+
+        assertThat(relay.preSend(message, mock(MessageChannel.class))).isSameAs(message);
+        verify(redisTemplate, never()).opsForSet();
+    }
+
+    @Test
+    void onMessage_fansOutToEachTargetOnLocalBrokerMarkedAsForwarded() throws Exception {
+        MessageChannel channel = mock(MessageChannel.class);
+        when(brokerChannel.getObject()).thenReturn(channel);
+        ReflectionTestUtils.setField(relay, "brokerChannel", brokerChannel);
+        String events = "/user/reader@campus.edu/queue/events";
+        byte[] body = new ObjectMapper().writeValueAsBytes(new RedisUserDestinationRelay.ForwardedMessage(
+                "application/json", "{}".getBytes(StandardCharsets.UTF_8), List.of(
+                        new RedisUserDestinationRelay.Target(DESTINATION, Map.of()),
+                        new RedisUserDestinationRelay.Target(events, Map.of("event-type", List.of("message"))))));
+
+        relay.onMessage(new DefaultMessage("ws:node:x".getBytes(StandardCharsets.UTF_8), body), null);
+
+        ArgumentCaptor<Message<?>> sent = ArgumentCaptor.forClass(Message.class);
+        verify(channel, times(2)).send(sent.capture());
+        SimpMessageHeaderAccessor legacy = SimpMessageHeaderAccessor.wrap(sent.getAllValues().get(0));
+        assertThat(legacy.getDestination()).isEqualTo(DESTINATION);
+        assertThat(legacy.getContentType()).isEqualTo(MimeTypeUtils.APPLICATION_JSON);
+        assertThat(legacy.getFirstNativeHeader(SimpMessageHeaderAccessor.ORIGINAL_DESTINATION)).isEqualTo(DESTINATION);
+        assertThat(legacy.getFirstNativeHeader("event-type")).isNull();
+        SimpMessageHeaderAccessor event = SimpMessageHeaderAccessor.wrap(sent.getAllValues().get(1));
+        assertThat(event.getDestination()).isEqualTo(events);
+        assertThat(event.getFirstNativeHeader(SimpMessageHeaderAccessor.ORIGINAL_DESTINATION)).isEqualTo(events);
+        assertThat(event.getFirstNativeHeader("event-type")).isEqualTo("message");
+        assertThat(sent.getAllValues()).allSatisfy(m -> assertThat(m.getPayload()).isEqualTo("{}".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void preSend_relayedMessage_isNotForwardedAgain() {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination(DESTINATION);
+        accessor.setNativeHeader(SimpMessageHeaderAccessor.ORIGINAL_DESTINATION, DESTINATION);
+        Message<byte[]> relayed = MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+
+        assertThat(relay.preSend(relayed, mock(MessageChannel.class))).isSameAs(relayed);
+        verify(redisTemplate, never()).opsForSet();
+        verify(redisTemplate, never()).convertAndSend(anyString(), any());
+    }
+
+    @Test
+    void userOf_extractsEncodedUserName() {
+        assertThat(RedisUserDestinationRelay.userOf(DESTINATION)).isEqualTo("reader@campus.edu");
+        assertThat(RedisUserDestinationRelay.userOf("/user/a%2Fb/queue/x")).isEqualTo("a/b");
+        assertThat(RedisUserDestinationRelay.userOf("/topic/x")).isNull();
+    }
+
+    // What SimpMessagingTemplate sends on the broker channel before user destinations are resolved
+    private static Message<byte[]> connectAck(String sessionId) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.CONNECT_ACK);
+        accessor.setSessionId(sessionId);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    private static Message<byte[]> userSend(String json) {
+        return userSend(json, DESTINATION);
+    }
+
+    private static Message<byte[]> userSend(String json, String destination) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination(destination);
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        accessor.setNativeHeader("event-type", "message");
+        return MessageBuilder.createMessage(json.getBytes(StandardCharsets.UTF_8), accessor.getMessageHeaders());
+    }
+}
@@ -0,0 +1,164 @@
+package com.campusnest.campusnest_platform.controllers.housing;
+
+import com.campusnest.campusnest_platform.models.HousingListing;
+import com.campusnest.campusnest_platform.models.User;
+import com.campusnest.campusnest_platform.projection.ListingPageSnapshot;
+import com.campusnest.campusnest_platform.projection.ListingSnapshot;
+import com.campusnest.campusnest_platform.requests.SearchHousingListingRequest;
+import com.campusnest.campusnest_platform.response.HousingListingSummaryResponse;
+import com.campusnest.campusnest_platform.services.HousingListingService;
+import com.campusnest.campusnest_platform.services.ListingCursor;
+import com.campusnest.campusnest_platform.services.S3Service;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class HousingListingControllerTest {
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2025, 3, 1, 12, 0);
+
+    @Mock
+    private HousingListingService housingListingService;
+
+    @Mock
+    private S3Service s3Service;
+
+    @InjectMocks
+    private HousingListingController controller;
+
+    @Test
+    void getAllActiveListings_malformedCursor_isBadRequestWithoutQuerying() {
+        ResponseEntity<List<HousingListingSummaryResponse>> response =
+                controller.getAllActiveListings(0, 20, "not-a-cursor", null);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        verifyNoInteractions(housingListingService);
+    }
+
+    @Test
+    void getAllActiveListings_withoutCursor_pagesByOffsetAndReturnsCursorForLastRow() {
+        List<HousingListing> rows = List.of(listing(9L, CREATED, "700"), listing(8L, CREATED, "800"));
+        when(housingListingService.findAllActive(PageRequest.of(2, 100)))
+                .thenReturn(new SliceImpl<>(rows, PageRequest.of(2, 100), true));
+
+        // Oversized pages are clamped to the maximum
+        ResponseEntity<List<HousingListingSummaryResponse>> response = controller.getAllActiveListings(2, 500, null, null);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).extracting(HousingListingSummaryResponse::getId).containsExactly(9L, 8L);
+        ListingCursor next = ListingCursor.decode(response.getHeaders().getFirst(HousingListingController.NEXT_CURSOR_HEADER));
+        assertThat(next.matches(ListingCursor.SortKey.CREATED_AT, true)).isTrue();
+        assertThat(next.getCreatedAt()).isEqualTo(CREATED);
+        assertThat(next.getId()).isEqualTo(8L);
+    }
+
+    @Test
+    void getAllActiveListings_withCursor_seeksPastItAndOmitsCursorOnLastPage() {
+        String token = ListingCursor.after(listing(8L, CREATED, "800"), ListingCursor.SortKey.CREATED_AT, true).encode();
+        when(housingListingService.findAllActiveAfter(any(ListingCursor.class), eq(20)))
+                .thenReturn(new SliceImpl<>(List.of(listing(7L, CREATED, "900")), PageRequest.of(0, 20), false));
+
+        ResponseEntity<List<HousingListingSummaryResponse>> response = controller.getAllActiveListings(0, 20, token, null);
+
+        ArgumentCaptor<ListingCursor> cursor = ArgumentCaptor.forClass(ListingCursor.class);
+        verify(housingListingService).findAllActiveAfter(cursor.capture(), eq(20));
+        assertThat(cursor.getValue().getCreatedAt()).isEqualTo(CREATED);
+        assertThat(cursor.getValue().getId()).isEqualTo(8L);
+        assertThat(response.getBody()).extracting(HousingListingSummaryResponse::getId).containsExactly(7L);
+        assertThat(response.getHeaders().containsKey(HousingListingController.NEXT_CURSOR_HEADER)).isFalse();
+    }
+
+    @Test
+    void searchListings_malformedCursor_isBadRequestWithoutQuerying() {
+        SearchHousingListingRequest request = new SearchHousingListingRequest();
+        request.setCursor("bm90fGF8Y3Vyc29y");
+
+        ResponseEntity<List<HousingListingSummaryResponse>> response = controller.searchListings(request, null);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        verifyNoInteractions(housingListingService);
+    }
+
+    @Test
+    void searchListings_cursorForAnotherSort_isBadRequest() {
+        SearchHousingListingRequest request = new SearchHousingListingRequest();
+        request.setCursor(ListingCursor.after(listing(8L, CREATED, "800"), ListingCursor.SortKey.PRICE, false).encode());
+        when(housingListingService.searchListingSnapshots(eq(request), any(ListingCursor.class), eq(20)))
+                .thenThrow(new IllegalArgumentException("Cursor does not match the requested sort"));
+
+        ResponseEntity<List<HousingListingSummaryResponse>> response = controller.searchListings(request, null);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void searchListings_priceSort_returnsCursorForLastRow() {
+        SearchHousingListingRequest request = new SearchHousingListingRequest();
+        request.setSortBy("price");
+        request.setSortDirection("asc");
+        request.setSize(2);
+        List<ListingSnapshot> rows = List.of(
+                ListingSnapshot.from(listing(3L, CREATED, "500")),
+                ListingSnapshot.from(listing(5L, CREATED, "500")));
+        when(housingListingService.searchListingSnapshots(request, null, 2))
+                .thenReturn(new ListingPageSnapshot(rows, 0, 2, true));
+
+        ResponseEntity<List<HousingListingSummaryResponse>> response = controller.searchListings(request, null);
+
+        assertThat(response.getBody()).extracting(HousingListingSummaryResponse::getId).containsExactly(3L, 5L);
+        ListingCursor next = ListingCursor.decode(response.getHeaders().getFirst(HousingListingController.NEXT_CURSOR_HEADER));
+        assertThat(next.matches(ListingCursor.SortKey.PRICE, false)).isTrue();
+        assertThat(next.getPrice()).isEqualByComparingTo("500");
+        assertThat(next.getId()).isEqualTo(5L);
+    }
+
+    @Test
+    void searchListings_nonSeekableSort_keepsOffsetPagingWithoutCursor() {
+        SearchHousingListingRequest request = new SearchHousingListingRequest();
+        request.setSortBy("bedrooms");
+        when(housingListingService.searchListingSnapshots(request, null, 20))
+                .thenReturn(new ListingPageSnapshot(List.of(ListingSnapshot.from(listing(3L, CREATED, "500"))), 0, 20, true));
+
+        ResponseEntity<List<HousingListingSummaryResponse>> response = controller.searchListings(request, null);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().containsKey(HousingListingController.NEXT_CURSOR_HEADER)).isFalse();
+    }
+
+    private static HousingListing listing(Long id, LocalDateTime createdAt, String price) {
+        User owner = new User();
+        owner.setId(100L);
+        owner.setFirstName("Owner");
+        owner.setEmail("owner@stanford.edu");
+
+        HousingListing listing = new HousingListing();
+        listing.setId(id);
+        listing.setTitle("Listing " + id);
+        listing.setPrice(new BigDecimal(price));
+        listing.setCity("Palo Alto");
+        listing.setBedrooms(2);
+        listing.setBathrooms(1);
+        listing.setCreatedAt(createdAt);
+        listing.setOwner(owner);
+        return listing;
+    }
+}
@@ -0,0 +1,101 @@
+package com.campusnest.campusnest_platform.controllers.websocket;
+
+import com.campusnest.campusnest_platform.models.User;
+import com.campusnest.campusnest_platform.projection.ConversationRoute;
+import com.campusnest.campusnest_platform.requests.ChatMessageRequest;
+import com.campusnest.campusnest_platform.requests.TypingIndicatorRequest;
+import com.campusnest.campusnest_platform.services.MessagingService;
+import com.campusnest.campusnest_platform.services.TypingIndicatorCoalescer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+import java.security.Principal;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class WebSocketMessagingControllerTest {
+
+    @Mock
+    private MessagingService messagingService;
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Mock
+    private TypingIndicatorCoalescer typingIndicatorCoalescer;
+
+    @InjectMocks
+    private WebSocketMessagingController controller;
+
+    private final User sender = user(7L, "sender@campus.edu");
+
+    @Test
+    void sendMessage_inactiveConversation_isRejected() {
+        when(messagingService.getConversationRoute(1L)).thenReturn(route(false));
+        ChatMessageRequest request = new ChatMessageRequest();
+        request.setConversationId(1L);
+        request.setContent("hi");
+
+        controller.sendMessage(request, principal());
+
+        verify(messagingService, never()).sendMessage(anyLong(), any(), anyString(), any());
+        verify(messagingTemplate).convertAndSendToUser(eq("sender@campus.edu"), eq("/queue/errors"),
+                contains("no longer active"));
+    }
+
+    @Test
+    void handleTypingIndicator_inactiveConversation_isDropped() {
+        when(messagingService.getConversationRoute(1L)).thenReturn(route(false));
+        TypingIndicatorRequest request = new TypingIndicatorRequest();
+        request.setConversationId(1L);
+        request.setIsTyping(true);
+
+        controller.handleTypingIndicator(request, principal());
+
+        verify(typingIndicatorCoalescer, never()).update(anyLong(), any(), anyString(), anyBoolean());
+    }
+
+    @Test
+    void handleTypingIndicator_activeConversation_reachesTheOtherParticipant() {
+        when(messagingService.getConversationRoute(1L)).thenReturn(route(true));
+        TypingIndicatorRequest request = new TypingIndicatorRequest();
+        request.setConversationId(1L);
+        request.setIsTyping(true);
+
+        controller.handleTypingIndicator(request, principal());
+
+        verify(typingIndicatorCoalescer).update(1L, sender, "reader@campus.edu", true);
+    }
+
+    private static ConversationRoute route(boolean active) {
+        return new ConversationRoute(1L, active, 3L,
+                new ConversationRoute.Participant(7L, "sender@campus.edu", "Sam Sender"),
+                new ConversationRoute.Participant(8L, "reader@campus.edu", "Riley Reader"));
+    }
+
+    private Principal principal() {
+        return new UsernamePasswordAuthenticationToken(sender, null, List.of());
+    }
+
+    private static User user(Long id, String email) {
+        User user = new User();
+        user.setId(id);
+        user.setEmail(email);
+        return user;
+    }
+}
@@ -0,0 +1,176 @@
+package com.campusnest.campusnest_platform.repository.housing;
+
+import com.campusnest.campusnest_platform.models.HousingListing;
+import com.campusnest.campusnest_platform.models.User;
+import com.campusnest.campusnest_platform.requests.SearchHousingListingRequest;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Walks the keyset and Specification paging queries page by page over rows that share a sort value,
+ * checking that the id tie-breaker neither repeats nor skips a row at a page boundary.
+ */
+@DataJpaTest
+class HousingListingPagingTest {
+
+    private static final LocalDateTime NEWER = LocalDateTime.of(2025, 3, 1, 12, 0);
+    private static final LocalDateTime OLDER = NEWER.minusHours(1);
+
+    @Autowired
+    private HousingListingRepository housingListingRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        owner = new User();
+        owner.setFirstName("Owner");
+        owner.setLastName("Test");
+        owner.setEmail("owner@stanford.edu");
+        owner.setPassword("secret");
+        entityManager.persist(owner);
+    }
+
+    @Test
+    void feedSeek_equalCreatedAt_pagesThroughEveryRowOnceByIdDescending() {
+        Long older1 = persist("500", "Palo Alto", 1, OLDER, true);
+        Long newer1 = persist("500", "Palo Alto", 1, NEWER, true);
+        Long older2 = persist("500", "Palo Alto", 1, OLDER, true);
+        Long newer2 = persist("500", "Palo Alto", 1, NEWER, true);
+        Long newer3 = persist("500", "Palo Alto", 1, NEWER, true);
+        persist("500", "Palo Alto", 1, NEWER, false);
+        entityManager.clear();
+
+        Pageable pageable = PageRequest.of(0, 2);
+        Slice<HousingListing> first = housingListingRepository.findActiveSlice(pageable);
+        List<Long> seen = new ArrayList<>(ids(first.getContent()));
+        List<HousingListing> page = first.getContent();
+        while (page.size() == pageable.getPageSize()) {
+            HousingListing last = page.get(page.size() - 1);
+            page = housingListingRepository.findActiveCreatedBefore(last.getCreatedAt(), last.getId(), pageable);
+            seen.addAll(ids(page));
+        }
+
+        assertThat(first.hasNext()).isTrue();
+        assertThat(seen).containsExactly(newer3, newer2, newer1, older2, older1);
+    }
+
+    @Test
+    void specificationSeek_equalPrices_pagesThroughEveryRowOnceInBothDirections() {
+        Long cheap = persist("300", "Palo Alto", 1, NEWER, true);
+        Long tied1 = persist("500", "Palo Alto", 1, NEWER, true);
+        Long tied2 = persist("500", "Palo Alto", 1, NEWER, true);
+        Long dear = persist("700", "Palo Alto", 1, NEWER, true);
+        Long tied3 = persist("500", "Palo Alto", 1, NEWER, true);
+        entityManager.clear();
+
+        assertThat(walkByPrice("asc", 2)).containsExactly(cheap, tied1, tied2, tied3, dear);
+        assertThat(walkByPrice("desc", 2)).containsExactly(dear, tied3, tied2, tied1, cheap);
+        // A page boundary inside the tie group, and one at every row
+        assertThat(walkByPrice("asc", 3)).containsExactly(cheap, tied1, tied2, tied3, dear);
+        assertThat(walkByPrice("asc", 1)).containsExactly(cheap, tied1, tied2, tied3, dear);
+    }
+
+    @Test
+    void matching_appliesEveryFilterAndLimitsInTheDatabase() {
+        Long match1 = persist("550", "Palo Alto", 2, NEWER, true);
+        persist("550", "Berkeley", 2, NEWER, true);
+        persist("900", "Palo Alto", 2, NEWER, true);
+        persist("550", "Palo Alto", 1, NEWER, true);
+        persist("550", "Palo Alto", 2, NEWER, false);
+        Long match2 = persist("450", "East Palo Alto", 3, NEWER, true);
+        Long match3 = persist("500", "palo alto", 2, NEWER, true);
+        entityManager.clear();
+
+        SearchHousingListingRequest request = new SearchHousingListingRequest();
+        request.setCity(" PALO ");
+        request.setMaxPrice(new BigDecimal("600"));
+        request.setMinBedrooms(2);
+        request.setSortBy("price");
+        request.setSortDirection("desc");
+        Specification<HousingListing> spec = HousingListingSpecifications.matching(request)
+                .and(HousingListingSpecifications.fetchOwner());
+        Pageable pageable = PageRequest.of(0, 2,
+                HousingListingSpecifications.sortFor(request.getSortBy(), request.getSortDirection()));
+
+        Slice<HousingListing> first = housingListingRepository.findBy(spec, query -> query.slice(pageable));
+        Slice<HousingListing> second = housingListingRepository.findBy(spec, query -> query.slice(pageable.next()));
+
+        assertThat(ids(first.getContent())).containsExactly(match1, match3);
+        assertThat(first.hasNext()).isTrue();
+        assertThat(ids(second.getContent())).containsExactly(match2);
+        assertThat(second.hasNext()).isFalse();
+    }
+
+    // Pages the active listings by price the way searchListings does with a cursor
+    private List<Long> walkByPrice(String direction, int size) {
+        SearchHousingListingRequest request = new SearchHousingListingRequest();
+        request.setSortBy("price");
+        request.setSortDirection(direction);
+        boolean descending = "desc".equals(direction);
+        Pageable pageable = PageRequest.of(0, size,
+                HousingListingSpecifications.sortFor(request.getSortBy(), request.getSortDirection()));
+
+        List<Long> seen = new ArrayList<>();
+        HousingListing last = null;
+        Slice<HousingListing> page;
+        do {
+            Specification<HousingListing> spec = HousingListingSpecifications.matching(request)
+                    .and(HousingListingSpecifications.fetchOwner());
+            if (last != null) {
+                spec = spec.and(HousingListingSpecifications.seek("price", last.getPrice(), last.getId(), descending));
+            }
+            page = housingListingRepository.findBy(spec, query -> query.slice(pageable));
+            seen.addAll(ids(page.getContent()));
+            if (page.hasContent()) {
+                last = page.getContent().get(page.getContent().size() - 1);
+            }
+        } while (page.hasNext());
+        return seen;
+    }
+
+    private Long persist(String price, String city, int bedrooms, LocalDateTime createdAt, boolean active) {
+        HousingListing listing = new HousingListing();
+        listing.setTitle("Listing in " + city);
+        listing.setPrice(new BigDecimal(price));
+        listing.setAddress("1 Main St");
+        listing.setCity(city);
+        listing.setBedrooms(bedrooms);
+        listing.setBathrooms(1);
+        listing.setAvailableFrom(LocalDate.of(2025, 6, 1));
+        listing.setAvailableTo(LocalDate.of(2025, 12, 1));
+        listing.setIsActive(active);
+        listing.setOwner(owner);
+        entityManager.persist(listing);
+        entityManager.flush();
+
+        // createdAt is stamped on insert; pin it so rows can share a value
+        entityManager.createQuery("UPDATE HousingListing h SET h.createdAt = :createdAt WHERE h.id = :id")
+                .setParameter("createdAt", createdAt)
+                .setParameter("id", listing.getId())
+                .executeUpdate();
+        return listing.getId();
+    }
+
+    private static List<Long> ids(List<HousingListing> listings) {
+        return listings.stream().map(HousingListing::getId).toList();
+    }
+}
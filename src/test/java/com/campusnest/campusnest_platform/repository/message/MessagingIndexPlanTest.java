@@ -0,0 +1,68 @@
+package com.campusnest.campusnest_platform.repository.message;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that the messaging query shapes are served by the declared indexes, using H2's EXPLAIN on
+ * the generated schema. The MySQL plans and timings over a large seeded dataset come from
+ * src/test/resources/db/messaging-index-benchmark.sql.
+ */
+@DataJpaTest
+class MessagingIndexPlanTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void inbox_eachParticipantSideUsesItsInboxIndex() {
+        // MySQL combines the two sides of participant1 = ? OR participant2 = ? with an index-merge union
+        assertThat(plan("SELECT c.id FROM conversations c WHERE c.participant1_id = 1 AND c.is_active = TRUE " +
+                "ORDER BY c.last_message_at DESC"))
+                .contains("IDX_CONVERSATIONS_PARTICIPANT1_INBOX");
+        assertThat(plan("SELECT c.id FROM conversations c WHERE c.participant2_id = 1 AND c.is_active = TRUE " +
+                "ORDER BY c.last_message_at DESC"))
+                .contains("IDX_CONVERSATIONS_PARTICIPANT2_INBOX");
+    }
+
+    @Test
+    void idSeeks_useConversationForeignKeyIndex() {
+        // No dedicated (conversation_id, id) index: the foreign-key index already ends with the primary key
+        assertThat(plan("SELECT m.id FROM messages m WHERE m.conversation_id = 1 AND m.id > 100 ORDER BY m.id"))
+                .containsPattern("FK\\w+_INDEX_\\w*: CONVERSATION_ID =");
+        assertThat(plan("SELECT MAX(m.id) FROM messages m WHERE m.conversation_id = 1"))
+                .containsPattern("FK\\w+_INDEX_\\w*: CONVERSATION_ID =");
+    }
+
+    @Test
+    void seqSeek_usesConversationSeqIndex() {
+        assertThat(plan("SELECT m.id FROM messages m WHERE m.conversation_id = 1 AND m.seq > 100 ORDER BY m.seq"))
+                .contains("UK_MESSAGES_CONVERSATION_SEQ");
+        assertThat(plan("SELECT m.id FROM messages m WHERE m.conversation_id = 1 AND m.seq < 100 ORDER BY m.seq DESC"))
+                .contains("UK_MESSAGES_CONVERSATION_SEQ");
+    }
+
+    @Test
+    void historyBySentAt_usesConversationSentAtIndex() {
+        assertThat(plan("SELECT m.id FROM messages m WHERE m.conversation_id = 1 " +
+                "ORDER BY m.sent_at DESC, m.id DESC"))
+                .contains("IDX_MESSAGES_CONVERSATION_SENT_AT");
+        assertThat(plan("SELECT m.id FROM messages m WHERE m.conversation_id = 1 " +
+                "AND m.sent_at > TIMESTAMP '2025-01-01 00:00:00' ORDER BY m.sent_at"))
+                .contains("IDX_MESSAGES_CONVERSATION_SENT_AT");
+    }
+
+    @Test
+    void legacyReadStatusLookup_usesUserStatusMessageIndex() {
+        assertThat(plan("SELECT MAX(ms.message_id) FROM message_status ms WHERE ms.user_id = 1 AND ms.status = 'READ'"))
+                .contains("IDX_MESSAGE_STATUS_USER_STATUS_MESSAGE");
+    }
+
+    private String plan(String sql) {
+        return String.valueOf(entityManager.createNativeQuery("EXPLAIN " + sql).getSingleResult()).toUpperCase();
+    }
+}
@@ -0,0 +1,38 @@
+package com.campusnest.campusnest_platform.services;
+
+import com.campusnest.campusnest_platform.repository.housing.HousingListingRepository;
+import com.campusnest.campusnest_platform.requests.SearchHousingListingRequest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class HousingListingServiceImplTest {
+
+    @Mock
+    private HousingListingRepository housingListingRepository;
+
+    @Mock
+    private SearchCacheTags searchCacheTags;
+
+    @InjectMocks
+    private HousingListingServiceImpl housingListingService;
+
+    @Test
+    void searchListings_pagePastOffsetLimit_isRejectedBeforeQuerying() {
+        for (int page : new int[]{51, 5_000_000, Integer.MAX_VALUE}) {
+            SearchHousingListingRequest request = new SearchHousingListingRequest();
+            request.setPage(page);
+
+            assertThatThrownBy(() -> housingListingService.searchListings(request, null, 20))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("cursor");
+        }
+        verifyNoInteractions(housingListingRepository);
+    }
+}
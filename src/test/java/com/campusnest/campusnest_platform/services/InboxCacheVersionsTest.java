@@ -0,0 +1,66 @@
+package com.campusnest.campusnest_platform.services;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class InboxCacheVersionsTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    @InjectMocks
+    private InboxCacheVersions inboxCacheVersions;
+
+    @Test
+    void current_defaultsToZeroAndReadsTheStoredVersion() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get("conversations:version:7")).thenReturn(null, "4");
+
+        assertThat(inboxCacheVersions.current(7L)).isEqualTo("0");
+        assertThat(inboxCacheVersions.current(7L)).isEqualTo("4");
+    }
+
+    @Test
+    void current_redisDown_neverSharesAKey() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get("conversations:version:7")).thenThrow(new RedisConnectionFailureException("down"));
+
+        assertThat(inboxCacheVersions.current(7L)).isNotEqualTo(inboxCacheVersions.current(7L));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void bump_incrementsEachUsersVersionInOnePipeline() {
+        ArgumentCaptor<RedisCallback<Object>> callback = ArgumentCaptor.forClass(RedisCallback.class);
+        when(redisTemplate.executePipelined(callback.capture())).thenReturn(List.of());
+
+        inboxCacheVersions.bump(7L, 8L);
+
+        StringRedisConnection connection = mock(StringRedisConnection.class);
+        callback.getValue().doInRedis(connection);
+        verify(connection).incr("conversations:version:7");
+        verify(connection).incr("conversations:version:8");
+        verify(connection).expire("conversations:version:7", 86_400L);
+        verify(connection).expire("conversations:version:8", 86_400L);
+    }
+}
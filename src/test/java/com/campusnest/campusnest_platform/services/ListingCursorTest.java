@@ -0,0 +1,100 @@
+package com.campusnest.campusnest_platform.services;
+
+import com.campusnest.campusnest_platform.models.HousingListing;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ListingCursorTest {
+
+    @Test
+    void createdAtCursor_roundTripsThroughEncode() {
+        HousingListing last = listing(42L, LocalDateTime.of(2025, 3, 1, 12, 30, 15, 123_456_000), new BigDecimal("900.00"));
+
+        ListingCursor decoded = ListingCursor.decode(
+                ListingCursor.after(last, ListingCursor.SortKey.CREATED_AT, true).encode());
+
+        assertThat(decoded.getSortKey()).isEqualTo(ListingCursor.SortKey.CREATED_AT);
+        assertThat(decoded.isDescending()).isTrue();
+        assertThat(decoded.getCreatedAt()).isEqualTo(last.getCreatedAt());
+        assertThat(decoded.getPrice()).isNull();
+        assertThat(decoded.getId()).isEqualTo(42L);
+        assertThat(decoded.matches(ListingCursor.SortKey.CREATED_AT, true)).isTrue();
+        assertThat(decoded.matches(ListingCursor.SortKey.CREATED_AT, false)).isFalse();
+    }
+
+    @Test
+    void priceCursor_roundTripsThroughEncode() {
+        HousingListing last = listing(7L, LocalDateTime.of(2025, 3, 1, 12, 0), new BigDecimal("1250.50"));
+
+        ListingCursor decoded = ListingCursor.decode(
+                ListingCursor.after(last, ListingCursor.SortKey.PRICE, false).encode());
+
+        assertThat(decoded.getSortKey()).isEqualTo(ListingCursor.SortKey.PRICE);
+        assertThat(decoded.isDescending()).isFalse();
+        assertThat(decoded.getPrice()).isEqualByComparingTo("1250.50");
+        assertThat(decoded.getCreatedAt()).isNull();
+        assertThat(decoded.getId()).isEqualTo(7L);
+        assertThat(decoded.matches(ListingCursor.SortKey.PRICE, false)).isTrue();
+        assertThat(decoded.matches(ListingCursor.SortKey.CREATED_AT, false)).isFalse();
+    }
+
+    @Test
+    void encode_isUrlSafeWithoutPadding() {
+        HousingListing last = listing(Long.MAX_VALUE, LocalDateTime.of(2025, 3, 1, 12, 0), new BigDecimal("1"));
+
+        String token = ListingCursor.after(last, ListingCursor.SortKey.CREATED_AT, true).encode();
+
+        assertThat(token).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    void sortKeyFor_onlyCreatedAtAndPriceAreSeekable() {
+        assertThat(ListingCursor.sortKeyFor(null)).isEqualTo(ListingCursor.SortKey.CREATED_AT);
+        assertThat(ListingCursor.sortKeyFor("createdAt")).isEqualTo(ListingCursor.SortKey.CREATED_AT);
+        assertThat(ListingCursor.sortKeyFor("price")).isEqualTo(ListingCursor.SortKey.PRICE);
+        assertThat(ListingCursor.sortKeyFor("bedrooms")).isNull();
+        assertThat(ListingCursor.sortKeyFor("city")).isNull();
+    }
+
+    @Test
+    void decode_malformedOrTamperedToken_isRejected() {
+        String[] tokens = {
+                "",
+                "not base64!",
+                encodeRaw("c|d|2025-03-01T12:00"),
+                encodeRaw("c|d|2025-03-01T12:00|1|extra"),
+                encodeRaw("x|d|2025-03-01T12:00|1"),
+                encodeRaw("c|x|2025-03-01T12:00|1"),
+                encodeRaw("c|d|yesterday|1"),
+                encodeRaw("p|a|cheap|1"),
+                encodeRaw("p|a|100|one"),
+                encodeRaw("c|d|2025-03-01T12:00|")
+        };
+
+        for (String token : tokens) {
+            assertThatThrownBy(() -> ListingCursor.decode(token))
+                    .as("token %s", token)
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Invalid cursor");
+        }
+    }
+
+    private static String encodeRaw(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static HousingListing listing(Long id, LocalDateTime createdAt, BigDecimal price) {
+        HousingListing listing = new HousingListing();
+        listing.setId(id);
+        listing.setCreatedAt(createdAt);
+        listing.setPrice(price);
+        return listing;
+    }
+}
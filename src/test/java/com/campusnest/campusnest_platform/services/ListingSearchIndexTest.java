@@ -0,0 +1,184 @@
+package com.campusnest.campusnest_platform.services;
+
+import com.campusnest.campusnest_platform.models.HousingListing;
+import com.campusnest.campusnest_platform.repository.housing.HousingListingRepository;
+import com.campusnest.campusnest_platform.requests.SearchHousingListingRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ListingSearchIndexTest {
+
+    private static final LocalDateTime BASE_TIME = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+    @Mock
+    private HousingListingRepository housingListingRepository;
+
+    @InjectMocks
+    private ListingSearchIndex listingSearchIndex;
+
+    @BeforeEach
+    void setUp() {
+        List<HousingListing> listings = new ArrayList<>();
+        listings.add(listing(1L, "Palo Alto", "1500.00", 2, 1, 0));
+        listings.add(listing(2L, "Berkeley", "1200.00", 1, 1, 1));
+        listings.add(listing(3L, "East Palo Alto", "900.00", 3, 2, 2));
+        listings.add(listing(4L, "Palo Alto", "1500.00", 1, 1, 3));
+        listings.add(listing(5L, "Boston", "2100.00", 4, 2, 4));
+        when(housingListingRepository.findActiveAfterId(eq(0L), any())).thenReturn(listings);
+
+        listingSearchIndex.load();
+    }
+
+    @Test
+    void load_indexesActiveListingsAndBecomesReady() {
+        assertThat(listingSearchIndex.isReady()).isTrue();
+        assertThat(listingSearchIndex.size()).isEqualTo(5);
+    }
+
+    @Test
+    void search_defaultsToNewestFirst() {
+        ListingSearchIndex.SearchResult result = listingSearchIndex.search(new SearchHousingListingRequest(), null, 0, 3);
+
+        assertThat(result.ids()).containsExactly(5L, 4L, 3L);
+        assertThat(result.hasNext()).isTrue();
+    }
+
+    @Test
+    void search_matchesCityAsCaseInsensitiveSubstring() {
+        SearchHousingListingRequest request = new SearchHousingListingRequest();
+        request.setCity("palo");
+
+        ListingSearchIndex.SearchResult result = listingSearchIndex.search(request, null, 0, 10);
+
+        assertThat(result.ids()).containsExactly(4L, 3L, 1L);
+        assertThat(result.hasNext()).isFalse();
+    }
+
+    @Test
+    void search_appliesNumericFiltersAndPriceSortWithIdTieBreak() {
+        SearchHousingListingRequest request = new SearchHousingListingRequest();
+        request.setMinPrice(new BigDecimal("1000"));
+        request.setMaxBedrooms(2);
+        request.setSortBy("price");
+        request.setSortDirection("asc");
+
+        ListingSearchIndex.SearchResult result = listingSearchIndex.search(request, null, 0, 10);
+
+        assertThat(result.ids()).containsExactly(2L, 1L, 4L);
+    }
+
+    @Test
+    void search_filtersOnAvailabilityOverlap() {
+        SearchHousingListingRequest request = new SearchHousingListingRequest();
+        request.setAvailableFrom(LocalDate.of(2025, 6, 4));
+        request.setAvailableTo(LocalDate.of(2025, 6, 10));
+
+        ListingSearchIndex.SearchResult result = listingSearchIndex.search(request, null, 0, 10);
+
+        assertThat(result.ids()).containsExactly(5L, 4L, 3L, 2L, 1L);
+
+        // Only listings still available on or after July 3rd overlap this window
+        request.setAvailableFrom(LocalDate.of(2025, 7, 3));
+        request.setAvailableTo(LocalDate.of(2025, 7, 10));
+        assertThat(listingSearchIndex.search(request, null, 0, 10).ids()).containsExactly(5L, 4L, 3L);
+    }
+
+    @Test
+    void search_pagesByOffsetAndByCursorToTheSameRows() {
+        SearchHousingListingRequest request = new SearchHousingListingRequest();
+        request.setSortBy("price");
+        request.setSortDirection("desc");
+
+        ListingSearchIndex.SearchResult firstPage = listingSearchIndex.search(request, null, 0, 2);
+        ListingSearchIndex.SearchResult offsetPage = listingSearchIndex.search(request, null, 2, 2);
+
+        HousingListing last = listing(firstPage.ids().get(1), "Palo Alto", "1500.00", 2, 1, 0);
+        ListingCursor cursor = ListingCursor.after(last, ListingCursor.SortKey.PRICE, true);
+        ListingSearchIndex.SearchResult cursorPage = listingSearchIndex.search(request, cursor, 0, 2);
+
+        assertThat(firstPage.ids()).containsExactly(5L, 4L);
+        assertThat(cursorPage.ids()).containsExactly(1L, 2L);
+        assertThat(cursorPage.ids()).isEqualTo(offsetPage.ids());
+        assertThat(cursorPage.hasNext()).isTrue();
+    }
+
+    @Test
+    void search_offsetPastEveryMatch_returnsEmptyPageWithoutSizingByOffset() {
+        ListingSearchIndex.SearchResult result = listingSearchIndex.search(
+                new SearchHousingListingRequest(), null, Integer.MAX_VALUE - 5, 20);
+
+        assertThat(result.ids()).isEmpty();
+        assertThat(result.hasNext()).isFalse();
+        assertThatThrownBy(() -> listingSearchIndex.search(new SearchHousingListingRequest(), null, -20, 20))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void upsert_removesListingThatBecameInactive() {
+        HousingListing deactivated = listing(2L, "Berkeley", "1200.00", 1, 1, 1);
+        deactivated.setIsActive(false);
+
+        listingSearchIndex.upsert(deactivated);
+
+        assertThat(listingSearchIndex.size()).isEqualTo(4);
+        assertThat(listingSearchIndex.search(new SearchHousingListingRequest(), null, 0, 10).ids())
+                .doesNotContain(2L);
+    }
+
+    @Test
+    void upsert_movesListingToItsNewCity() {
+        listingSearchIndex.upsert(listing(5L, "Palo Alto", "2100.00", 4, 2, 4));
+
+        SearchHousingListingRequest request = new SearchHousingListingRequest();
+        request.setCity("boston");
+        assertThat(listingSearchIndex.search(request, null, 0, 10).ids()).isEmpty();
+
+        request.setCity("palo alto");
+        assertThat(listingSearchIndex.search(request, null, 0, 10).ids()).containsExactly(5L, 4L, 3L, 1L);
+    }
+
+    @Test
+    void remove_freesSlotForReuse() {
+        listingSearchIndex.remove(3L);
+        listingSearchIndex.upsert(listing(6L, "Berkeley", "800.00", 1, 1, 5));
+
+        SearchHousingListingRequest request = new SearchHousingListingRequest();
+        request.setCity("berkeley");
+
+        assertThat(listingSearchIndex.size()).isEqualTo(5);
+        assertThat(listingSearchIndex.search(request, null, 0, 10).ids()).containsExactly(6L, 2L);
+        request.setCity("east");
+        assertThat(listingSearchIndex.search(request, null, 0, 10).ids()).isEmpty();
+    }
+
+    private HousingListing listing(Long id, String city, String price, int bedrooms, int bathrooms, int ageRank) {
+        HousingListing listing = new HousingListing();
+        listing.setId(id);
+        listing.setCity(city);
+        listing.setPrice(new BigDecimal(price));
+        listing.setBedrooms(bedrooms);
+        listing.setBathrooms(bathrooms);
+        listing.setAvailableFrom(LocalDate.of(2025, 6, 1).plusDays(ageRank));
+        listing.setAvailableTo(LocalDate.of(2025, 6, 1).plusDays(ageRank + 30));
+        listing.setCreatedAt(BASE_TIME.plusMinutes(ageRank));
+        listing.setIsActive(true);
+        return listing;
+    }
+}
@@ -0,0 +1,196 @@
+package com.campusnest.campusnest_platform.services;
+
+import com.campusnest.campusnest_platform.enums.MessageType;
+import com.campusnest.campusnest_platform.models.Conversation;
+import com.campusnest.campusnest_platform.models.HousingListing;
+import com.campusnest.campusnest_platform.models.Message;
+import com.campusnest.campusnest_platform.models.MessageStatus;
+import com.campusnest.campusnest_platform.models.User;
+import com.campusnest.campusnest_platform.repository.message.ConversationRepository;
+import com.campusnest.campusnest_platform.repository.message.MessageRepository;
+import com.campusnest.campusnest_platform.repository.message.MessageStatusRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Messages/sec and statements per message of the current send path against the original one
+ * (participation SELECT, message INSERT, full conversation UPDATE, SENT and DELIVERED status INSERTs),
+ * on embedded H2. Absolute numbers are not MySQL numbers; the ratio and the statement count are what
+ * to compare. Opt-in: mvn test -Dtest=MessageSendBenchmarkTest -Dbenchmark=true
+ */
+@DataJpaTest
+@Import(MessagingServiceImpl.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class MessageSendBenchmarkTest {
+
+    private static final int WARMUP_MESSAGES = 2_000;
+    private static final int MEASURED_MESSAGES = 10_000;
+
+    @Autowired
+    private MessagingServiceImpl messagingService;
+
+    @MockitoBean
+    private InboxCacheVersions inboxCacheVersions;
+
+    @MockitoBean
+    private CacheManager cacheManager;
+
+    @Autowired
+    private ConversationRepository conversationRepository;
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @Autowired
+    private MessageStatusRepository messageStatusRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate tx;
+    private User sender;
+    private User recipient;
+    private Long conversationId;
+    // The original path runs in its own conversation: it does not take seqs from the conversation row
+    private Long originalConversationId;
+    private long originalSeq;
+
+    @BeforeEach
+    void setUp() {
+        tx = new TransactionTemplate(transactionManager);
+        tx.executeWithoutResult(status -> {
+            sender = user("sender@campus.edu");
+            recipient = user("recipient@campus.edu");
+            HousingListing listing = new HousingListing();
+            listing.setTitle("Benchmark listing");
+            listing.setPrice(BigDecimal.valueOf(900));
+            listing.setAddress("1 Campus Way");
+            listing.setCity("Berkeley");
+            listing.setBedrooms(1);
+            listing.setBathrooms(1);
+            listing.setAvailableFrom(LocalDate.now());
+            listing.setAvailableTo(LocalDate.now().plusMonths(6));
+            listing.setIsActive(true);
+            listing.setOwner(recipient);
+            entityManager.persist(listing);
+
+            conversationId = conversation(listing).getId();
+            originalConversationId = conversation(listing).getId();
+        });
+    }
+
+    @Test
+    void compareSendPaths() {
+        Runnable original = () -> tx.executeWithoutResult(status -> sendOriginal());
+        Runnable current = () -> messagingService.sendMessage(conversationId, sender, "hello", MessageType.TEXT);
+
+        System.out.printf("%n%-10s %12s %16s%n", "path", "messages/s", "statements/msg");
+        run("original", original);
+        run("current", current);
+
+        long sentPerPath = WARMUP_MESSAGES + MEASURED_MESSAGES;
+        assertThat(messageRepository.count()).isEqualTo(2 * sentPerPath);
+        // SENT and DELIVERED rows, written by the original path only
+        assertThat(messageStatusRepository.count()).isEqualTo(2 * sentPerPath);
+        // Only the current path keeps unread counters
+        assertThat(conversationRepository.sumUnreadCountsForUser(recipient.getId())).isEqualTo(sentPerPath);
+    }
+
+    private void run(String path, Runnable send) {
+        for (int i = 0; i < WARMUP_MESSAGES; i++) {
+            send.run();
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_MESSAGES; i++) {
+            send.run();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%-10s %12.0f %16.1f%n", path, MEASURED_MESSAGES / seconds,
+                (double) statistics.getPrepareStatementCount() / MEASURED_MESSAGES);
+    }
+
+    // MessagingServiceImpl.sendMessage as it was before the send path was reworked. Two deviations, both
+    // forced by today's schema: seq is NOT NULL now, so it is set from a local counter, and lastMessageAt
+    // is no longer updatable through the entity, so the full-row UPDATE that saving the conversation
+    // issued is run directly
+    private void sendOriginal() {
+        Conversation conversation = conversationRepository.findByIdAndParticipant(originalConversationId, sender)
+                .orElseThrow();
+        Message message = new Message();
+        message.setConversation(conversation);
+        message.setSender(sender);
+        message.setContent("hello");
+        message.setMessageType(MessageType.TEXT);
+        message.setSentAt(LocalDateTime.now());
+        message.setSeq(++originalSeq);
+        Message savedMessage = messageRepository.save(message);
+
+        entityManager.createNativeQuery("UPDATE conversations SET participant1_id = ?, participant2_id = ?, " +
+                        "housing_listing_id = ?, created_at = ?, last_message_at = ?, is_active = ? WHERE id = ?")
+                .setParameter(1, conversation.getParticipant1().getId())
+                .setParameter(2, conversation.getParticipant2().getId())
+                .setParameter(3, conversation.getHousingListing().getId())
+                .setParameter(4, conversation.getCreatedAt())
+                .setParameter(5, LocalDateTime.now())
+                .setParameter(6, conversation.getIsActive())
+                .setParameter(7, conversation.getId())
+                .executeUpdate();
+
+        messageStatusRepository.save(MessageStatus.createSentStatus(savedMessage, sender));
+        User recipient = conversation.getOtherParticipant(sender);
+        if (recipient != null) {
+            messageStatusRepository.save(MessageStatus.createDeliveredStatus(savedMessage, recipient));
+        }
+    }
+
+    private Conversation conversation(HousingListing listing) {
+        Conversation conversation = new Conversation();
+        conversation.setParticipant1(sender);
+        conversation.setParticipant2(recipient);
+        conversation.setHousingListing(listing);
+        conversation.setIsActive(true);
+        entityManager.persist(conversation);
+        return conversation;
+    }
+
+    private User user(String email) {
+        User user = new User();
+        user.setEmail(email);
+        user.setPassword("password");
+        user.setFirstName("Bench");
+        user.setLastName("Mark");
+        entityManager.persist(user);
+        return user;
+    }
+}
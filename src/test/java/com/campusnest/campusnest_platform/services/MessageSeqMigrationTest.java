@@ -0,0 +1,66 @@
+package com.campusnest.campusnest_platform.services;
+
+import com.campusnest.campusnest_platform.repository.message.ConversationRepository;
+import com.campusnest.campusnest_platform.repository.message.MessageRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MessageSeqMigrationTest {
+
+    @Mock
+    private ConversationRepository conversationRepository;
+
+    @Mock
+    private MessageRepository messageRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private MessageSeqMigration migration;
+
+    @Test
+    void migrate_renumbersEachConversationUnderItsLockThenRequiresSeq() {
+        when(messageRepository.findConversationIdsWithMissingSeq()).thenReturn(List.of(10L, 11L));
+        when(messageRepository.findSeqNullability()).thenReturn("YES");
+
+        migration.migrate();
+
+        InOrder order = inOrder(conversationRepository, messageRepository, transactionManager);
+        for (Long conversationId : List.of(10L, 11L)) {
+            order.verify(transactionManager).getTransaction(any());
+            order.verify(conversationRepository).resetLastMessageSeq(conversationId);
+            order.verify(messageRepository).clearSeqs(conversationId);
+            order.verify(messageRepository).numberConversation(conversationId);
+            order.verify(transactionManager).commit(any());
+        }
+        order.verify(messageRepository).requireSeq();
+    }
+
+    @Test
+    void migrate_migratedSchema_changesNothing() {
+        when(messageRepository.findConversationIdsWithMissingSeq()).thenReturn(List.of());
+        when(messageRepository.findSeqNullability()).thenReturn("NO");
+
+        migration.migrate();
+
+        verify(conversationRepository, never()).resetLastMessageSeq(any());
+        verify(messageRepository, never()).requireSeq();
+        verify(transactionManager, times(0)).getTransaction(any());
+    }
+}
@@ -36,6 +36,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
@@ -60,6 +61,12 @@ class MessagingServiceImplDiffblueTest {
     @MockitoBean
     private MessageStatusRepository messageStatusRepository;
 
+    @MockitoBean
+    private InboxCacheVersions inboxCacheVersions;
+
+    @MockitoBean
+    private CacheManager cacheManager;
+
     @Autowired
     private MessagingServiceImpl messagingServiceImpl;
 
@@ -196,7 +203,8 @@ class MessagingServiceImplDiffblueTest {
     @Tag("MaintainedByDiffblue")
     void testSendMessageWithConversationIdSenderContent() {
         // Arrange
-        when(conversationRepository.findByIdAndParticipant(Mockito.<Long>any(), Mockito.<User>any()))
+        when(conversationRepository.recordNewMessage(
+                Mockito.<Long>any(), Mockito.<Long>any(), Mockito.<String>any(), Mockito.<LocalDateTime>any()))
                 .thenThrow(new IllegalArgumentException());
 
         User sender = new User();
@@ -229,7 +237,8 @@ class MessagingServiceImplDiffblueTest {
         assertThrows(
                 IllegalArgumentException.class,
                 () -> messagingServiceImpl.sendMessage(1L, sender, "Not all who wander are lost"));
-        verify(conversationRepository).findByIdAndParticipant(eq(1L), isA(User.class));
+        verify(conversationRepository)
+                .recordNewMessage(eq(1L), eq(1L), eq("Not all who wander are lost"), isA(LocalDateTime.class));
     }
 
     /**
@@ -244,7 +253,8 @@ class MessagingServiceImplDiffblueTest {
     @Tag("MaintainedByDiffblue")
     void testSendMessageWithConversationIdSenderContentMessageType() {
         // Arrange
-        when(conversationRepository.findByIdAndParticipant(Mockito.<Long>any(), Mockito.<User>any()))
+        when(conversationRepository.recordNewMessage(
+                Mockito.<Long>any(), Mockito.<Long>any(), Mockito.<String>any(), Mockito.<LocalDateTime>any()))
                 .thenThrow(new IllegalArgumentException());
 
         User sender = new User();
@@ -279,7 +289,8 @@ class MessagingServiceImplDiffblueTest {
                 () ->
                         messagingServiceImpl.sendMessage(
                                 1L, sender, "Not all who wander are lost", MessageType.TEXT));
-        verify(conversationRepository).findByIdAndParticipant(eq(1L), isA(User.class));
+        verify(conversationRepository)
+                .recordNewMessage(eq(1L), eq(1L), eq("Not all who wander are lost"), isA(LocalDateTime.class));
     }
 
     /**
@@ -298,7 +309,8 @@ class MessagingServiceImplDiffblueTest {
     @Tag("MaintainedByDiffblue")
     void testSendMessageWithConversationIdSenderContentMessageType_givenJaneDoeExampleOrg() {
         // Arrange
-        when(conversationRepository.findByIdAndParticipant(Mockito.<Long>any(), Mockito.<User>any()))
+        when(conversationRepository.recordNewMessage(
+                Mockito.<Long>any(), Mockito.<Long>any(), Mockito.<String>any(), Mockito.<LocalDateTime>any()))
                 .thenThrow(new IllegalArgumentException());
 
         User sender = new User();
@@ -333,7 +345,8 @@ class MessagingServiceImplDiffblueTest {
                 () ->
                         messagingServiceImpl.sendMessage(
                                 1L, sender, "Not all who wander are lost", MessageType.TEXT));
-        verify(conversationRepository).findByIdAndParticipant(eq(1L), isA(User.class));
+        verify(conversationRepository)
+                .recordNewMessage(eq(1L), eq(1L), eq("Not all who wander are lost"), isA(LocalDateTime.class));
     }
 
     /**
@@ -352,7 +365,8 @@ class MessagingServiceImplDiffblueTest {
     @Tag("MaintainedByDiffblue")
     void testSendMessageWithConversationIdSenderContentMessageType_givenNull() {
         // Arrange
-        when(conversationRepository.findByIdAndParticipant(Mockito.<Long>any(), Mockito.<User>any()))
+        when(conversationRepository.recordNewMessage(
+                Mockito.<Long>any(), Mockito.<Long>any(), Mockito.<String>any(), Mockito.<LocalDateTime>any()))
                 .thenThrow(new IllegalArgumentException());
 
         User sender = new User();
@@ -387,7 +401,8 @@ class MessagingServiceImplDiffblueTest {
                 () ->
                         messagingServiceImpl.sendMessage(
                                 1L, sender, "Not all who wander are lost", MessageType.TEXT));
-        verify(conversationRepository).findByIdAndParticipant(eq(1L), isA(User.class));
+        verify(conversationRepository)
+                .recordNewMessage(eq(1L), eq(1L), eq("Not all who wander are lost"), isA(LocalDateTime.class));
     }
 
     /**
@@ -406,7 +421,8 @@ class MessagingServiceImplDiffblueTest {
     @Tag("MaintainedByDiffblue")
     void testSendMessageWithConversationIdSenderContent_givenJaneDoeExampleOrg() {
         // Arrange
-        when(conversationRepository.findByIdAndParticipant(Mockito.<Long>any(), Mockito.<User>any()))
+        when(conversationRepository.recordNewMessage(
+                Mockito.<Long>any(), Mockito.<Long>any(), Mockito.<String>any(), Mockito.<LocalDateTime>any()))
                 .thenThrow(new IllegalArgumentException());
 
         User sender = new User();
@@ -439,7 +455,8 @@ class MessagingServiceImplDiffblueTest {
         assertThrows(
                 IllegalArgumentException.class,
                 () -> messagingServiceImpl.sendMessage(1L, sender, "Not all who wander are lost"));
-        verify(conversationRepository).findByIdAndParticipant(eq(1L), isA(User.class));
+        verify(conversationRepository)
+                .recordNewMessage(eq(1L), eq(1L), eq("Not all who wander are lost"), isA(LocalDateTime.class));
     }
 
     /**
@@ -459,7 +476,8 @@ class MessagingServiceImplDiffblueTest {
     @Tag("MaintainedByDiffblue")
     void testSendMessageWithConversationIdSenderContent_givenNull_whenUserEmailIsNull() {
         // Arrange
-        when(conversationRepository.findByIdAndParticipant(Mockito.<Long>any(), Mockito.<User>any()))
+        when(conversationRepository.recordNewMessage(
+                Mockito.<Long>any(), Mockito.<Long>any(), Mockito.<String>any(), Mockito.<LocalDateTime>any()))
                 .thenThrow(new IllegalArgumentException());
 
         User sender = new User();
@@ -492,7 +510,8 @@ class MessagingServiceImplDiffblueTest {
         assertThrows(
                 IllegalArgumentException.class,
                 () -> messagingServiceImpl.sendMessage(1L, sender, "Not all who wander are lost"));
-        verify(conversationRepository).findByIdAndParticipant(eq(1L), isA(User.class));
+        verify(conversationRepository)
+                .recordNewMessage(eq(1L), eq(1L), eq("Not all who wander are lost"), isA(LocalDateTime.class));
     }
 
     /**
@@ -1291,7 +1310,7 @@ class MessagingServiceImplDiffblueTest {
     @Tag("MaintainedByDiffblue")
     void testMarkMessagesAsRead_givenJaneDoeExampleOrg_whenUserEmailIsJaneDoeExampleOrg() {
         // Arrange
-        when(conversationRepository.findByIdAndParticipant(Mockito.<Long>any(), Mockito.<User>any()))
+        when(conversationRepository.markAllRead(Mockito.<Long>any(), Mockito.<Long>any()))
                 .thenThrow(new IllegalArgumentException());
 
         User user = new User();
@@ -1322,7 +1341,7 @@ class MessagingServiceImplDiffblueTest {
         // Act and Assert
         assertThrows(
                 IllegalArgumentException.class, () -> messagingServiceImpl.markMessagesAsRead(1L, user));
-        verify(conversationRepository).findByIdAndParticipant(eq(1L), isA(User.class));
+        verify(conversationRepository).markAllRead(eq(1L), Mockito.<Long>any());
     }
 
     /**
@@ -1340,7 +1359,7 @@ class MessagingServiceImplDiffblueTest {
     @Tag("MaintainedByDiffblue")
     void testMarkMessagesAsRead_givenMarkingMessagesAsReadInConversationForUser() {
         // Arrange
-        when(conversationRepository.findByIdAndParticipant(Mockito.<Long>any(), Mockito.<User>any()))
+        when(conversationRepository.markAllRead(Mockito.<Long>any(), Mockito.<Long>any()))
                 .thenThrow(new IllegalArgumentException());
 
         User user = new User();
@@ -1371,7 +1390,7 @@ class MessagingServiceImplDiffblueTest {
         // Act and Assert
         assertThrows(
                 IllegalArgumentException.class, () -> messagingServiceImpl.markMessagesAsRead(1L, user));
-        verify(conversationRepository).findByIdAndParticipant(eq(1L), isA(User.class));
+        verify(conversationRepository).markAllRead(eq(1L), Mockito.<Long>any());
     }
 
     /**
@@ -1390,7 +1409,7 @@ class MessagingServiceImplDiffblueTest {
     @Tag("MaintainedByDiffblue")
     void testMarkMessagesAsRead_givenNull_whenUserEmailIsNull() {
         // Arrange
-        when(conversationRepository.findByIdAndParticipant(Mockito.<Long>any(), Mockito.<User>any()))
+        when(conversationRepository.markAllRead(Mockito.<Long>any(), Mockito.<Long>any()))
                 .thenThrow(new IllegalArgumentException());
 
         User user = new User();
@@ -1421,7 +1440,7 @@ class MessagingServiceImplDiffblueTest {
         // Act and Assert
         assertThrows(
                 IllegalArgumentException.class, () -> messagingServiceImpl.markMessagesAsRead(1L, user));
-        verify(conversationRepository).findByIdAndParticipant(eq(1L), isA(User.class));
+        verify(conversationRepository).markAllRead(eq(1L), Mockito.<Long>any());
     }
 
     /**
@@ -1627,8 +1646,7 @@ class MessagingServiceImplDiffblueTest {
     @Tag("MaintainedByDiffblue")
     void testGetTotalUnreadMessageCount_thenReturnZero() {
         // Arrange
-        when(messageRepository.findAllUnreadMessagesForUser(Mockito.<User>any()))
-                .thenReturn(new ArrayList<>());
+        when(conversationRepository.sumUnreadCountsForUser(Mockito.<Long>any())).thenReturn(0L);
 
         User user = new User();
         user.setAccountExpirationDate(
@@ -1656,11 +1674,11 @@ class MessagingServiceImplDiffblueTest {
         user.updateLastLogin();
 
         // Act
-//        long actualTotalUnreadMessageCount = messagingServiceImpl.getTotalUnreadMessageCount(user);
+        long actualTotalUnreadMessageCount = messagingServiceImpl.getTotalUnreadMessageCount(user);
 
         // Assert
-        verify(messageRepository).findAllUnreadMessagesForUser(isA(User.class));
-//        assertEquals(0L, actualTotalUnreadMessageCount);
+        verify(conversationRepository).sumUnreadCountsForUser(eq(1L));
+        assertEquals(0L, actualTotalUnreadMessageCount);
     }
 
     /**
@@ -1677,7 +1695,7 @@ class MessagingServiceImplDiffblueTest {
     @Tag("MaintainedByDiffblue")
     void testGetTotalUnreadMessageCount_thenThrowIllegalArgumentException() {
         // Arrange
-        when(messageRepository.findAllUnreadMessagesForUser(Mockito.<User>any()))
+        when(conversationRepository.sumUnreadCountsForUser(Mockito.<Long>any()))
                 .thenThrow(new IllegalArgumentException());
 
         User user = new User();
@@ -1709,7 +1727,7 @@ class MessagingServiceImplDiffblueTest {
         assertThrows(
                 IllegalArgumentException.class,
                 () -> messagingServiceImpl.getTotalUnreadMessageCount(user));
-        verify(messageRepository).findAllUnreadMessagesForUser(isA(User.class));
+        verify(conversationRepository).sumUnreadCountsForUser(eq(1L));
     }
 
     /**
@@ -1834,7 +1852,6 @@ class MessagingServiceImplDiffblueTest {
         conversation.setLastMessageAt(LocalDate.of(1970, 1, 1).atStartOfDay());
         conversation.setParticipant1(participant1);
         conversation.setParticipant2(participant2);
-        conversation.updateLastMessageTime();
         Optional<Conversation> ofResult = Optional.of(conversation);
         when(conversationRepository.findByIdAndParticipant(Mockito.<Long>any(), Mockito.<User>any()))
                 .thenReturn(ofResult);
@@ -2042,7 +2059,6 @@ class MessagingServiceImplDiffblueTest {
         conversation.setLastMessageAt(LocalDate.of(1970, 1, 1).atStartOfDay());
         conversation.setParticipant1(participant1);
         conversation.setParticipant2(participant2);
-        conversation.updateLastMessageTime();
         Optional<Conversation> ofResult = Optional.of(conversation);
         when(conversationRepository.findByIdAndParticipant(Mockito.<Long>any(), Mockito.<User>any()))
                 .thenReturn(ofResult);
@@ -2253,7 +2269,6 @@ class MessagingServiceImplDiffblueTest {
         conversation.setLastMessageAt(LocalDate.of(1970, 1, 1).atStartOfDay());
         conversation.setParticipant1(participant1);
         conversation.setParticipant2(participant2);
-        conversation.updateLastMessageTime();
         Optional<Conversation> ofResult = Optional.of(conversation);
         when(conversationRepository.findByIdAndParticipant(Mockito.<Long>any(), Mockito.<User>any()))
                 .thenReturn(ofResult);
@@ -2627,7 +2642,6 @@ class MessagingServiceImplDiffblueTest {
         conversation.setLastMessageAt(LocalDate.of(1970, 1, 1).atStartOfDay());
         conversation.setParticipant1(participant1);
         conversation.setParticipant2(participant2);
-        conversation.updateLastMessageTime();
         Optional<Conversation> ofResult = Optional.of(conversation);
         when(conversationRepository.findById(Mockito.<Long>any())).thenReturn(ofResult);
         when(messageRepository.findLatestMessageByConversation(Mockito.<Conversation>any()))
@@ -2761,7 +2775,6 @@ class MessagingServiceImplDiffblueTest {
         conversation.setLastMessageAt(LocalDate.of(1970, 1, 1).atStartOfDay());
         conversation.setParticipant1(participant1);
         conversation.setParticipant2(participant2);
-        conversation.updateLastMessageTime();
         Optional<Conversation> ofResult = Optional.of(conversation);
         when(conversationRepository.findById(Mockito.<Long>any())).thenReturn(ofResult);
 
@@ -2873,7 +2886,6 @@ class MessagingServiceImplDiffblueTest {
         conversation2.setLastMessageAt(LocalDate.of(1970, 1, 1).atStartOfDay());
         conversation2.setParticipant1(participant12);
         conversation2.setParticipant2(participant22);
-        conversation2.updateLastMessageTime();
 
         User sender = new User();
         sender.setAccountExpirationDate(
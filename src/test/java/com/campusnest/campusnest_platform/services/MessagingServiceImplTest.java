@@ -0,0 +1,66 @@
+package com.campusnest.campusnest_platform.services;
+
+import com.campusnest.campusnest_platform.models.Message;
+import com.campusnest.campusnest_platform.models.User;
+import com.campusnest.campusnest_platform.projection.NewMessageState;
+import com.campusnest.campusnest_platform.repository.message.ConversationRepository;
+import com.campusnest.campusnest_platform.repository.message.MessageRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.time.LocalDateTime;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MessagingServiceImplTest {
+
+    @Mock
+    private ConversationRepository conversationRepository;
+
+    @Mock
+    private MessageRepository messageRepository;
+
+    @Mock
+    private InboxCacheVersions inboxCacheVersions;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private Cache unreadCounts;
+
+    @InjectMocks
+    private MessagingServiceImpl messagingService;
+
+    @Test
+    void sendMessage_invalidatesOnlyTheParticipantsInboxesAndTheRecipientsUnreadCount() {
+        User sender = new User();
+        sender.setId(7L);
+        sender.setEmail("sender@campus.edu");
+        when(conversationRepository.recordNewMessage(eq(1L), eq(7L), anyString(), any(LocalDateTime.class)))
+                .thenReturn(1);
+        when(conversationRepository.findNewMessageState(1L)).thenReturn(new NewMessageState(3L, 7L, 8L));
+        when(cacheManager.getCache("unread-counts")).thenReturn(unreadCounts);
+        when(messageRepository.save(any(Message.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        messagingService.sendMessage(1L, sender, "hi");
+
+        verify(inboxCacheVersions).bump(7L, 8L);
+        verify(unreadCounts).evict(8L);
+        verify(unreadCounts, never()).clear();
+        verifyNoMoreInteractions(unreadCounts);
+        verify(cacheManager, never()).getCache("conversations");
+    }
+}
@@ -0,0 +1,160 @@
+package com.campusnest.campusnest_platform.services;
+
+import com.campusnest.campusnest_platform.models.Conversation;
+import com.campusnest.campusnest_platform.models.Message;
+import com.campusnest.campusnest_platform.models.User;
+import com.campusnest.campusnest_platform.repository.message.ConversationRepository;
+import com.campusnest.campusnest_platform.repository.message.MessageRepository;
+import com.campusnest.campusnest_platform.response.ChatMessageResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MissedMessageReplayerTest {
+
+    @Mock
+    private ConversationRepository conversationRepository;
+
+    @Mock
+    private MessageRepository messageRepository;
+
+    @Mock
+    private UserMessageDelivery userMessageDelivery;
+
+    @InjectMocks
+    private MissedMessageReplayer replayer;
+
+    private final User reader = user(1L, "reader@campus.edu");
+    private final User sender = user(2L, "sender@campus.edu");
+    private final Conversation conversation = conversation(10L);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(replayer, "batchSize", 2);
+        replayer.initExecutor();
+    }
+
+    @AfterEach
+    void tearDown() {
+        replayer.shutdown();
+    }
+
+    @Test
+    void replay_withLastSeenSeqs_seeksEachConversationFromItsSeqInBatches() {
+        conversation.setLastMessageSeq(8L);
+        when(conversationRepository.findActiveByIdsForParticipant(Set.of(10L), 1L)).thenReturn(List.of(conversation));
+        when(messageRepository.findIncomingAfterSeq(10L, 1L, 5L, PageRequest.of(0, 2)))
+                .thenReturn(List.of(message(101L, 6L), message(102L, 7L)));
+        when(messageRepository.findIncomingAfterSeq(10L, 1L, 7L, PageRequest.of(0, 2)))
+                .thenReturn(List.of(message(103L, 8L)));
+
+        replayer.replay("session-1", reader, Map.of(10L, 5L));
+
+        verify(userMessageDelivery, timeout(2000).times(3))
+                .sendToUser(eq("reader@campus.edu"), any(), eq("message"), eq("/queue/messages"));
+        verify(userMessageDelivery, times(3)).serialize(any(ChatMessageResponse.class));
+    }
+
+    @Test
+    void replay_skipsListedConversationsWithNothingNewAndReplaysUnlistedOnesFromWatermark() {
+        conversation.setLastMessageSeq(5L);
+        Conversation other = conversation(11L);
+        other.setParticipant1LastReadMessageId(40L);
+        when(conversationRepository.findActiveByIdsForParticipant(Set.of(10L), 1L)).thenReturn(List.of(conversation));
+        when(conversationRepository.findWithUnreadMessages(1L)).thenReturn(List.of(conversation, other));
+        when(messageRepository.findIncomingAfter(11L, 1L, 40L, PageRequest.of(0, 2)))
+                .thenReturn(List.of(message(41L, 3L)));
+
+        replayer.replay("session-1", reader, Map.of(10L, 5L));
+
+        verify(userMessageDelivery, timeout(2000))
+                .sendToUser(eq("reader@campus.edu"), any(), eq("message"), eq("/queue/messages"));
+        verify(messageRepository, never()).findIncomingAfterSeq(anyLong(), anyLong(), anyLong(), any());
+    }
+
+    @Test
+    void replay_withoutLastSeenSeqs_sendsUnreadMessagesAfterReadWatermarkToBothQueues() {
+        conversation.setParticipant1LastReadMessageId(50L);
+        when(conversationRepository.findWithUnreadMessages(1L)).thenReturn(List.of(conversation));
+        when(messageRepository.findIncomingAfter(10L, 1L, 50L, PageRequest.of(0, 2)))
+                .thenReturn(List.of(message(51L, 1L)));
+
+        replayer.replay("session-1", reader, null);
+
+        verify(userMessageDelivery, timeout(2000))
+                .sendToUser(eq("reader@campus.edu"), any(), eq("message"), eq("/queue/messages/10"), eq("/queue/messages"));
+    }
+
+    @Test
+    void replay_stopsAtMessageCap() {
+        ReflectionTestUtils.setField(replayer, "maxMessages", 3);
+        conversation.setLastMessageSeq(10L);
+        when(conversationRepository.findActiveByIdsForParticipant(Set.of(10L), 1L)).thenReturn(List.of(conversation));
+        when(messageRepository.findIncomingAfterSeq(10L, 1L, 0L, PageRequest.of(0, 2)))
+                .thenReturn(List.of(message(1L, 1L), message(2L, 2L)));
+        when(messageRepository.findIncomingAfterSeq(10L, 1L, 2L, PageRequest.of(0, 1)))
+                .thenReturn(List.of(message(3L, 3L)));
+
+        replayer.replay("session-1", reader, Map.of(10L, 0L));
+
+        verify(userMessageDelivery, timeout(2000).times(3))
+                .sendToUser(eq("reader@campus.edu"), any(), eq("message"), eq("/queue/messages"));
+        verify(messageRepository, times(2)).findIncomingAfterSeq(anyLong(), anyLong(), anyLong(), any());
+    }
+
+    @Test
+    void replayNow_stopsOnceSessionIsCancelled() {
+        conversation.setLastMessageSeq(10L);
+        when(conversationRepository.findActiveByIdsForParticipant(Set.of(10L), 1L)).thenReturn(List.of(conversation));
+        replayer.cancel("session-1");
+
+        assertThat(replayer.replayNow("session-1", reader, Map.of(10L, 0L))).isZero();
+        verify(messageRepository, never()).findIncomingAfterSeq(anyLong(), anyLong(), anyLong(), any());
+    }
+
+    private Conversation conversation(Long id) {
+        Conversation conversation = new Conversation();
+        conversation.setId(id);
+        conversation.setParticipant1(reader);
+        conversation.setParticipant2(sender);
+        return conversation;
+    }
+
+    private Message message(Long id, Long seq) {
+        Message message = new Message();
+        message.setId(id);
+        message.setSeq(seq);
+        message.setConversation(conversation);
+        message.setSender(sender);
+        message.setContent("message " + id);
+        return message;
+    }
+
+    private static User user(Long id, String email) {
+        User user = new User();
+        user.setId(id);
+        user.setEmail(email);
+        return user;
+    }
+}
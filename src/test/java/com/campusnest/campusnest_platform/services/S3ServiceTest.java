@@ -0,0 +1,75 @@
+package com.campusnest.campusnest_platform.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class S3ServiceTest {
+
+    private S3Presigner presigner;
+    private S3Service s3Service;
+
+    @BeforeEach
+    void setUp() {
+        // Presigning is pure local computation, no AWS access needed
+        presigner = S3Presigner.builder()
+                .region(Region.US_WEST_2)
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("test-key", "test-secret")))
+                .build();
+
+        s3Service = new S3Service();
+        ReflectionTestUtils.setField(s3Service, "s3Presigner", presigner);
+        ReflectionTestUtils.setField(s3Service, "bucketName", "test-bucket");
+        ReflectionTestUtils.setField(s3Service, "signedUrlTtlMinutes", 1440L);
+        ReflectionTestUtils.setField(s3Service, "signedUrlSafetyMarginMinutes", 60L);
+        ReflectionTestUtils.setField(s3Service, "signedUrlCacheMaxSize", 100L);
+        s3Service.initSignedUrlCache();
+    }
+
+    @AfterEach
+    void tearDown() {
+        presigner.close();
+    }
+
+    @Test
+    void getSignedImageUrl_returnsCachedUrlForSameKey() {
+        String first = s3Service.getSignedImageUrl("listing-images/a.jpg");
+        String second = s3Service.getSignedImageUrl("listing-images/a.jpg");
+
+        assertThat(first).contains("test-bucket").contains("listing-images/a.jpg").contains("X-Amz-Expires=86400");
+        assertThat(second).isSameAs(first);
+        assertThat(s3Service.signedUrlCacheStats().hitCount()).isEqualTo(1);
+        assertThat(s3Service.signedUrlCacheStats().missCount()).isEqualTo(1);
+    }
+
+    @Test
+    void getSignedImageUrls_signsEachDistinctKeyOnceAndReusesCache() {
+        String cached = s3Service.getSignedImageUrl("listing-images/a.jpg");
+
+        Map<String, String> urls = s3Service.getSignedImageUrls(
+                List.of("listing-images/a.jpg", "listing-images/b.jpg", "listing-images/b.jpg"));
+
+        assertThat(urls).containsOnlyKeys("listing-images/a.jpg", "listing-images/b.jpg");
+        assertThat(urls.get("listing-images/a.jpg")).isSameAs(cached);
+        assertThat(s3Service.signedUrlCacheStats().missCount()).isEqualTo(2);
+    }
+
+    @Test
+    void initSignedUrlCache_rejectsMarginNotBelowTtl() {
+        ReflectionTestUtils.setField(s3Service, "signedUrlSafetyMarginMinutes", 1440L);
+
+        assertThatThrownBy(() -> s3Service.initSignedUrlCache())
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
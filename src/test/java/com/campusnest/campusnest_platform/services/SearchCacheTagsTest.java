@@ -0,0 +1,132 @@
+package com.campusnest.campusnest_platform.services;
+
+import com.campusnest.campusnest_platform.models.HousingListing;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SearchCacheTagsTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private SetOperations<String, String> setOperations;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private Cache searchCache;
+
+    @InjectMocks
+    private SearchCacheTags searchCacheTags;
+
+    @Test
+    void tagKeysFor_matchesCityFiltersAsSubstringsAndUsesPriceBucket() {
+        List<String> keys = searchCacheTags.tagKeysFor(listing("East Palo Alto", "1260.00"),
+                List.of("*", "palo", "berkeley", "alto"));
+
+        assertThat(keys).containsExactly(
+                "housing-search:tagged:*:5",
+                "housing-search:tagged:palo:5",
+                "housing-search:tagged:alto:5");
+    }
+
+    @Test
+    void bucket_capsExpensiveListingsIntoLastBucket() {
+        assertThat(searchCacheTags.bucket(new BigDecimal("249.99"))).isZero();
+        assertThat(searchCacheTags.bucket(new BigDecimal("250"))).isEqualTo(1);
+        assertThat(searchCacheTags.bucket(new BigDecimal("250000"))).isEqualTo(SearchCacheTags.MAX_BUCKET);
+    }
+
+    @Test
+    void evictFor_evictsOnlyTaggedEntriesThroughTheCache() {
+        givenSearchCache();
+        when(setOperations.members(SearchCacheTags.CITY_TAGS_KEY)).thenReturn(Set.of("boston"));
+        when(redisTemplate.executePipelined(any(RedisCallback.class)))
+                .thenReturn(List.of(Set.of("boston::null:null:0", "boston:2000:null:1")));
+
+        searchCacheTags.evictFor(List.of(listing("Boston", "2100.00")));
+
+        verify(searchCache).evict("boston::null:null:0");
+        verify(searchCache).evict("boston:2000:null:1");
+        verify(searchCache, never()).clear();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void evictFor_readsLiveMembersAndKeepsThemTagged() {
+        givenSearchCache();
+        when(setOperations.members(SearchCacheTags.CITY_TAGS_KEY)).thenReturn(Set.of("boston"));
+        ArgumentCaptor<RedisCallback<Object>> callback = ArgumentCaptor.forClass(RedisCallback.class);
+        when(redisTemplate.executePipelined(callback.capture())).thenReturn(List.of(Set.of()));
+
+        searchCacheTags.evictFor(List.of(listing("Boston", "2100.00")));
+
+        // A search that stored its page after this eviction must still be found by the next one
+        StringRedisConnection connection = mock(StringRedisConnection.class);
+        callback.getValue().doInRedis(connection);
+        verify(connection).zRangeByScore(eq("housing-search:tagged:boston:8"), anyDouble(), eq(Double.POSITIVE_INFINITY));
+        verifyNoMoreInteractions(connection);
+    }
+
+    @Test
+    void evictFor_skipsRedisWhenNoSearchCouldMatch() {
+        givenSearchCache();
+        when(setOperations.members(SearchCacheTags.CITY_TAGS_KEY)).thenReturn(Set.of("boston"));
+
+        searchCacheTags.evictFor(List.of(listing("Berkeley", "900.00")));
+
+        verify(redisTemplate, never()).executePipelined(any(RedisCallback.class));
+        verify(searchCache, never()).clear();
+    }
+
+    @Test
+    void evictFor_clearsWholeCacheWhenTagsCannotBeRead() {
+        givenSearchCache();
+        when(setOperations.members(SearchCacheTags.CITY_TAGS_KEY))
+                .thenThrow(new RedisConnectionFailureException("down"));
+
+        searchCacheTags.evictFor(List.of(listing("Boston", "2100.00")));
+
+        verify(searchCache).clear();
+    }
+
+    private void givenSearchCache() {
+        when(cacheManager.getCache(SearchCacheTags.CACHE_NAME)).thenReturn(searchCache);
+        when(redisTemplate.opsForSet()).thenReturn(setOperations);
+    }
+
+    private HousingListing listing(String city, String price) {
+        HousingListing listing = new HousingListing();
+        listing.setCity(city);
+        listing.setPrice(new BigDecimal(price));
+        return listing;
+    }
+}
@@ -0,0 +1,135 @@
+package com.campusnest.campusnest_platform.services;
+
+import com.campusnest.campusnest_platform.models.User;
+import com.campusnest.campusnest_platform.response.TypingIndicatorResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class TypingIndicatorCoalescerTest {
+
+    private static final String RECIPIENT = "reader@campus.edu";
+
+    @Mock
+    private UserMessageDelivery userMessageDelivery;
+
+    @InjectMocks
+    private TypingIndicatorCoalescer coalescer;
+
+    private final AtomicLong now = new AtomicLong(1_000_000L);
+
+    private final User typist = user(2L, "typist@campus.edu");
+
+    @BeforeEach
+    void setUp() {
+        // The test drives the sweep itself
+        ReflectionTestUtils.setField(coalescer, "sweepIntervalMillis", 3_600_000L);
+        coalescer.clock = now::get;
+        coalescer.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        coalescer.shutdown();
+    }
+
+    @Test
+    void update_repeatedTypingWithinWindow_forwardsOnce() {
+        for (int i = 0; i < 20; i++) {
+            coalescer.update(10L, typist, RECIPIENT, true);
+            now.addAndGet(100);
+        }
+
+        assertThat(sentStates()).containsExactly(true);
+    }
+
+    @Test
+    void update_typingPastWindow_forwardsKeepAlive() {
+        coalescer.update(10L, typist, RECIPIENT, true);
+        now.addAndGet(3000);
+        coalescer.update(10L, typist, RECIPIENT, true);
+
+        assertThat(sentStates()).containsExactly(true, true);
+    }
+
+    @Test
+    void update_stopForwardedOnlyAfterTyping() {
+        coalescer.update(10L, typist, RECIPIENT, false);
+        verify(userMessageDelivery, never()).sendToUser(any(), any(), any(), any());
+
+        coalescer.update(10L, typist, RECIPIENT, true);
+        coalescer.update(10L, typist, RECIPIENT, false);
+        coalescer.update(10L, typist, RECIPIENT, false);
+
+        assertThat(sentStates()).containsExactly(true, false);
+        assertThat(coalescer.trackedCount()).isZero();
+    }
+
+    @Test
+    void stopIdle_sendsAutomaticStopAfterTimeout() {
+        coalescer.update(10L, typist, RECIPIENT, true);
+        now.addAndGet(4000);
+        coalescer.update(10L, typist, RECIPIENT, true);
+        now.addAndGet(4000);
+        coalescer.stopIdle();
+        now.addAndGet(1000);
+        coalescer.stopIdle();
+
+        assertThat(sentStates()).containsExactly(true, true, false);
+        assertThat(coalescer.trackedCount()).isZero();
+    }
+
+    @Test
+    void clear_endsTypingWithoutFrame() {
+        coalescer.update(10L, typist, RECIPIENT, true);
+        coalescer.clear(10L, 2L);
+        now.addAndGet(10_000);
+        coalescer.stopIdle();
+        coalescer.update(10L, typist, RECIPIENT, true);
+
+        assertThat(sentStates()).containsExactly(true, true);
+    }
+
+    @Test
+    void update_keysByConversationAndUser() {
+        coalescer.update(10L, typist, RECIPIENT, true);
+        coalescer.update(11L, typist, RECIPIENT, true);
+        coalescer.update(10L, user(3L, "other@campus.edu"), RECIPIENT, true);
+
+        verify(userMessageDelivery, times(2)).sendToUser(eq(RECIPIENT), any(), eq("typing"), eq("/queue/typing/10"));
+        verify(userMessageDelivery).sendToUser(eq(RECIPIENT), any(), eq("typing"), eq("/queue/typing/11"));
+    }
+
+    private List<Boolean> sentStates() {
+        ArgumentCaptor<Object> payloads = ArgumentCaptor.forClass(Object.class);
+        verify(userMessageDelivery, atLeast(0)).serialize(payloads.capture());
+        return payloads.getAllValues().stream()
+                .map(payload -> ((TypingIndicatorResponse) payload).getIsTyping())
+                .toList();
+    }
+
+    private static User user(Long id, String email) {
+        User user = new User();
+        user.setId(id);
+        user.setEmail(email);
+        return user;
+    }
+}
@@ -0,0 +1,105 @@
+package com.campusnest.campusnest_platform.services;
+
+import com.campusnest.campusnest_platform.config.websocket.RedisUserDestinationRelay;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.MimeTypeUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserMessageDeliveryTest {
+
+    private final MessageChannel brokerChannel = mock(MessageChannel.class);
+
+    private final UserMessageDelivery delivery = new UserMessageDelivery();
+
+    @BeforeEach
+    void setUp() {
+        SimpMessagingTemplate template = new SimpMessagingTemplate(brokerChannel);
+        template.setMessageConverter(new MappingJackson2MessageConverter());
+        ReflectionTestUtils.setField(delivery, "messagingTemplate", template);
+        when(brokerChannel.send(any(), anyLong())).thenReturn(true);
+        when(brokerChannel.send(any())).thenReturn(true);
+    }
+
+    @Test
+    void sendToUser_sharesOneSerializedPayloadAcrossAllDestinationsAndUsers() {
+        Message<?> serialized = delivery.serialize(Map.of("content", "hi"));
+
+        delivery.sendToUser("reader@campus.edu", serialized, "message", "/queue/messages/10", "/queue/messages");
+        delivery.sendToUser("sender@campus.edu", serialized, "message-sent", "/queue/message-sent");
+
+        List<Message<?>> sent = sentMessages(5);
+        assertThat(sent).extracting(m -> SimpMessageHeaderAccessor.getDestination(m.getHeaders()))
+                .containsExactly(
+                        "/user/reader@campus.edu/queue/messages/10",
+                        "/user/reader@campus.edu/queue/messages",
+                        "/user/reader@campus.edu/queue/events",
+                        "/user/sender@campus.edu/queue/message-sent",
+                        "/user/sender@campus.edu/queue/events");
+        assertThat(sent).allSatisfy(m -> {
+            assertThat(m.getPayload()).isSameAs(serialized.getPayload());
+            assertThat(SimpMessageHeaderAccessor.wrap(m).getContentType().isCompatibleWith(MimeTypeUtils.APPLICATION_JSON)).isTrue();
+        });
+        assertThat(new String((byte[]) serialized.getPayload(), StandardCharsets.UTF_8)).isEqualTo("{\"content\":\"hi\"}");
+    }
+
+    @Test
+    void sendToUser_tagsOnlyTheEventsFrameWithItsType() {
+        delivery.sendToUser("reader@campus.edu", delivery.serialize(Map.of()), "message", "/queue/messages");
+
+        List<Message<?>> sent = sentMessages(2);
+        assertThat(SimpMessageHeaderAccessor.wrap(sent.get(0)).getFirstNativeHeader(UserMessageDelivery.EVENT_TYPE_HEADER)).isNull();
+        assertThat(SimpMessageHeaderAccessor.wrap(sent.get(1)).getFirstNativeHeader(UserMessageDelivery.EVENT_TYPE_HEADER)).isEqualTo("message");
+    }
+
+    @Test
+    void sendToUser_encodesSlashesInUserName() {
+        delivery.sendToUser("a/b", delivery.serialize(Map.of()), "message");
+
+        assertThat(SimpMessageHeaderAccessor.getDestination(sentMessages(1).get(0).getHeaders()))
+                .isEqualTo("/user/a%2Fb/queue/events");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void sendToUser_withRelay_forwardsAllFramesOnceAndMarksThemForwarded() {
+        RedisUserDestinationRelay relay = mock(RedisUserDestinationRelay.class);
+        ReflectionTestUtils.setField(delivery, "redisUserDestinationRelay", relay);
+
+        delivery.sendToUser("reader@campus.edu", delivery.serialize(Map.of()), "message", "/queue/messages");
+
+        ArgumentCaptor<List<Message<?>>> forwarded = ArgumentCaptor.forClass(List.class);
+        verify(relay).forwardAll(forwarded.capture());
+        List<Message<?>> sent = sentMessages(2);
+        assertThat(forwarded.getValue()).containsExactlyElementsOf(sent);
+        // The broker channel interceptor skips marked frames, so none is published a second time
+        assertThat(sent).allSatisfy(m -> assertThat(SimpMessageHeaderAccessor.wrap(m)
+                .getFirstNativeHeader(SimpMessageHeaderAccessor.ORIGINAL_DESTINATION))
+                .isEqualTo(SimpMessageHeaderAccessor.getDestination(m.getHeaders())));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Message<?>> sentMessages(int count) {
+        ArgumentCaptor<Message<?>> captor = ArgumentCaptor.forClass(Message.class);
+        verify(brokerChannel, times(count)).send(captor.capture());
+        return captor.getAllValues();
+    }
+}
@@ -0,0 +1,162 @@
+package com.campusnest.campusnest_platform.services;
+
+import com.campusnest.campusnest_platform.events.UserPresenceEvent;
+import com.campusnest.campusnest_platform.models.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserPresenceServiceTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ZSetOperations<String, String> zSetOperations;
+
+    @Mock
+    private MessageEventProducer messageEventProducer;
+
+    @InjectMocks
+    private UserPresenceService presenceService;
+
+    private final User user = user(7L, "student@campus.edu");
+
+    @BeforeEach
+    void setUp() {
+        presenceService.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        presenceService.shutdown();
+    }
+
+    @Test
+    void sessionConnected_firstSessionPublishesOnline_secondDoesNot() {
+        // The touch script returns how many live sessions the user had before this one
+        when(redisTemplate.execute(ArgumentMatchers.<RedisScript<Long>>any(), anyList(), any(), any(), any(), any()))
+                .thenReturn(0L, 1L);
+
+        presenceService.sessionConnected(user, "tab-1");
+        presenceService.sessionConnected(user, "tab-2");
+
+        ArgumentCaptor<UserPresenceEvent> event = ArgumentCaptor.forClass(UserPresenceEvent.class);
+        verify(messageEventProducer).publishPresenceEvent(event.capture());
+        assertThat(event.getValue().getStatus()).isEqualTo(UserPresenceService.ONLINE);
+        assertThat(event.getValue().getUserId()).isEqualTo(7L);
+        assertThat(event.getValue().getSessionId()).isEqualTo("tab-1");
+    }
+
+    @Test
+    void sessionDisconnected_publishesOfflineOnlyWhenLastSessionCloses() {
+        when(redisTemplate.execute(ArgumentMatchers.<RedisScript<Long>>any(), anyList(), any(), any(), any(), any())).thenReturn(1L);
+        presenceService.sessionConnected(user, "tab-1");
+        presenceService.sessionConnected(user, "tab-2");
+        // The release script returns how many live sessions are left
+        when(redisTemplate.execute(ArgumentMatchers.<RedisScript<Long>>any(), anyList(), any(), any(), any())).thenReturn(1L, 0L);
+
+        presenceService.sessionDisconnected(user, "tab-1");
+        verify(messageEventProducer, never()).publishPresenceEvent(any());
+
+        presenceService.sessionDisconnected(user, "tab-2");
+        presenceService.sessionDisconnected(user, "tab-2");
+
+        ArgumentCaptor<UserPresenceEvent> event = ArgumentCaptor.forClass(UserPresenceEvent.class);
+        verify(messageEventProducer).publishPresenceEvent(event.capture());
+        assertThat(event.getValue().getStatus()).isEqualTo(UserPresenceService.OFFLINE);
+        verify(redisTemplate, times(2)).execute(ArgumentMatchers.<RedisScript<Long>>any(), anyList(), any(), any(), any());
+    }
+
+    @Test
+    void isUserOnline_localSessionAnswersWithoutRedis() {
+        presenceService.sessionConnected(user, "tab-1");
+
+        assertThat(presenceService.isUserOnline(7L)).isTrue();
+        verify(redisTemplate, never()).opsForZSet();
+    }
+
+    @Test
+    void isUserOnline_lastLocalSessionClosed_fallsBackToRedis() {
+        when(redisTemplate.execute(ArgumentMatchers.<RedisScript<Long>>any(), anyList(), any(), any(), any())).thenReturn(1L, 0L);
+        when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        when(zSetOperations.count(eq("presence:user:7"), anyDouble(), anyDouble())).thenReturn(0L);
+        presenceService.sessionConnected(user, "tab-1");
+        presenceService.sessionConnected(user, "tab-2");
+
+        presenceService.sessionDisconnected(user, "tab-1");
+        assertThat(presenceService.isUserOnline(7L)).isTrue();
+        verify(redisTemplate, never()).opsForZSet();
+
+        presenceService.sessionDisconnected(user, "tab-2");
+        assertThat(presenceService.isUserOnline(7L)).isFalse();
+    }
+
+    @Test
+    void isUserOnline_remoteUserIsReadThroughLocalCache() {
+        when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        when(zSetOperations.count(eq("presence:user:8"), anyDouble(), anyDouble())).thenReturn(1L);
+
+        assertThat(presenceService.isUserOnline(8L)).isTrue();
+        assertThat(presenceService.isUserOnline(8L)).isTrue();
+
+        verify(zSetOperations, times(1)).count(eq("presence:user:8"), anyDouble(), anyDouble());
+    }
+
+    @Test
+    void renewLocalSessions_touchesEverySessionOnThisNode() {
+        presenceService.sessionConnected(user, "tab-1");
+        presenceService.sessionConnected(user(9L, "other@campus.edu"), "tab-2");
+
+        presenceService.renewLocalSessions();
+
+        verify(redisTemplate, times(4)).execute(ArgumentMatchers.<RedisScript<Long>>any(), anyList(), any(), any(), any(), any());
+    }
+
+    @Test
+    void renewLocalSessions_sessionReleasedDuringTouch_isReleasedAgain() {
+        when(redisTemplate.execute(ArgumentMatchers.<RedisScript<Long>>any(), anyList(), any(), any(), any(), any()))
+                .thenReturn(1L)
+                .thenAnswer(invocation -> {
+                    // The socket closes while the heartbeat's touch is in flight
+                    presenceService.sessionDisconnected(user, "tab-1");
+                    return 0L;
+                });
+        when(redisTemplate.execute(ArgumentMatchers.<RedisScript<Long>>any(), anyList(), any(), any(), any())).thenReturn(0L);
+        presenceService.sessionConnected(user, "tab-1");
+
+        presenceService.renewLocalSessions();
+
+        verify(redisTemplate, times(2)).execute(ArgumentMatchers.<RedisScript<Long>>any(), anyList(), eq("tab-1"), any(), any());
+        ArgumentCaptor<UserPresenceEvent> event = ArgumentCaptor.forClass(UserPresenceEvent.class);
+        verify(messageEventProducer).publishPresenceEvent(event.capture());
+        assertThat(event.getValue().getStatus()).isEqualTo(UserPresenceService.OFFLINE);
+    }
+
+    private static User user(Long id, String email) {
+        User user = new User();
+        user.setId(id);
+        user.setEmail(email);
+        return user;
+    }
+}
@@ -0,0 +1,107 @@
+-- Messaging index benchmark for MySQL 8.
+--
+-- Seeds 20k users, 1M conversations and 10M messages (10 per conversation), then prints the plan and
+-- the measured execution (EXPLAIN ANALYZE) of every hot messaging query shape. Run it against an empty
+-- schema created by the application (spring.jpa.hibernate.ddl-auto=update), for example:
+--
+--   mysql -u root campusnest_bench < src/test/resources/db/messaging-index-benchmark.sql
+--
+-- Seeding takes a few minutes. Expected keys are noted above each query; a "type: ALL" row or a
+-- missing key in the plan means an index regressed.
+
+SET @users = 20000;
+SET @conversations = 1000000;
+
+DROP TEMPORARY TABLE IF EXISTS bench_digits;
+CREATE TEMPORARY TABLE bench_digits (d INT PRIMARY KEY);
+INSERT INTO bench_digits VALUES (0), (1), (2), (3), (4), (5), (6), (7), (8), (9);
+
+DROP TEMPORARY TABLE IF EXISTS bench_numbers;
+CREATE TEMPORARY TABLE bench_numbers (n INT PRIMARY KEY);
+INSERT INTO bench_numbers
+SELECT a.d + 10 * b.d + 100 * c.d + 1000 * d.d + 10000 * e.d + 100000 * f.d
+FROM bench_digits a, bench_digits b, bench_digits c, bench_digits d, bench_digits e, bench_digits f;
+
+INSERT INTO users (id, first_name, last_name, email, password, university_domain, email_verified,
+                   verification_status, active, role, account_locked, created_at, updated_at)
+SELECT n + 1, 'Bench', CONCAT('User', n), CONCAT('user', n, '@bench.edu'), 'x', 'bench.edu', TRUE,
+       'EMAIL_VERIFIED', TRUE, 'STUDENT', FALSE, NOW(), NOW()
+FROM bench_numbers WHERE n < @users;
+
+INSERT INTO housing_listings (id, title, price, address, city, bedrooms, bathrooms, available_from,
+                              available_to, is_active, owner_id, created_at, updated_at)
+VALUES (1, 'Bench listing', 900.00, '1 Campus Way', 'Berkeley', 1, 1, CURDATE(),
+        CURDATE() + INTERVAL 6 MONTH, TRUE, 1, NOW(), NOW());
+
+-- Each user takes part in ~100 conversations, half of them on each participant side
+INSERT INTO conversations (id, participant1_id, participant2_id, housing_listing_id, created_at,
+                           last_message_at, is_active, participant1_unread_count, participant2_unread_count,
+                           last_message_seq, last_message_preview)
+SELECT n + 1, 1 + n % @users, 1 + (n + 1 + n DIV @users) % @users, 1, NOW() - INTERVAL n MINUTE,
+       NOW() - INTERVAL n SECOND, n % 20 <> 0, n % 3, n % 5, 10, 'seeded message'
+FROM bench_numbers WHERE n < @conversations;
+
+INSERT INTO messages (id, conversation_id, sender_id, content, message_type, sent_at, is_edited, seq)
+SELECT (c.id - 1) * 10 + d.d + 1, c.id,
+       CASE WHEN d.d % 2 = 0 THEN c.participant1_id ELSE c.participant2_id END,
+       'seeded message', 'TEXT', c.created_at + INTERVAL d.d MINUTE, FALSE, d.d + 1
+FROM conversations c CROSS JOIN bench_digits d;
+
+INSERT INTO message_status (message_id, user_id, status, timestamp)
+SELECT m.id, CASE WHEN m.sender_id = c.participant1_id THEN c.participant2_id ELSE c.participant1_id END,
+       'READ', m.sent_at
+FROM messages m JOIN conversations c ON c.id = m.conversation_id
+WHERE m.seq <= 5 AND m.conversation_id <= 100000;
+
+ANALYZE TABLE users, conversations, messages, message_status;
+
+SET @user = 4242;
+SET @conversation = 424242;
+
+-- Inbox page (findInboxPage). Expected: index_merge (union) on idx_conversations_participant1_inbox,
+-- idx_conversations_participant2_inbox, then a filesort over only that user's conversations.
+EXPLAIN ANALYZE
+SELECT c.id, c.last_message_at, c.last_message_preview
+FROM conversations c
+WHERE (c.participant1_id = @user OR c.participant2_id = @user) AND c.is_active = TRUE
+ORDER BY c.last_message_at DESC, c.id DESC
+LIMIT 20;
+
+-- Total unread badge (sumUnreadCountsForUser). Expected: the same index-merge union.
+EXPLAIN ANALYZE
+SELECT COALESCE(SUM(CASE WHEN c.participant1_id = @user THEN c.participant1_unread_count
+                         ELSE c.participant2_unread_count END), 0)
+FROM conversations c
+WHERE c.participant1_id = @user OR c.participant2_id = @user;
+
+-- Newest message id for the read watermark (markAllRead). Expected: the conversation_id foreign-key
+-- index (InnoDB suffixes it with the id), "Select tables optimized away".
+EXPLAIN ANALYZE
+SELECT MAX(m.id) FROM messages m WHERE m.conversation_id = @conversation;
+
+-- Unread replay seek (findIncomingAfter). Expected: range on the conversation_id foreign-key index.
+EXPLAIN ANALYZE
+SELECT m.id FROM messages m
+WHERE m.conversation_id = @conversation AND m.id > (@conversation - 1) * 10 + 3 AND m.sender_id <> @user
+ORDER BY m.id
+LIMIT 100;
+
+-- Delta sync and history by seq (findByConversationAfterSeq / BeforeSeq). Expected: range on
+-- uk_messages_conversation_seq, no filesort.
+EXPLAIN ANALYZE
+SELECT m.id FROM messages m WHERE m.conversation_id = @conversation AND m.seq > 4 ORDER BY m.seq LIMIT 50;
+
+EXPLAIN ANALYZE
+SELECT m.id FROM messages m WHERE m.conversation_id = @conversation AND m.seq < 8 ORDER BY m.seq DESC LIMIT 50;
+
+-- History page by sent_at (findByConversationOrderBySentAtDesc). Expected: ref on
+-- idx_messages_conversation_sent_at, backward index scan, no filesort.
+EXPLAIN ANALYZE
+SELECT m.id FROM messages m WHERE m.conversation_id = @conversation
+ORDER BY m.sent_at DESC, m.id DESC
+LIMIT 50;
+
+-- Legacy READ rows for the watermark backfill (initializeReadWatermarks). Expected: ref on
+-- idx_message_status_user_status_message, "Using index".
+EXPLAIN ANALYZE
+SELECT MAX(ms.message_id) FROM message_status ms WHERE ms.user_id = @user AND ms.status = 'READ';